@@ -0,0 +1,76 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing the boxed and the primitive user ID index.
+ *
+ * <p>Run with {@code -prof gc}: {@code gc.alloc.rate.norm} of the lookup
+ * benchmarks shows the allocation per lookup, and that of the populate
+ * benchmarks the bytes allocated per stored entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserIdIndexBenchmark {
+
+    private static final int POPULATE_SIZE = 10_000;
+
+    @Param({"100000"})
+    private int size;
+
+    private Map<Long, UserDto> boxedIndex;
+    private InMemoryUserRepository.LongMap<UserDto> primitiveIndex;
+    private UserDto user;
+
+    @Setup
+    public void setup() {
+        user = new UserDto(null, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567");
+        boxedIndex = new ConcurrentHashMap<>();
+        primitiveIndex = new InMemoryUserRepository.LongMap<>();
+        for (long id = 1; id <= size; id++) {
+            boxedIndex.put(id, user);
+            primitiveIndex.put(id, user);
+        }
+    }
+
+    @Benchmark
+    public UserDto boxedLookup() {
+        return boxedIndex.get(ThreadLocalRandom.current().nextLong(1, size + 1));
+    }
+
+    @Benchmark
+    public UserDto primitiveLookup() {
+        return primitiveIndex.get(ThreadLocalRandom.current().nextLong(1, size + 1));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POPULATE_SIZE)
+    public Map<Long, UserDto> boxedPopulate() {
+        Map<Long, UserDto> index = new ConcurrentHashMap<>();
+        for (long id = 1; id <= POPULATE_SIZE; id++) {
+            index.put(id, user);
+        }
+        return index;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POPULATE_SIZE)
+    public InMemoryUserRepository.LongMap<UserDto> primitivePopulate() {
+        InMemoryUserRepository.LongMap<UserDto> index = new InMemoryUserRepository.LongMap<>();
+        for (long id = 1; id <= POPULATE_SIZE; id++) {
+            index.put(id, user);
+        }
+        return index;
+    }
+}
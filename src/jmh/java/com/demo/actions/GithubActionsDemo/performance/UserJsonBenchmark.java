@@ -0,0 +1,92 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.json.UserJsonModule;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing Jackson's reflective bean (de)serialization of
+ * users with the streaming {@link UserJsonModule}.
+ *
+ * <p>{@code streaming=false} uses a plain object mapper, {@code true} one
+ * with the module registered; both pool their buffers the way the
+ * application mapper does. Single users are written and read as for
+ * {@code GET} and {@code POST /api/users}, and a page of 100 users as for
+ * the user list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserJsonBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"false", "true"})
+    private boolean streaming;
+
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+    private ObjectWriter pageWriter;
+    private UserDto user;
+    private byte[] userJson;
+    private List<UserDto> page;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.getFactory().setRecyclerPool(JsonRecyclerPools.newBoundedPool(256));
+        if (streaming) {
+            objectMapper.registerModule(new UserJsonModule());
+        }
+        userWriter = objectMapper.writerFor(UserDto.class);
+        userReader = objectMapper.readerFor(UserDto.class);
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserDto.class));
+        user = new UserDto(12345L, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567");
+        userJson = userWriter.writeValueAsBytes(user);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(new UserDto(id, "User", "Bench", "user" + id + "@bench.test", 20 + (int) (id % 50),
+                    "+1-555-000-0000"));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserDto readUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] writeUserParallel() throws IOException {
+        return writeUser();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDto readUserParallel() throws IOException {
+        return readUser();
+    }
+}
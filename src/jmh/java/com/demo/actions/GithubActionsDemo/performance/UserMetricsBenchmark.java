@@ -0,0 +1,63 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark measuring the cost of UserService metrics.
+ *
+ * <p>Each operation runs against a service recording into a Prometheus
+ * registry ({@code instrumented=true}) and against one with no-op meters.
+ * The score difference between the two is the recording overhead per
+ * call, which should stay below 1 µs. The cheapest operations are used so
+ * the overhead is not hidden by the work of the operation itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserMetricsBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private UserService userService;
+
+    @Setup
+    public void setup() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        userService = instrumented
+                ? new UserService(repository, new PrometheusMeterRegistry(PrometheusConfig.DEFAULT))
+                : new UserService(repository);
+        for (int i = 0; i < USERS; i++) {
+            userService.createUser(new UserDto(null, "User", "Bench", "user" + i + "@bench.test", 30, null));
+        }
+    }
+
+    @Benchmark
+    public UserDto getUserById() {
+        return userService.getUserById(ThreadLocalRandom.current().nextLong(1, USERS + 1));
+    }
+
+    @Benchmark
+    public boolean userExists() {
+        return userService.userExists(ThreadLocalRandom.current().nextLong(1, USERS + 1));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDto getUserByIdParallel() {
+        return userService.getUserById(ThreadLocalRandom.current().nextLong(1, USERS + 1));
+    }
+}
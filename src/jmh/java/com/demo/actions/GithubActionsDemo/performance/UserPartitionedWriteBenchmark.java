@@ -0,0 +1,98 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.PartitionedUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH Benchmark comparing concurrent writers on the partitioned store with
+ * the single-map {@link InMemoryUserRepository}.
+ *
+ * <p>Each trial pre-populates the store with {@code size} users. The
+ * measured operation creates a user with an email no other thread uses and
+ * deletes it again, so the store keeps its size and every operation
+ * allocates an ID, reserves and releases an email and writes both the
+ * primary index and the ordered keys. The same operation runs on 1, 4, 16
+ * and 64 threads directly on the stores, without the service.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserPartitionedWriteBenchmark {
+
+    @Param({"memory", "partitioned"})
+    private String store;
+
+    @Param({"100000"})
+    private int size;
+
+    private final AtomicInteger writers = new AtomicInteger();
+    private UserRepository repository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = store.equals("partitioned") ? new PartitionedUserRepository() : new InMemoryUserRepository();
+        for (int i = 1; i <= size; i++) {
+            repository.insert(new UserDto(null, "User", "Bench", "user" + i + "@bench.test", 20 + i % 50, null));
+        }
+        if (repository.count() != size) {
+            throw new IllegalStateException("Store was not populated with " + size + " users");
+        }
+    }
+
+    /**
+     * Per-thread source of emails no other thread uses.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private String prefix;
+        private long next;
+
+        @Setup(Level.Trial)
+        public void setup(UserPartitionedWriteBenchmark benchmark) {
+            prefix = "writer" + benchmark.writers.incrementAndGet() + "-";
+        }
+
+        String nextEmail() {
+            return prefix + next++ + "@bench.test";
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserDto createAndDelete1Thread(Writer writer) {
+        return createAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDto createAndDelete4Threads(Writer writer) {
+        return createAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public UserDto createAndDelete16Threads(Writer writer) {
+        return createAndDelete(writer);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserDto createAndDelete64Threads(Writer writer) {
+        return createAndDelete(writer);
+    }
+
+    private UserDto createAndDelete(Writer writer) {
+        Long id = repository.insert(new UserDto(null, "New", "Bench", writer.nextEmail(), 31, null));
+        return repository.deleteById(id);
+    }
+}
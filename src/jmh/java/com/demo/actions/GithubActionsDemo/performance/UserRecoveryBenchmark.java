@@ -0,0 +1,81 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.DurableUserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH Benchmark measuring the startup recovery of the durable repository.
+ *
+ * <p>Each trial writes a snapshot of {@code users} users followed by a WAL
+ * tail of {@code tailRecords} updates, then every measured iteration
+ * recovers a fresh repository from them, either mapping the snapshot or
+ * loading it into the heap.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class UserRecoveryBenchmark {
+
+    @Param({"10000000"})
+    private int users;
+
+    @Param({"100000"})
+    private int tailRecords;
+
+    @Param({"true", "false"})
+    private boolean mapSnapshot;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("user-recovery");
+        DurableUserRepository repository = open();
+        for (int i = 0; i < users; i++) {
+            repository.insert(new UserDto(null, "User" + i, "Test",
+                    "user" + i + "@test.com", 20 + i % 50, "+1-555-000-" + String.format("%04d", i % 10_000)));
+        }
+        repository.snapshot();
+        for (int i = 0; i < tailRecords; i++) {
+            long id = 1 + (long) i * users / tailRecords;
+            repository.replace(id, new UserDto(null, "Updated" + i, "Test",
+                    "updated" + i + "@test.com", 30, null));
+        }
+        repository.close();
+    }
+
+    @Benchmark
+    public long recover() {
+        DurableUserRepository repository = open();
+        try {
+            return repository.count();
+        } finally {
+            repository.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private DurableUserRepository open() {
+        return new DurableUserRepository(directory, Duration.ofMillis(100), Duration.ZERO, mapSnapshot);
+    }
+}
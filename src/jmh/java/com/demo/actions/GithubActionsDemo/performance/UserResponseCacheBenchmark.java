@@ -0,0 +1,103 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing single-user reads that serialize the user on
+ * every request with reads served from the serialized response cache.
+ *
+ * <p>Each trial stores {@code size} users and reads them with Zipf
+ * distributed IDs (exponent {@code skew}), so a few users are hot and most
+ * are cold, as with real traffic. {@code serializePerRequest} is the path
+ * {@code GET /api/users/{id}} took before the cache: look the user up and
+ * serialize it with Jackson. {@code cachedResponse} asks the service for
+ * the serialized user, which is a cache hit for hot users. The cache keeps
+ * its default size of 100000 users.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserResponseCacheBenchmark {
+
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"0.8", "1.1"})
+    private double skew;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserService userService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        userService = new UserService(new InMemoryUserRepository(), new CompositeMeterRegistry(), objectMapper,
+                100_000);
+        for (int i = 1; i <= size; i++) {
+            userService.createUser(new UserDto(null, "User", "Bench", "user" + i + "@bench.test", 20 + i % 50,
+                    "+1-555-000-0000"));
+        }
+        ids = zipf(size, skew, SAMPLES, new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public byte[] serializePerRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userService.findUserById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public byte[] cachedResponse() {
+        return userService.findSerializedUser(randomId()).orElseThrow().getJson();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] serializePerRequestParallel() throws JsonProcessingException {
+        return serializePerRequest();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] cachedResponseParallel() {
+        return cachedResponse();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(SAMPLES)];
+    }
+
+    /**
+     * Draw IDs from 1 to {@code size} where ID {@code k} has a probability
+     * proportional to {@code 1 / k^skew}.
+     */
+    private static long[] zipf(int size, double skew, int samples, SplittableRandom random) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int k = 1; k <= size; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cumulative[k - 1] = sum;
+        }
+        long[] ids = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            int position = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            ids[i] = (position < 0 ? -position - 1 : position) + 1;
+        }
+        return ids;
+    }
+}
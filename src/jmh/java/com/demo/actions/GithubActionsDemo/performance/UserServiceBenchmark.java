@@ -0,0 +1,184 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.JdbcUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.OffHeapUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.PartitionedUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH Benchmark for steady-state UserService operations.
+ *
+ * <p>Each trial pre-populates a store with {@code size} users, whose IDs
+ * run from 1 to {@code size}. The measured operations then keep the store
+ * at that size: reads and updates pick a random existing user, and
+ * creates are paired with the delete of the created user.
+ *
+ * <p>The benchmarks cover a read workload ({@code getUserById},
+ * {@code getUsersPage}, {@code userExists}), a write workload
+ * ({@code updateUser}, {@code createAndDeleteUser}) and a mixed workload of
+ * nine reads to one update. The {@code readWrite} group runs three reader
+ * threads against one updating thread, and {@code getUserByIdParallel}
+ * runs four readers without writers, to show contention.
+ *
+ * <p>Every benchmark runs once per {@link UserRepository} backend and store
+ * size. Large sizes take long to populate, especially with JDBC; narrow
+ * them with {@code -p size=1000,100000}. The Gradle {@code jmh} task runs
+ * with {@code -prof gc} and writes JSON results to
+ * {@code build/reports/jmh/results.json}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"memory", "partitioned", "offheap", "jdbc"})
+    private String store;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int size;
+
+    private EmbeddedDatabase database;
+    private OffHeapUserRepository offHeapRepository;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        userService = new UserService(createRepository());
+        for (int i = 1; i <= size; i++) {
+            userService.createUser(new UserDto(null, "User", "Bench", email(i), 20 + i % 50, "+1-555-000-0000"));
+        }
+        // Reads and updates address users by ID, so the IDs must be 1..size
+        if (userService.getUserCount() != size || !userService.getUserById((long) size).getEmail().equals(email(size))) {
+            throw new IllegalStateException("Store was not populated with IDs 1 to " + size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (database != null) {
+            database.shutdown();
+        }
+        if (offHeapRepository != null) {
+            offHeapRepository.close();
+        }
+    }
+
+    /**
+     * Per-thread source of unique emails for created users.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private final int thread = THREADS.incrementAndGet();
+        private long created;
+
+        String nextEmail() {
+            return "created-" + thread + "-" + created++ + "@bench.test";
+        }
+    }
+
+    @Benchmark
+    public UserDto getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDto getUserByIdParallel() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public List<UserDto> getUsersPage() {
+        return userService.getUsersPage(randomId() - 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public boolean userExists() {
+        return userService.userExists(randomId());
+    }
+
+    @Benchmark
+    public UserDto updateUser() {
+        return update(randomId());
+    }
+
+    @Benchmark
+    public long createAndDeleteUser(ThreadState state) {
+        UserDto created = userService.createUser(
+                new UserDto(null, "Created", "Bench", state.nextEmail(), 30, null));
+        userService.deleteUser(created.getId());
+        return created.getId();
+    }
+
+    @Benchmark
+    public UserDto mixed() {
+        long id = randomId();
+        return ThreadLocalRandom.current().nextInt(10) == 0 ? update(id) : userService.getUserById(id);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public UserDto readWriteReader() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public UserDto readWriteWriter() {
+        return update(randomId());
+    }
+
+    private UserDto update(long id) {
+        // The email stays the same so updates never conflict on it
+        return userService.updateUser(id, new UserDto(null, "Updated", "Bench", email(id), 31, null),
+                UserService.ANY_VERSION);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    private static String email(long id) {
+        return "user" + id + "@bench.test";
+    }
+
+    private UserRepository createRepository() {
+        switch (store) {
+            case "partitioned":
+                return new PartitionedUserRepository();
+            case "offheap":
+                offHeapRepository = new OffHeapUserRepository();
+                return offHeapRepository;
+            case "jdbc":
+                database = new EmbeddedDatabaseBuilder()
+                        .setType(EmbeddedDatabaseType.H2)
+                        .generateUniqueName(true)
+                        .build();
+                return new JdbcUserRepository(database);
+            default:
+                return new InMemoryUserRepository();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark for typo-tolerant text search over {@code size} users.
+ *
+ * <p>Names are built from random syllables, so the trigram distribution
+ * resembles real names more closely than a short list of names would.
+ * Each query is the name of a random stored user with one typo (a swapped
+ * pair of letters), the worst case for trigram matching. The target is an
+ * average below 5 ms at 5 million users; narrow the sizes with
+ * {@code -p size=100000} for a quick run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserTextSearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+        "an", "ba", "ca", "de", "el", "fa", "go", "ha", "in", "jo", "ka", "li", "ma", "ne", "or",
+        "pa", "qu", "ri", "sa", "te", "ul", "va", "wi", "xa", "ya", "zo", "ber", "chr", "son", "ston"
+    };
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "5000000"})
+    private int size;
+
+    private UserService userService;
+    private String[] queries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        userService = new UserService(new InMemoryUserRepository(), new CompositeMeterRegistry(), new ObjectMapper(),
+                UserService.DEFAULT_RESPONSE_CACHE_SIZE, UserService.DEFAULT_CHANGE_LOG_RETENTION, "direct", true);
+        queries = new String[QUERIES];
+        for (int i = 1; i <= size; i++) {
+            String firstName = name(random);
+            String lastName = name(random);
+            userService.createUser(new UserDto(null, firstName, lastName,
+                    firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@bench.test", 30, null));
+            if (i % (size / QUERIES) == 0 && i / (size / QUERIES) <= QUERIES) {
+                queries[i / (size / QUERIES) - 1] = typo(firstName, random) + " " + lastName;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> searchUsersByText() {
+        return userService.searchUsersByText(queries[ThreadLocalRandom.current().nextInt(QUERIES)], 10);
+    }
+
+    private static String name(SplittableRandom random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static String typo(String name, SplittableRandom random) {
+        char[] letters = name.toCharArray();
+        int i = 1 + random.nextInt(letters.length - 2);
+        char swap = letters[i];
+        letters[i] = letters[i + 1];
+        letters[i + 1] = swap;
+        return new String(letters);
+    }
+}
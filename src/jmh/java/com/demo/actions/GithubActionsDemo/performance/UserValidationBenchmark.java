@@ -0,0 +1,69 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.service.UserValidationService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing validation of a user body by the bean validator,
+ * the path {@code @Valid} took before, with the compiled validation of
+ * {@link UserValidationService}.
+ *
+ * <p>{@code valid=true} validates a typical valid user, the common case,
+ * for which the compiled path should allocate nothing. {@code valid=false}
+ * validates a user violating one constraint per field, so both paths also
+ * build their error reports.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserValidationBenchmark {
+
+    @Param({"true", "false"})
+    private boolean valid;
+
+    private Validator beanValidator;
+    private UserValidationService validationService;
+    private UserDto user;
+
+    @Setup
+    public void setup() {
+        beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        validationService = new UserValidationService(beanValidator);
+        user = valid
+                ? new UserDto(null, "John", "Doe", "john.doe@example.com", 30, "+15551234567")
+                : new UserDto(null, "J", "Doe3", "john.doe@", 151, "0123");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDto>> beanValidator() {
+        return beanValidator.validate(user);
+    }
+
+    @Benchmark
+    public List<String> compiled() {
+        return validationService.validate(user);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Set<ConstraintViolation<UserDto>> beanValidatorParallel() {
+        return beanValidator();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<String> compiledParallel() {
+        return compiled();
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.json.UserJsonModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark comparing the wire formats of the user API: JSON, Smile
+ * and CBOR.
+ *
+ * <p>Each format writes and reads a single user and a page of 100 users
+ * with the streaming user module, as the application's message converters
+ * do. The payload sizes of both are printed when a trial starts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UserWireFormatBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter userWriter;
+    private ObjectReader userReader;
+    private ObjectWriter pageWriter;
+    private ObjectReader pageReader;
+    private UserDto user;
+    private List<UserDto> page;
+    private byte[] userBytes;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        ObjectMapper objectMapper = new ObjectMapper(factory).registerModule(new UserJsonModule());
+        JavaType pageType = objectMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class);
+        userWriter = objectMapper.writerFor(UserDto.class);
+        userReader = objectMapper.readerFor(UserDto.class);
+        pageWriter = objectMapper.writerFor(pageType);
+        pageReader = objectMapper.readerFor(pageType);
+
+        user = new UserDto(12345L, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567");
+        page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(new UserDto(id, "User", "Bench", "user" + id + "@bench.test", 20 + (int) (id % 50),
+                    "+1-555-000-0000"));
+        }
+        userBytes = userWriter.writeValueAsBytes(user);
+        pageBytes = pageWriter.writeValueAsBytes(page);
+        System.out.printf("%n%s payload: %d bytes per user, %d bytes per page of %d users%n",
+                format, userBytes.length, pageBytes.length, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws IOException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public UserDto readUser() throws IOException {
+        return userReader.readValue(userBytes);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<UserDto> readPage() throws IOException {
+        return pageReader.readValue(pageBytes);
+    }
+}
@@ -0,0 +1,132 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.DurableUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.PartitionedUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH Benchmark comparing direct and pipelined writes under contention.
+ *
+ * <p>Each trial pre-populates a store with {@code size} users, whose IDs
+ * run from 1 to {@code size}, and the measured operation updates a random
+ * existing user, keeping its email so updates never conflict. The same
+ * update runs on 1, 4, 16 and 64 threads, either directly on the calling
+ * threads or through the single writer thread of the write pipeline.
+ *
+ * <p>The {@code partitioned} store shows how far direct writes scale once
+ * they share no index structure; it has a partition per available
+ * processor. The {@code durable} store fsyncs before every write returns, which is
+ * where batching writes pays off most; its WAL is written to a temporary
+ * directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserWritePipelineBenchmark {
+
+    @Param({"direct", "pipelined"})
+    private String mode;
+
+    @Param({"memory", "partitioned", "durable"})
+    private String store;
+
+    @Param({"100000"})
+    private int size;
+
+    private Path directory;
+    private DurableUserRepository durableRepository;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        UserRepository repository = createRepository();
+        // One batch, so the durable store does not fsync once per user
+        repository.writeBatch(() -> {
+            for (int i = 1; i <= size; i++) {
+                repository.insert(new UserDto(null, "User", "Bench", email(i), 20 + i % 50, null));
+            }
+        });
+        if (repository.count() != size || !repository.findById(size).getEmail().equals(email(size))) {
+            throw new IllegalStateException("Store was not populated with IDs 1 to " + size);
+        }
+        userService = new UserService(repository, new CompositeMeterRegistry(), new ObjectMapper(),
+                100_000, 65_536, mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        userService.close();
+        if (durableRepository != null) {
+            durableRepository.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserDto updateUser1Thread() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UserDto updateUser4Threads() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public UserDto updateUser16Threads() {
+        return update();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserDto updateUser64Threads() {
+        return update();
+    }
+
+    private UserDto update() {
+        long id = ThreadLocalRandom.current().nextLong(1, size + 1);
+        return userService.updateUser(id, new UserDto(null, "Updated", "Bench", email(id), 31, null),
+                UserService.ANY_VERSION);
+    }
+
+    private static String email(long id) {
+        return "user" + id + "@bench.test";
+    }
+
+    private UserRepository createRepository() throws IOException {
+        if (store.equals("partitioned")) {
+            return new PartitionedUserRepository();
+        }
+        if (store.equals("durable")) {
+            directory = Files.createTempDirectory("user-writes");
+            durableRepository = new DurableUserRepository(directory, Duration.ZERO, Duration.ZERO, false);
+            return durableRepository;
+        }
+        return new InMemoryUserRepository();
+    }
+}
@@ -0,0 +1,151 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.GithubActionsDemoApplication;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test comparing request handling on Tomcat's platform thread pool,
+ * on virtual threads and on the reactive WebFlux stack running on Netty.
+ *
+ * <p>For each mode the application is booted on a random port, seeded with
+ * users and driven by a closed-model load: every connection is a virtual
+ * thread that sends a request, waits for the response and immediately sends
+ * the next one. Nine in ten requests fetch a random user by ID, the rest
+ * list a page of users. After a warm-up, throughput and the p50, p99 and
+ * maximum latency are printed per mode, together with the live thread
+ * count and the heap growth per connection once all connections are open.
+ * The client runs in the same JVM, so both figures include its share, which
+ * is the same for every mode.
+ *
+ * <p>Usage: {@code ThreadModeLoadBenchmark [connections] [seconds] [users]},
+ * by default 10000 connections for 30 seconds over 10000 users. Client and
+ * server share the machine, and 10000 connections need a file descriptor
+ * limit above 20000.
+ */
+public final class ThreadModeLoadBenchmark {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private ThreadModeLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        for (Mode mode : Mode.values()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(GithubActionsDemoApplication.class)
+                    .properties("server.port=0",
+                            "spring.main.web-application-type=" + (mode == Mode.REACTIVE ? "reactive" : "servlet"),
+                            "spring.threads.virtual.enabled=" + (mode == Mode.VIRTUAL),
+                            "logging.level.root=WARN")
+                    .run();
+            try {
+                UserService userService = context.getBean(UserService.class);
+                for (int i = 0; i < users; i++) {
+                    userService.createUser(new UserDto(null, "User", "Load", "user" + i + "@load.test", 30, null));
+                }
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                Result result = run("http://localhost:" + port + "/api/users", connections, duration, users);
+                System.out.printf("%-8s connections=%d requests=%d errors=%d throughput=%.0f ops/s"
+                                + " p50=%.2f ms p99=%.2f ms max=%.2f ms threads=%d heap/connection=%.1f KiB%n",
+                        mode.name().toLowerCase(), connections, result.requests(), result.errors(),
+                        result.requests() / (double) duration.toSeconds(),
+                        result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0),
+                        result.threads(), result.heapBytes() / 1024.0 / connections);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static Result run(String baseUrl, int connections, Duration duration, int users)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        URI pageUri = URI.create(baseUrl + "?limit=20");
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        Histogram latencies = new ConcurrentHistogram(3);
+        LongAdder errors = new LongAdder();
+        long idleHeap = usedHeapAfterGc();
+        int threads;
+        long heapBytes;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        URI uri = random.nextInt(10) == 0 ? pageUri
+                                : URI.create(baseUrl + "/" + (1 + random.nextInt(users)));
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        if (now >= measureFrom) {
+                            latencies.recordValue(System.nanoTime() - now);
+                        }
+                    }
+                });
+            }
+            workers.shutdown();
+            // Sample once every connection has been open through the warm-up
+            Thread.sleep(WARMUP.plus(duration.dividedBy(2)).toMillis());
+            threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            heapBytes = usedHeapAfterGc() - idleHeap;
+            workers.awaitTermination(duration.plus(WARMUP).toSeconds() + 60, TimeUnit.SECONDS);
+        }
+
+        return new Result(latencies, errors.sum(), threads, heapBytes);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private enum Mode {
+        PLATFORM, VIRTUAL, REACTIVE
+    }
+
+    private record Result(Histogram latencies, long errors, int threads, long heapBytes) {
+
+        long requests() {
+            return latencies.getTotalCount();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile * 100) / 1_000_000.0;
+        }
+    }
+}
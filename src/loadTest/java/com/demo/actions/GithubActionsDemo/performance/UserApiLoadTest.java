@@ -0,0 +1,368 @@
+package com.demo.actions.GithubActionsDemo.performance;
+
+import com.demo.actions.GithubActionsDemo.GithubActionsDemoApplication;
+import com.demo.actions.GithubActionsDemo.dto.BatchItemResultDto;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end HTTP load test of the user API.
+ *
+ * <p>The load goes through Tomcat, Jackson, bean validation and
+ * {@code UserController}, over all five user endpoints: half of the
+ * requests fetch a user by ID, a tenth list a page of users, a fifth
+ * update a user, and the rest create users and delete users created
+ * earlier, so the store keeps its size.
+ *
+ * <p>Two workload models are run after each other:
+ * <ul>
+ *   <li><b>closed</b>: a fixed number of connections, each sending its
+ *       next request as soon as the previous response arrives;</li>
+ *   <li><b>open</b>: requests start at a constant arrival rate, whether or
+ *       not earlier ones have finished. Latency is measured from the
+ *       scheduled start, so a stalled server is not hidden by fewer
+ *       requests being sent (coordinated omission).</li>
+ * </ul>
+ *
+ * <p>Latencies are recorded in HdrHistograms per endpoint. After each run
+ * the p50, p95, p99 and p99.9 latencies are printed, and the full
+ * distributions are written to the report directory. The run fails with
+ * exit code 1 unless every model meets the performance quality gates:
+ * p95 below 100 ms, more than 1000 ops/s and no failed requests.
+ *
+ * <p>Arguments are {@code key=value} pairs: {@code baseUrl} (boots the
+ * application on a random port when absent), {@code mode} ({@code closed},
+ * {@code open} or {@code both}), {@code connections} (64), {@code rate}
+ * (2000 requests per second), {@code warmup} (10 s), {@code duration}
+ * (30 s), {@code users} (10000 seeded users), {@code hotUsers} (reads
+ * by ID go to the first this many seeded users, 0 spreads them over all)
+ * and {@code report} (the directory for histogram files). When the test
+ * boots the application itself, {@code responseCacheSize} sets
+ * {@code app.users.response-cache.maximum-size}; compare a run with
+ * {@code responseCacheSize=0} against the default to see what the
+ * serialized response cache saves, and {@code json} sets
+ * {@code app.users.json}; compare {@code json=databind} against the
+ * default streaming user (de)serializers. Run it with
+ * {@code ./gradlew loadTest}.
+ */
+public final class UserApiLoadTest {
+
+    private static final long P95_GATE_MILLIS = 100;
+    private static final double THROUGHPUT_GATE = 1000;
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final long[] ids;
+    private final int hotUsers;
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private UserApiLoadTest(String baseUrl, long[] ids, int hotUsers) {
+        this.baseUrl = baseUrl;
+        this.ids = ids;
+        this.hotUsers = hotUsers == 0 ? ids.length : Math.min(hotUsers, ids.length);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        String mode = options.getOrDefault("mode", "both");
+        int connections = Integer.parseInt(options.getOrDefault("connections", "64"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "2000"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        int users = Integer.parseInt(options.getOrDefault("users", "10000"));
+        int hotUsers = Integer.parseInt(options.getOrDefault("hotUsers", "0"));
+        Path report = Path.of(options.getOrDefault("report", "build/reports/loadtest"));
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.get("baseUrl");
+        if (baseUrl == null) {
+            SpringApplicationBuilder application = new SpringApplicationBuilder(GithubActionsDemoApplication.class)
+                    .properties("server.port=0", "logging.level.root=WARN");
+            if (options.containsKey("responseCacheSize")) {
+                application.properties("app.users.response-cache.maximum-size=" + options.get("responseCacheSize"));
+            }
+            if (options.containsKey("json")) {
+                application.properties("app.users.json=" + options.get("json"));
+            }
+            context = application.run();
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        boolean passed = true;
+        try {
+            UserApiLoadTest loadTest = new UserApiLoadTest(baseUrl + "/api/users", seed(baseUrl + "/api/users", users),
+                    hotUsers);
+            Files.createDirectories(report);
+            if (!mode.equals("open")) {
+                passed &= loadTest.closed(connections).run(warmup, duration).report("closed", report);
+            }
+            if (!mode.equals("closed")) {
+                passed &= loadTest.open(rate).run(warmup, duration).report("open", report);
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.out.println(passed ? "Performance quality gates passed" : "Performance quality gates FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Create the users that reads and updates address, in batches.
+     *
+     * @return the IDs of the seeded users; the user at index {@code i} has
+     *         the email {@link #seedEmail(int) seedEmail(i)}
+     */
+    private static long[] seed(String usersUrl, int users) throws IOException, InterruptedException {
+        long[] ids = new long[users];
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (int from = 0; from < users; from += SEED_BATCH_SIZE) {
+                List<UserDto> batch = new ArrayList<>(SEED_BATCH_SIZE);
+                for (int i = from; i < Math.min(users, from + SEED_BATCH_SIZE); i++) {
+                    batch.add(new UserDto(null, "Load", "Seed", seedEmail(i), 30, null));
+                }
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(usersUrl + "/batch"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(batch)))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode()
+                            + ": " + response.body());
+                }
+                List<BatchItemResultDto> results = OBJECT_MAPPER.readValue(response.body(), new TypeReference<>() { });
+                for (BatchItemResultDto result : results) {
+                    ids[from + result.getIndex()] = result.getId();
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String seedEmail(int index) {
+        return "seed" + index + "@load.test";
+    }
+
+    private Workload closed(int connections) {
+        return (recorder, until) -> {
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < connections; i++) {
+                    workers.submit(() -> {
+                        long start;
+                        while ((start = System.nanoTime()) < until) {
+                            send(recorder, start);
+                        }
+                    });
+                }
+            }
+        };
+    }
+
+    private Workload open(int rate) {
+        return (recorder, until) -> {
+            long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+            try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (long scheduled = System.nanoTime(); scheduled < until; scheduled += interval) {
+                    long delay = scheduled - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
+                    }
+                    long intendedStart = scheduled;
+                    requests.submit(() -> send(recorder, intendedStart));
+                }
+            }
+        };
+    }
+
+    /**
+     * Send one request of the endpoint mix and record its latency from
+     * {@code start}.
+     */
+    private void send(Recorder recorder, long start) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int seedIndex = random.nextInt(ids.length);
+        int pick = random.nextInt(100);
+        Endpoint endpoint = pick < 50 ? Endpoint.GET_BY_ID
+                : pick < 60 ? Endpoint.GET_PAGE
+                : pick < 80 ? Endpoint.UPDATE
+                : pick < 90 ? Endpoint.CREATE
+                : Endpoint.DELETE;
+        Long deleteId = endpoint == Endpoint.DELETE ? createdIds.poll() : null;
+        if (endpoint == Endpoint.DELETE && deleteId == null) {
+            endpoint = Endpoint.CREATE;
+        }
+
+        HttpRequest request = switch (endpoint) {
+            case GET_BY_ID -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids[random.nextInt(hotUsers)]))
+                    .GET().build();
+            case GET_PAGE -> HttpRequest.newBuilder(URI.create(baseUrl + "?after=" + ids[seedIndex] + "&limit=20"))
+                    .GET().build();
+            case UPDATE -> json(HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids[seedIndex])),
+                    new UserDto(null, "Load", "Updated", seedEmail(seedIndex), 31, null), "PUT");
+            case CREATE -> json(HttpRequest.newBuilder(URI.create(baseUrl)),
+                    new UserDto(null, "Load", "Created", "created" + createdCount.incrementAndGet() + "@load.test",
+                            30, null), "POST");
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + deleteId)).DELETE().build();
+        };
+
+        boolean success;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            success = response.statusCode() / 100 == 2;
+            if (success && endpoint == Endpoint.CREATE) {
+                createdIds.add(OBJECT_MAPPER.readValue(response.body(), UserDto.class).getId());
+            }
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(endpoint, start, System.nanoTime(), success);
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, UserDto user, String method) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(user)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize user", e);
+        }
+    }
+
+    private enum Endpoint {
+        GET_BY_ID, GET_PAGE, UPDATE, CREATE, DELETE
+    }
+
+    /**
+     * A workload model driving requests until a deadline.
+     */
+    @FunctionalInterface
+    private interface Workload {
+
+        void drive(Recorder recorder, long until) throws InterruptedException;
+
+        /**
+         * Drive the workload through the warm-up, discarding its latencies,
+         * then through the measured duration.
+         */
+        default Recorder run(Duration warmup, Duration duration) throws InterruptedException {
+            drive(new Recorder(), System.nanoTime() + warmup.toNanos());
+            Recorder recorder = new Recorder();
+            long start = System.nanoTime();
+            drive(recorder, start + duration.toNanos());
+            // Includes waiting for requests still in flight at the deadline
+            recorder.elapsedNanos = System.nanoTime() - start;
+            return recorder;
+        }
+    }
+
+    /**
+     * Latency histograms and failure counts per endpoint.
+     */
+    private static final class Recorder {
+
+        private long elapsedNanos;
+        private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> failures = new EnumMap<>(Endpoint.class);
+
+        Recorder() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new ConcurrentHistogram(3));
+                failures.put(endpoint, new LongAdder());
+            }
+        }
+
+        void record(Endpoint endpoint, long start, long end, boolean success) {
+            latencies.get(endpoint).recordValue(end - start);
+            if (!success) {
+                failures.get(endpoint).increment();
+            }
+        }
+
+        /**
+         * Print the latencies, write the distributions and check the gates.
+         *
+         * @return whether all gates passed
+         */
+        boolean report(String model, Path directory) throws IOException {
+            Histogram total = new Histogram(3);
+            long failed = 0;
+            PrintStream out = System.out;
+            out.printf("%n%s model%n%-10s %9s %7s %9s %9s %9s %9s %9s%n", model,
+                    "endpoint", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = latencies.get(endpoint);
+                total.add(histogram);
+                failed += failures.get(endpoint).sum();
+                print(out, endpoint.name().toLowerCase(), histogram, failures.get(endpoint).sum());
+            }
+            print(out, "all", total, failed);
+            try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve(model + ".hgrm")))) {
+                total.outputPercentileDistribution(file, 1_000_000.0);
+            }
+
+            double throughput = total.getTotalCount() / (elapsedNanos / 1e9);
+            double p95 = total.getValueAtPercentile(95) / 1e6;
+            boolean passed = p95 < P95_GATE_MILLIS && throughput > THROUGHPUT_GATE && failed == 0;
+            out.printf("throughput=%.0f ops/s (gate > %.0f), p95=%.2f ms (gate < %d), errors=%d (gate 0): %s%n",
+                    throughput, THROUGHPUT_GATE, p95, P95_GATE_MILLIS, failed, passed ? "PASS" : "FAIL");
+            return passed;
+        }
+
+        private static void print(PrintStream out, String name, Histogram histogram, long failed) {
+            out.printf("%-10s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), failed,
+                    histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(95) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6);
+        }
+    }
+}
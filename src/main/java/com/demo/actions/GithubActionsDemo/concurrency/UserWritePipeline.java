@@ -0,0 +1,363 @@
+package com.demo.actions.GithubActionsDemo.concurrency;
+
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Single-writer pipeline applying writes to a {@link UserRepository} in
+ * batches, in the style of the LMAX Disruptor.
+ *
+ * <p>Callers claim a slot of a fixed ring of pre-allocated slots with one
+ * atomic increment, fill it and publish it by its sequence number; no locks
+ * are taken. One writer thread takes all published writes, up to a maximum
+ * batch size, runs them in sequence order inside one
+ * {@linkplain UserRepository#writeBatch(Runnable) repository batch}, runs
+ * the actions they registered with {@link #afterCommit(Runnable)}, and
+ * only then completes their futures. Writes therefore never race with each
+ * other, and a durable backend waits for the disk once per batch instead
+ * of once per write.
+ *
+ * <p>When the ring is full, callers spin and then park until the writer
+ * frees slots. The writer spins briefly when the ring is empty, then parks
+ * until a caller publishes a write.
+ *
+ * <p>A write throwing a runtime exception fails its own future only, as
+ * does a failing after-commit action, and a batch the repository fails to
+ * commit fails every write in it. The after-commit actions of such a batch
+ * still run, since a repository may fail to commit writes it has already
+ * applied, and whatever the actions derive from the stored users must
+ * follow them either way. An {@link Error} is not caught: it stops
+ * the writer thread, and the pipeline then rejects the pending writes and
+ * all later ones.
+ *
+ * <p>Futures are completed by the writer thread, so stages depending on
+ * them must either be cheap or run asynchronously.
+ */
+public class UserWritePipeline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserWritePipeline.class);
+
+    private static final int SPINS = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final UserRepository repository;
+    private final int maxBatchSize;
+    private final int mask;
+    private final Slot[] slots;
+    // The sequence number published in each slot, -1 before the first
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final Thread writer;
+    // Written by the writer only, after the slots up to it are free again
+    private volatile long consumed = -1;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile long batches;
+    private volatile long writes;
+    // The slot of the write being applied, used by the writer only
+    private Slot current;
+
+    /**
+     * Create a pipeline and start its writer thread.
+     *
+     * @param repository the repository the writes go to
+     * @param capacity the number of writes that can be pending, a power of two
+     * @param maxBatchSize the maximum number of writes applied in one batch
+     */
+    public UserWritePipeline(UserRepository repository, int capacity, int maxBatchSize) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        if (maxBatchSize < 1 || maxBatchSize > capacity) {
+            throw new IllegalArgumentException("Maximum batch size must be between 1 and " + capacity
+                    + ": " + maxBatchSize);
+        }
+        this.repository = repository;
+        this.maxBatchSize = maxBatchSize;
+        this.mask = capacity - 1;
+        this.slots = new Slot[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        this.writer = Thread.ofPlatform().name("user-writer").daemon().unstarted(this::runWriter);
+        writer.start();
+    }
+
+    /**
+     * Submit a write to be applied by the writer thread.
+     *
+     * @param write the write, returning its result or throwing its failure
+     * @param <T> the type of the result
+     * @return the future result, completed once the write's batch is committed
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> write) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Write pipeline is closed"));
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long sequence = claimed.incrementAndGet();
+        if (!awaitFreeSlot(sequence)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Write pipeline is closed"));
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.write = write;
+        slot.future = future;
+        published.set((int) sequence & mask, sequence);
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        if (closed) {
+            // The writer may have stopped before this write was claimed
+            joinWriter();
+            future.completeExceptionally(new RejectedExecutionException("Write pipeline is closed"));
+        }
+        return future;
+    }
+
+    /**
+     * Check whether the calling thread is the writer thread, so it is
+     * running a write of this pipeline.
+     *
+     * @return true if called from a write
+     */
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+
+    /**
+     * Run an action after the batch of the current write is committed, and
+     * before the futures of the batch are completed. Actions run in the
+     * order they were registered, also if the repository fails to commit
+     * the batch. An action throwing a runtime exception fails the current
+     * write, but not the other actions or writes.
+     *
+     * @param action the action
+     * @throws IllegalStateException if not called from a write
+     */
+    public void afterCommit(Runnable action) {
+        if (!isWriterThread() || current == null) {
+            throw new IllegalStateException("Not called from a write of the pipeline");
+        }
+        current.afterCommitActions.add(action);
+    }
+
+    /**
+     * Get the number of batches applied so far.
+     *
+     * @return the number of batches
+     */
+    public long batchCount() {
+        return batches;
+    }
+
+    /**
+     * Get the number of writes applied so far.
+     *
+     * @return the number of writes
+     */
+    public long writeCount() {
+        return writes;
+    }
+
+    /**
+     * Get the number of writes submitted but not applied yet.
+     *
+     * @return the number of pending writes
+     */
+    public long pendingCount() {
+        // Applied writes are counted before their futures are completed
+        long applied = writes;
+        return Math.max(0, claimed.get() + 1 - applied);
+    }
+
+    /**
+     * Apply the pending writes, reject new ones and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        joinWriter();
+    }
+
+    private void joinWriter() {
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait until the slot of the given sequence number is free.
+     *
+     * @return false if it never will be, as the writer has stopped
+     */
+    private boolean awaitFreeSlot(long sequence) {
+        int spins = 0;
+        // The slot is free once the write a full ring earlier is consumed
+        while (sequence - slots.length > consumed) {
+            if (spins++ < SPINS) {
+                Thread.onSpinWait();
+            } else if (closed && !writer.isAlive()) {
+                return false;
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        return true;
+    }
+
+    private void runWriter() {
+        long next = 0;
+        int spins = 0;
+        boolean drained = false;
+        try {
+            while (true) {
+                int count = 0;
+                while (count < maxBatchSize && published.get((int) (next + count) & mask) == next + count) {
+                    count++;
+                }
+                if (count > 0) {
+                    applyBatch(next, count);
+                    next += count;
+                    spins = 0;
+                } else if (closed && claimed.get() < next) {
+                    drained = true;
+                    return;
+                } else if (spins++ < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    writerParked = true;
+                    // A write published before the flag was set is seen by this check
+                    if (published.get((int) next & mask) != next && !(closed && claimed.get() < next)) {
+                        LockSupport.parkNanos(this, closed ? PARK_NANOS : Long.MAX_VALUE);
+                    }
+                    writerParked = false;
+                }
+            }
+        } finally {
+            if (!drained) {
+                rejectPending(next);
+            }
+        }
+    }
+
+    /**
+     * Reject the published writes from the given sequence number on, after
+     * an error stopped the writer. Writes published later are rejected by
+     * their callers, who see the pipeline closed.
+     */
+    @SuppressWarnings("rawtypes")
+    private void rejectPending(long next) {
+        closed = true;
+        logger.error("User writer thread stopped, rejecting pending writes");
+        for (long sequence = next; sequence <= claimed.get(); sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            CompletableFuture future = slot.future;
+            if (published.get((int) sequence & mask) == sequence && future != null) {
+                future.completeExceptionally(new RejectedExecutionException("Write pipeline writer stopped"));
+            }
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void applyBatch(long first, int count) {
+        RuntimeException batchFailure = null;
+        try {
+            repository.writeBatch(() -> {
+                for (long sequence = first; sequence < first + count; sequence++) {
+                    Slot slot = slots[(int) sequence & mask];
+                    current = slot;
+                    try {
+                        slot.result = slot.write.get();
+                    } catch (RuntimeException e) {
+                        // Fails this write only
+                        slot.failure = e;
+                    }
+                }
+                current = null;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to commit a batch of {} user writes", count, e);
+            batchFailure = e;
+        }
+        current = null;
+        // Also after a failed commit: its writes may be applied regardless
+        for (long sequence = first; sequence < first + count; sequence++) {
+            runAfterCommitActions(slots[(int) sequence & mask]);
+        }
+        batches++;
+        writes += count;
+        for (long sequence = first; sequence < first + count; sequence++) {
+            Slot slot = slots[(int) sequence & mask];
+            CompletableFuture future = slot.future;
+            RuntimeException failure = batchFailure != null ? batchFailure : slot.failure;
+            Object result = slot.result;
+            slot.clear();
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+        consumed = first + count - 1;
+    }
+
+    /**
+     * Run the after-commit actions of a committed write, each on its own,
+     * failing the write with the first action that fails.
+     */
+    private void runAfterCommitActions(Slot slot) {
+        for (Runnable action : slot.afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("After-commit action of a user write failed", e);
+                if (slot.failure == null) {
+                    slot.failure = e;
+                } else {
+                    slot.failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A pre-allocated ring slot, reused for every write that claims it.
+     */
+    private static final class Slot {
+
+        final List<Runnable> afterCommitActions = new ArrayList<>(4);
+        Supplier<?> write;
+        CompletableFuture<?> future;
+        Object result;
+        RuntimeException failure;
+
+        void clear() {
+            write = null;
+            future = null;
+            result = null;
+            failure = null;
+            afterCommitActions.clear();
+        }
+    }
+}
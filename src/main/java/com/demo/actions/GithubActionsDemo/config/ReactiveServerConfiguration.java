@@ -0,0 +1,30 @@
+package com.demo.actions.GithubActionsDemo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the reactive web stack, enabled with
+ * {@code spring.main.web-application-type=reactive}.
+ *
+ * <p>Tomcat is on the classpath for the servlet stack, and Spring Boot
+ * prefers it over Netty for reactive applications too. Declaring the Netty
+ * server factory keeps the reactive stack on an event loop instead of
+ * adapting it to Tomcat's thread pool.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfiguration {
+
+    /**
+     * Netty server for the reactive web stack.
+     *
+     * @return the Netty server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
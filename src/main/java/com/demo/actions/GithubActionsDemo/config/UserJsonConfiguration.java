@@ -0,0 +1,52 @@
+package com.demo.actions.GithubActionsDemo.config;
+
+import com.demo.actions.GithubActionsDemo.json.UserJsonModule;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the JSON mapping of users.
+ *
+ * <p>The mapping is chosen with the {@code app.users.json} property:
+ * {@code streaming} (default) registers the {@link UserJsonModule} with
+ * the application object mapper, {@code databind} leaves users to
+ * Jackson's reflective bean (de)serializers. Both produce the same
+ * bytes.
+ *
+ * <p>In both modes the buffers of Jackson's parsers and generators come
+ * from a shared bounded pool instead of a per-thread one, so requests on
+ * virtual threads, which never run twice on the same thread, reuse them
+ * too.
+ */
+@Configuration
+public class UserJsonConfiguration {
+
+    static final int BUFFER_POOL_SIZE = 256;
+
+    /**
+     * Pool the buffers of every parser and generator of the application
+     * object mapper.
+     *
+     * @return the customizer setting the buffer pool
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonBufferPoolCustomizer() {
+        return builder -> builder.postConfigurer(objectMapper ->
+                objectMapper.getFactory().setRecyclerPool(JsonRecyclerPools.newBoundedPool(BUFFER_POOL_SIZE)));
+    }
+
+    /**
+     * Streaming (de)serialization of users.
+     *
+     * @return the module
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.json", havingValue = "streaming", matchIfMissing = true)
+    public Module userJsonModule() {
+        return new UserJsonModule();
+    }
+}
@@ -0,0 +1,97 @@
+package com.demo.actions.GithubActionsDemo.config;
+
+import com.demo.actions.GithubActionsDemo.repository.DurableUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.JdbcUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.OffHeapUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.PartitionedUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration selecting the {@link UserRepository} backend.
+ *
+ * <p>The backend is chosen with the {@code app.users.store} property:
+ * {@code memory} (default), {@code partitioned}, {@code durable},
+ * {@code offheap} or {@code jdbc}. The JDBC
+ * backend uses the application data source, which is an embedded H2
+ * database unless {@code spring.datasource.url} points elsewhere.
+ */
+@Configuration
+public class UserRepositoryConfiguration {
+
+    /**
+     * Heap-based repository, used when no backend is configured.
+     *
+     * @return the in-memory repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "memory", matchIfMissing = true)
+    public UserRepository inMemoryUserRepository() {
+        return new InMemoryUserRepository();
+    }
+
+    /**
+     * Heap-based repository split into hash partitions for concurrent writers.
+     *
+     * @param partitions the number of partitions, 0 for one per available processor
+     * @return the partitioned repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "partitioned")
+    public UserRepository partitionedUserRepository(@Value("${app.users.partitioned.partitions:0}") int partitions) {
+        return partitions == 0 ? new PartitionedUserRepository() : new PartitionedUserRepository(partitions);
+    }
+
+    /**
+     * In-memory repository persisted with a write-ahead log and snapshots.
+     *
+     * @param directory the directory for WAL segments and snapshots
+     * @param fsyncInterval the maximum time between fsyncs, zero to fsync every write
+     * @param snapshotInterval the time between snapshots, zero to disable them
+     * @param mapSnapshot whether to map the latest snapshot as a read-only base
+     *        layer instead of loading it into the heap
+     * @return the durable repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "durable")
+    public UserRepository durableUserRepository(
+            @Value("${app.users.durable.directory:data/users}") Path directory,
+            @Value("${app.users.durable.fsync-interval:100ms}") Duration fsyncInterval,
+            @Value("${app.users.durable.snapshot-interval:10m}") Duration snapshotInterval,
+            @Value("${app.users.durable.map-snapshot:true}") boolean mapSnapshot) {
+        return new DurableUserRepository(directory, fsyncInterval, snapshotInterval, mapSnapshot);
+    }
+
+    /**
+     * Repository keeping users in off-heap columns outside the Java heap.
+     *
+     * @param chunkSize the size of each off-heap string arena chunk, in bytes
+     * @return the off-heap repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "offheap")
+    public UserRepository offHeapUserRepository(
+            @Value("${app.users.offheap.chunk-size:" + OffHeapUserRepository.DEFAULT_CHUNK_SIZE + "}") int chunkSize) {
+        return new OffHeapUserRepository(chunkSize);
+    }
+
+    /**
+     * Repository storing users in the application database.
+     *
+     * @param dataSource the application data source
+     * @return the JDBC repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.users.store", havingValue = "jdbc")
+    public UserRepository jdbcUserRepository(DataSource dataSource) {
+        return new JdbcUserRepository(dataSource);
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.actions.GithubActionsDemo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration of the binary wire formats of the user API.
+ *
+ * <p>Besides JSON, which stays the default, clients can send and accept
+ * Jackson Smile ({@code application/x-jackson-smile}) and CBOR
+ * ({@code application/cbor}) through the usual content negotiation. Both
+ * encode the same data model as JSON with binary lengths and numbers,
+ * and Smile also back-references repeated property names, so they are
+ * smaller and cheaper to parse for service-to-service callers.
+ *
+ * <p>The converters replace the ones Spring MVC adds for these formats
+ * by default. Their object mappers come from the application's mapper
+ * builder, so they share its modules, including the streaming user
+ * module, and its buffer pool.
+ */
+@Configuration
+public class UserWireFormatConfiguration {
+
+    /**
+     * Smile converter for request and response bodies.
+     *
+     * @param builder the application object mapper builder
+     * @return the Smile converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * CBOR converter for request and response bodies.
+     *
+     * @param builder the application object mapper builder
+     * @return the CBOR converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,171 @@
+package com.demo.actions.GithubActionsDemo.controller;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.service.ReactiveUserService;
+import com.demo.actions.GithubActionsDemo.service.UserValidationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Reactive WebFlux endpoints for managing users, used instead of
+ * {@link UserController} when the application runs as a reactive web
+ * application ({@code spring.main.web-application-type=reactive}).
+ *
+ * <p>The endpoints mirror the single-user endpoints of the MVC API, including
+ * the version {@code ETag}, {@code If-None-Match} and {@code If-Match}
+ * handling. Listing all users streams them with backpressure, as a JSON
+ * array by default or one user per line for {@code application/x-ndjson}
+ * and one event per user for {@code text/event-stream}; pages are only
+ * read from the store as the client consumes them. Batch and search
+ * endpoints are only offered by the MVC API. Errors are answered by
+ * {@link UserErrorController}, as for the MVC API.
+ */
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+    private final UserValidationService validationService;
+
+    public ReactiveUserController(ReactiveUserService userService, UserValidationService validationService) {
+        this.userService = userService;
+        this.validationService = validationService;
+    }
+
+    /**
+     * Stream all users, one per line or one per server-sent event.
+     *
+     * @return all users in ID order
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<UserDto> streamUsers() {
+        return userService.getAllUsers();
+    }
+
+    /**
+     * Get all users as a JSON array, or one page of them when a cursor or
+     * limit is given.
+     *
+     * @param after the ID after which the page starts
+     * @param limit the maximum number of users in the page
+     * @return all users, or the page with a {@code Link} to the next one
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Flux<UserDto>>> getUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                    .body(userService.getAllUsers()));
+        }
+
+        int pageSize = limit == null ? UserController.DEFAULT_PAGE_SIZE
+                : Math.clamp(limit, 1, UserController.MAX_PAGE_SIZE);
+        return userService.getUsersPage(after == null ? 0L : after, pageSize).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (page.size() == pageSize) {
+                Long nextCursor = page.get(page.size() - 1).getId();
+                response.header(HttpHeaders.LINK,
+                        "</api/users?after=" + nextCursor + "&limit=" + pageSize + ">; rel=\"next\"");
+            }
+            return response.body(Flux.fromIterable(page));
+        });
+    }
+
+    /**
+     * Get a user by ID, answering 304 while its ETag matches
+     * {@code If-None-Match}. A missing user is answered with the shared
+     * 404 response, without an exception.
+     *
+     * @param id the user ID
+     * @return the user with its version ETag
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getUserById(@PathVariable long id) {
+        return userService.findUserById(id)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok().eTag(UserController.etag(user)).body(user))
+                .defaultIfEmpty(UserErrorController.USER_NOT_FOUND);
+    }
+
+    /**
+     * Create a new user.
+     *
+     * @param userDto the user to create
+     * @return the created user with its location and version ETag
+     */
+    @PostMapping
+    public Mono<ResponseEntity<UserDto>> createUser(@RequestBody Mono<UserDto> userDto) {
+        return valid(userDto)
+                .flatMap(userService::createUser)
+                .map(user -> ResponseEntity.created(URI.create("/api/users/" + user.getId()))
+                        .eTag(UserController.etag(user))
+                        .body(user));
+    }
+
+    /**
+     * Update an existing user, optionally only if it matches an ETag.
+     *
+     * @param id the user ID
+     * @param ifMatch the ETag of the version to update
+     * @param userDto the updated user data
+     * @return the updated user with its new version ETag
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> updateUser(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Mono<UserDto> userDto) {
+        long expectedVersion = UserController.expectedVersion(ifMatch);
+        return valid(userDto)
+                .flatMap(user -> userService.updateUser(id, user, expectedVersion))
+                .map(user -> ResponseEntity.ok().eTag(UserController.etag(user)).body(user));
+    }
+
+    /**
+     * Delete a user.
+     *
+     * @param id the user ID
+     * @return no content response
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable long id) {
+        return userService.deleteUser(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Validate the request body, failing with 400 and the violations when
+     * it is invalid.
+     */
+    private Mono<UserDto> valid(Mono<UserDto> userDto) {
+        return userDto
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("User is required")))
+                .handle((user, sink) -> {
+                    List<String> violations = validationService.validate(user);
+                    if (violations.isEmpty()) {
+                        sink.next(user);
+                        return;
+                    }
+                    List<String> errors = violations.stream().sorted().toList();
+                    sink.error(new ServerWebInputException(String.join(", ", errors)));
+                });
+    }
+}
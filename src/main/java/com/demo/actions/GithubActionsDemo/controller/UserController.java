@@ -1,18 +1,44 @@
 package com.demo.actions.GithubActionsDemo.controller;
 
+import com.demo.actions.GithubActionsDemo.dto.BatchItemResultDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
 import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserSearchCriteriaDto;
 import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.demo.actions.GithubActionsDemo.service.UserValidationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * REST controller for managing users.
@@ -20,52 +46,370 @@ import java.util.List;
  * <p>This controller provides endpoints for CRUD operations on users.
  * It demonstrates proper API design with OpenAPI documentation,
  * input validation, and error handling.
+ *
+ * <p>Single-user responses carry the user version as a strong {@code ETag}.
+ * Clients revalidate with {@code If-None-Match} and make updates
+ * conditional with {@code If-Match}.
+ *
+ * <p>Instead of polling the users, consumers can tail the changes to them
+ * from {@code /api/users/changes}, by long polling or as server-sent
+ * events. Waiting requests hold no thread: they are completed on a virtual
+ * thread started by the write that ends the wait.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "APIs for managing users")
 public class UserController {
 
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+    // The formats a single user is available in, the default first
+    static final List<MediaType> USER_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType(SMILE_VALUE), MediaType.APPLICATION_CBOR);
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 10_000;
+    static final int DEFAULT_TEXT_SEARCH_SIZE = 10;
+    static final int MAX_TEXT_SEARCH_SIZE = 100;
+    static final int MAX_TEXT_QUERY_LENGTH = 100;
+    static final int DEFAULT_CHANGES_WAIT_SECONDS = 30;
+    static final int MAX_CHANGES_WAIT_SECONDS = 60;
+    static final long CHANGE_STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserValidationService validationService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper,
+                          UserValidationService validationService) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.validationService = validationService;
     }
 
     /**
-     * Get all users.
+     * Validate {@code @Valid} users with the validation service instead of
+     * the default bean validator.
+     *
+     * @param binder the binder of a handler method argument
+     */
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        if (binder.getTarget() instanceof UserDto) {
+            binder.replaceValidators(validationService);
+        }
+    }
+
+    /**
+     * Get all users, or a single page of users when a cursor or limit is given.
+     *
+     * <p>Pages are ordered by ID. When a page is full, a {@code Link} header
+     * with {@code rel="next"} points at the following page.
      *
-     * @return list of all users
+     * <p>Listings carry the store-wide modification count as a weak
+     * {@code ETag}. When it matches the request's {@code If-None-Match}
+     * header, nothing was written since and the response is 304 Not
+     * Modified without reading or serializing any user. The ETag is weak
+     * so the server may compress the body.
+     *
+     * @param after the ID of the last user of the previous page
+     * @param limit the maximum number of users to return
+     * @param request the request, for the conditional headers
+     * @return list of users, or null if not modified
      */
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieves a list of all users")
+    @Operation(summary = "Get all users", description = "Retrieves all users, or one page of users when 'after' or 'limit' is given")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
+        @ApiResponse(responseCode = "304", description = "No user changed since the given ETag"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<UserDto> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserDto>> getAllUsers(
+            @Parameter(description = "Return users with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users to return (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        // Read before the users, so the listing reflects at least this count
+        String etag = listingEtag(userService.getModificationCount(), request.getHeader(HttpHeaders.ACCEPT));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (after == null && limit == null) {
+            List<UserDto> users = userService.getAllUsers();
+            return ResponseEntity.ok().eTag(etag).body(users);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<UserDto> page = userService.getUsersPage(after == null ? 0L : after, pageSize);
+        if (page.size() < pageSize) {
+            return ResponseEntity.ok().eTag(etag).body(page);
+        }
+        Long nextCursor = page.get(page.size() - 1).getId();
+        String nextLink = "</api/users?after=" + nextCursor + "&limit=" + pageSize + ">; rel=\"next\"";
+        return ResponseEntity.ok().eTag(etag).header(HttpHeaders.LINK, nextLink).body(page);
+    }
+
+    /**
+     * Stream all users as newline-delimited JSON.
+     *
+     * <p>Users are read page by page and written straight to the response,
+     * so the full list is never materialized in memory.
+     *
+     * @return the streaming response body
+     */
+    @GetMapping(params = "stream=true", produces = NDJSON_VALUE)
+    @Operation(summary = "Stream all users", description = "Streams all users as newline-delimited JSON ordered by ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully streamed users")
+    })
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                long cursor = 0L;
+                List<UserDto> page;
+                do {
+                    page = userService.getUsersPage(cursor, MAX_PAGE_SIZE);
+                    for (UserDto user : page) {
+                        generator.writeObject(user);
+                    }
+                    if (!page.isEmpty()) {
+                        cursor = page.get(page.size() - 1).getId();
+                    }
+                    generator.flush();
+                } while (page.size() == MAX_PAGE_SIZE);
+                if (cursor > 0L) {
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * Search users by name prefix, age range and email domain.
+     *
+     * <p>All given criteria must match. Results are paged like
+     * {@link #getAllUsers(Long, Integer, WebRequest)}: ordered by ID, with a
+     * {@code Link} header pointing at the next page when a page is full.
+     *
+     * @param firstName prefix of the first name
+     * @param lastName prefix of the last name
+     * @param minAge minimum age, inclusive
+     * @param maxAge maximum age, inclusive
+     * @param emailDomain domain of the email address
+     * @param after the ID of the last user of the previous page
+     * @param limit the maximum number of users to return
+     * @return the matching users
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search users", description = "Finds users by name prefix, age range and email domain")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched users"),
+        @ApiResponse(responseCode = "400", description = "Invalid search criteria"),
+        @ApiResponse(responseCode = "501", description = "Search indexes are not enabled")
+    })
+    public ResponseEntity<List<UserDto>> searchUsers(
+            @Parameter(description = "Prefix of the first name, case-insensitive")
+            @RequestParam(required = false) String firstName,
+            @Parameter(description = "Prefix of the last name, case-insensitive")
+            @RequestParam(required = false) String lastName,
+            @Parameter(description = "Minimum age, inclusive")
+            @RequestParam(required = false) Integer minAge,
+            @Parameter(description = "Maximum age, inclusive")
+            @RequestParam(required = false) Integer maxAge,
+            @Parameter(description = "Domain of the email address, case-insensitive")
+            @RequestParam(required = false) String emailDomain,
+            @Parameter(description = "Return users with an ID greater than this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of users to return (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit) {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "minAge " + minAge + " is greater than maxAge " + maxAge);
+        }
+
+        UserSearchCriteriaDto criteria = new UserSearchCriteriaDto(firstName, lastName, minAge, maxAge, emailDomain);
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<UserDto> page = userService.searchUsers(criteria, after == null ? 0L : after, pageSize);
+        if (page.size() < pageSize) {
+            return ResponseEntity.ok(page);
+        }
+        // The request query is still encoded; only numeric parameters are added
+        String query = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.get(page.size() - 1).getId())
+                .replaceQueryParam("limit", pageSize)
+                .build(true)
+                .getQuery();
+        String nextLink = "</api/users/search?" + query + ">; rel=\"next\"";
+        return ResponseEntity.ok().header(HttpHeaders.LINK, nextLink).body(page);
+    }
+
+    /**
+     * Search users by free text, tolerating typos.
+     *
+     * @param query the words to look for in names and email addresses
+     * @param limit the maximum number of users to return
+     * @return the best matching users, most relevant first
+     */
+    @GetMapping("/search/text")
+    @Operation(summary = "Search users by text", description = "Finds the users whose names or email best match the query, tolerating typos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched users"),
+        @ApiResponse(responseCode = "400", description = "Missing or too long query"),
+        @ApiResponse(responseCode = "501", description = "Search indexes are not enabled")
+    })
+    public ResponseEntity<List<UserDto>> searchUsersByText(
+            @Parameter(description = "Words to look for (1-" + MAX_TEXT_QUERY_LENGTH + " characters)", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Maximum number of users to return (1-" + MAX_TEXT_SEARCH_SIZE + ")")
+            @RequestParam(required = false) Integer limit) {
+        if (query.isBlank() || query.length() > MAX_TEXT_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query must have between 1 and " + MAX_TEXT_QUERY_LENGTH + " characters");
+        }
+        int size = limit == null ? DEFAULT_TEXT_SEARCH_SIZE : Math.clamp(limit, 1, MAX_TEXT_SEARCH_SIZE);
+        return ResponseEntity.ok(userService.searchUsersByText(query, size));
+    }
+
+    /**
+     * Get the changes to users after a sequence number, waiting for one if
+     * there are none yet.
+     *
+     * <p>Consumers pass the {@code sequence} of each response as
+     * {@code since} of the next request. Without {@code since}, only
+     * changes from now on are returned, so a consumer loads the users
+     * after its first request. When the changes after {@code since} are no
+     * longer retained, the response is 410 Gone with resync required: the
+     * consumer reloads the users and continues from the returned sequence.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param limit the maximum number of changes to return
+     * @param wait the number of seconds to wait for a change
+     * @return the changes, completed when there are some or the wait is over
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get changes to users", description = "Long-polls the creates, updates and deletes after a sequence number")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes after the sequence number, empty if none were made in time"),
+        @ApiResponse(responseCode = "410", description = "Changes are no longer retained and users must be reloaded")
+    })
+    public DeferredResult<ResponseEntity<UserChangesDto>> getChanges(
+            @Parameter(description = "Sequence number of the last change already seen, defaults to now")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "Maximum number of changes to return (1-" + MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Seconds to wait for a change (0-" + MAX_CHANGES_WAIT_SECONDS + ")")
+            @RequestParam(required = false) Integer wait) {
+        long cursor = since == null ? userService.getModificationCount() : since;
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        int waitSeconds = wait == null ? DEFAULT_CHANGES_WAIT_SECONDS : Math.clamp(wait, 0, MAX_CHANGES_WAIT_SECONDS);
+        UserChangesDto none = UserChangesDto.of(List.of(), cursor);
+        DeferredResult<ResponseEntity<UserChangesDto>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(waitSeconds), () -> ResponseEntity.ok(none));
+        Runnable listener = () -> Thread.startVirtualThread(() -> result.setResult(changesResponse(cursor, size)));
+        if (waitSeconds > 0 && userService.awaitChanges(cursor, listener)) {
+            result.onCompletion(() -> userService.cancelAwaitChanges(listener));
+        } else {
+            result.setResult(changesResponse(cursor, size));
+        }
+        return result;
+    }
+
+    /**
+     * Stream the changes to users after a sequence number as server-sent
+     * events.
+     *
+     * <p>Each change is a {@code change} event whose ID is its sequence
+     * number, so a reconnecting {@code EventSource} resumes after the last
+     * change it received through the {@code Last-Event-ID} header. When
+     * the changes to resume from are no longer retained, a {@code resync}
+     * event carrying the sequence to continue from ends the stream. Streams
+     * end after five minutes, and clients reconnect.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param lastEventId the ID of the last event received by a reconnecting client
+     * @return the event stream
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changes to users", description = "Streams the creates, updates and deletes after a sequence number as server-sent events")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream of change events")
+    })
+    public ResponseEntity<SseEmitter> streamChanges(
+            @Parameter(description = "Sequence number of the last change already seen, defaults to now")
+            @RequestParam(required = false) Long since,
+            @Parameter(description = "ID of the last event received, sent by reconnecting clients")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long cursor = since != null ? since : lastEventId != null ? lastEventId : userService.getModificationCount();
+        SseEmitter emitter = new SseEmitter(CHANGE_STREAM_TIMEOUT_MILLIS);
+        AtomicReference<Runnable> listener = new AtomicReference<>();
+        emitter.onCompletion(() -> {
+            Runnable pending = listener.get();
+            if (pending != null) {
+                userService.cancelAwaitChanges(pending);
+            }
+        });
+        Thread.startVirtualThread(() -> {
+            try {
+                // Sets the ID a client reconnecting before the first change resumes from
+                emitter.send(SseEmitter.event().id(Long.toString(cursor)).comment("changes after " + cursor));
+            } catch (IOException | IllegalStateException e) {
+                // Closed before it started
+                return;
+            }
+            sendChanges(emitter, cursor, listener);
+        });
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
     }
 
     /**
      * Get user by ID.
      *
+     * <p>JSON bodies come pre-serialized from the service's response cache
+     * and are written to the response as is. Smile and CBOR bodies are
+     * serialized per request by the message converters. The response
+     * carries the user version as its {@code ETag}; when it matches the
+     * request's {@code If-None-Match} header, Spring answers 304 Not
+     * Modified without writing the body.
+     *
      * @param id the user ID
+     * @param accept the media types the client accepts, or null for any
      * @return the user
      */
-    @GetMapping("/{id}")
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, SMILE_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE})
     @Operation(summary = "Get user by ID", description = "Retrieves a specific user by their ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved user"),
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved user",
+                content = @Content(schema = @Schema(implementation = UserDto.class))),
+        @ApiResponse(responseCode = "304", description = "User not modified since the given ETag"),
         @ApiResponse(responseCode = "404", description = "User not found"),
         @ApiResponse(responseCode = "400", description = "Invalid ID format")
     })
-    public ResponseEntity<UserDto> getUserById(
+    public ResponseEntity<?> getUserById(
             @Parameter(description = "User ID", required = true)
-            @PathVariable Long id) {
-        UserDto user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType mediaType = negotiate(accept);
+        if (!mediaType.equals(MediaType.APPLICATION_JSON)) {
+            return userService.findUserById(id)
+                    .<ResponseEntity<?>>map(user -> ResponseEntity.ok()
+                            .eTag(etag(user))
+                            .contentType(mediaType)
+                            .body(user))
+                    .orElse(UserErrorController.USER_NOT_FOUND);
+        }
+        return userService.findSerializedUser(id)
+                .map(user -> ResponseEntity.ok()
+                        .eTag(etag(user.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(user.getJson()))
+                .orElse(UserErrorController.USER_NOT_FOUND);
     }
 
     /**
@@ -79,36 +423,45 @@ public class UserController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "User created successfully"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
-        @ApiResponse(responseCode = "409", description = "User already exists")
+        @ApiResponse(responseCode = "409", description = "Another user has the email, ignoring case")
     })
     public ResponseEntity<UserDto> createUser(
             @Parameter(description = "User data", required = true)
             @Valid @RequestBody UserDto userDto) {
         UserDto createdUser = userService.createUser(userDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(createdUser)).body(createdUser);
     }
 
     /**
      * Update an existing user.
      *
+     * <p>With an {@code If-Match} header the update only applies if the
+     * user is still at the version of that ETag, so concurrent updates
+     * cannot silently overwrite each other.
+     *
      * @param id the user ID
+     * @param ifMatch the ETag the user must match, or null to update unconditionally
      * @param userDto the updated user data
      * @return the updated user
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update user", description = "Updates an existing user")
+    @Operation(summary = "Update user", description = "Updates an existing user, optionally only if it matches an ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User updated successfully"),
         @ApiResponse(responseCode = "404", description = "User not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input data")
+        @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Another user has the email, ignoring case"),
+        @ApiResponse(responseCode = "412", description = "User does not match the If-Match ETag")
     })
     public ResponseEntity<UserDto> updateUser(
             @Parameter(description = "User ID", required = true)
             @PathVariable Long id,
+            @Parameter(description = "ETag of the version to update")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated user data", required = true)
             @Valid @RequestBody UserDto userDto) {
-        UserDto updatedUser = userService.updateUser(id, userDto);
-        return ResponseEntity.ok(updatedUser);
+        UserDto updatedUser = userService.updateUser(id, userDto, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(etag(updatedUser)).body(updatedUser);
     }
 
     /**
@@ -129,4 +482,244 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Create a batch of users.
+     *
+     * <p>Every item is validated and applied independently; invalid or
+     * conflicting items are reported without failing the rest of the batch.
+     *
+     * @param userDtos the users to create
+     * @return one result per submitted user, in submission order
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in batch", description = "Creates many users in one request with per-item results")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All users created successfully"),
+        @ApiResponse(responseCode = "207", description = "Some users could not be created"),
+        @ApiResponse(responseCode = "413", description = "Batch is too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> createUsers(
+            @Parameter(description = "Users to create", required = true)
+            @RequestBody List<UserDto> userDtos) {
+        checkBatchSize(userDtos.size());
+        BatchItemResultDto[] results = new BatchItemResultDto[userDtos.size()];
+        List<UserDto> validUsers = new ArrayList<>(userDtos.size());
+        int[] validIndexes = validate(userDtos, false, results, validUsers);
+        mergeResults(results, validIndexes, userService.createUsers(validUsers));
+        return toBatchResponse(results);
+    }
+
+    /**
+     * Update a batch of users.
+     *
+     * @param userDtos the updated user data, each with its ID set
+     * @return one result per submitted user, in submission order
+     */
+    @PutMapping("/batch")
+    @Operation(summary = "Update users in batch", description = "Updates many users in one request with per-item results")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All users updated successfully"),
+        @ApiResponse(responseCode = "207", description = "Some users could not be updated"),
+        @ApiResponse(responseCode = "413", description = "Batch is too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> updateUsers(
+            @Parameter(description = "Updated users, each with its ID", required = true)
+            @RequestBody List<UserDto> userDtos) {
+        checkBatchSize(userDtos.size());
+        BatchItemResultDto[] results = new BatchItemResultDto[userDtos.size()];
+        List<UserDto> validUsers = new ArrayList<>(userDtos.size());
+        int[] validIndexes = validate(userDtos, true, results, validUsers);
+        mergeResults(results, validIndexes, userService.updateUsers(validUsers));
+        return toBatchResponse(results);
+    }
+
+    /**
+     * Delete a batch of users.
+     *
+     * @param ids the IDs of the users to delete
+     * @return one result per submitted ID, in submission order
+     */
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete users in batch", description = "Deletes many users in one request with per-item results")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "All users deleted successfully"),
+        @ApiResponse(responseCode = "207", description = "Some users could not be deleted"),
+        @ApiResponse(responseCode = "413", description = "Batch is too large")
+    })
+    public ResponseEntity<List<BatchItemResultDto>> deleteUsers(
+            @Parameter(description = "IDs of the users to delete", required = true)
+            @RequestBody List<Long> ids) {
+        checkBatchSize(ids.size());
+        return toBatchResponse(userService.deleteUsers(ids).toArray(new BatchItemResultDto[0]));
+    }
+
+    private ResponseEntity<UserChangesDto> changesResponse(long since, int limit) {
+        UserChangesDto changes = userService.getChanges(since, limit);
+        return ResponseEntity.status(changes.isResyncRequired() ? HttpStatus.GONE : HttpStatus.OK).body(changes);
+    }
+
+    /**
+     * Send the changes after the given sequence number, then wait for the
+     * next one. Only one call per stream runs at a time, as the next is
+     * only started by the listener registered at the end of this one.
+     */
+    private void sendChanges(SseEmitter emitter, long since, AtomicReference<Runnable> listener) {
+        long cursor = since;
+        try {
+            while (true) {
+                UserChangesDto changes = userService.getChanges(cursor, MAX_PAGE_SIZE);
+                if (changes.isResyncRequired()) {
+                    emitter.send(SseEmitter.event().name("resync").data(changes, MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                    return;
+                }
+                for (UserChangeDto change : changes.getChanges()) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSequence()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                long next = changes.getSequence();
+                Runnable resume = () -> Thread.startVirtualThread(() -> sendChanges(emitter, next, listener));
+                listener.set(resume);
+                if (userService.awaitChanges(next, resume)) {
+                    return;
+                }
+                cursor = next;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream timed out; the emitter is completed by Spring
+        }
+    }
+
+    static String etag(UserDto user) {
+        return etag(user.getVersion());
+    }
+
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak ETag of a listing at the given modification count. The format
+     * is part of the tag, as the same count has one body per format.
+     */
+    static String listingEtag(long modificationCount, String accept) {
+        return "W/\"" + modificationCount + "-" + negotiate(accept).getSubtype() + "\"";
+    }
+
+    /**
+     * Pick the format of a single user for an {@code Accept} header: the
+     * one the client gives the highest quality, taken from the most
+     * specific media range including it, preferring JSON on ties.
+     */
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            // Left to the message converters to reject
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        for (MediaType mediaType : USER_MEDIA_TYPES) {
+            double quality = 0;
+            int specificity = -1;
+            for (MediaType range : ranges) {
+                int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+                if (range.includes(mediaType) && rangeSpecificity > specificity) {
+                    quality = range.getQualityValue();
+                    specificity = rangeSpecificity;
+                }
+            }
+            if (quality > bestQuality) {
+                best = mediaType;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Parse an {@code If-Match} header into the version it requires. Only a
+     * single strong ETag or {@code *} can match; anything else fails the
+     * precondition.
+     */
+    static long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return UserService.ANY_VERSION;
+        }
+        String etag = ifMatch.strip();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                long version = Long.parseLong(etag, 1, etag.length() - 1, 10);
+                if (version > 0) {
+                    return version;
+                }
+            } catch (NumberFormatException e) {
+                // Not one of our ETags, so it cannot match
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "If-Match " + ifMatch + " does not match the current user version");
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch size " + size + " exceeds the maximum of " + MAX_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * Validate every user in one pass, recording a result for each invalid
+     * one and collecting the valid ones for the service.
+     *
+     * @return the batch positions of the collected valid users
+     */
+    private int[] validate(List<UserDto> userDtos, boolean idRequired,
+                           BatchItemResultDto[] results, List<UserDto> validUsers) {
+        int[] validIndexes = new int[userDtos.size()];
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            if (userDto == null) {
+                results[i] = BatchItemResultDto.failure(i, BatchItemResultDto.Status.INVALID, null,
+                        List.of("User is required"));
+                continue;
+            }
+            List<String> violations = validationService.validate(userDto);
+            if (violations.isEmpty() && (!idRequired || userDto.getId() != null)) {
+                validIndexes[validUsers.size()] = i;
+                validUsers.add(userDto);
+                continue;
+            }
+            List<String> errors = new ArrayList<>(violations.size() + 1);
+            if (idRequired && userDto.getId() == null) {
+                errors.add("id: ID is required");
+            }
+            errors.addAll(violations);
+            results[i] = BatchItemResultDto.failure(i, BatchItemResultDto.Status.INVALID, userDto.getId(), errors);
+        }
+        return Arrays.copyOf(validIndexes, validUsers.size());
+    }
+
+    private static void mergeResults(BatchItemResultDto[] results, int[] validIndexes,
+                                     List<BatchItemResultDto> serviceResults) {
+        for (int i = 0; i < validIndexes.length; i++) {
+            BatchItemResultDto result = serviceResults.get(i);
+            result.setIndex(validIndexes[i]);
+            results[validIndexes[i]] = result;
+        }
+    }
+
+    private static ResponseEntity<List<BatchItemResultDto>> toBatchResponse(BatchItemResultDto[] results) {
+        boolean allSucceeded = Arrays.stream(results).allMatch(result -> result.getStatus().isSuccess());
+        HttpStatus status = allSucceeded ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(Arrays.asList(results));
+    }
+}
\ No newline at end of file
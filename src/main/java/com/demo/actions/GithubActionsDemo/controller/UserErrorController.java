@@ -0,0 +1,107 @@
+package com.demo.actions.GithubActionsDemo.controller;
+
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+import com.demo.actions.GithubActionsDemo.exception.UserNotFoundException;
+import com.demo.actions.GithubActionsDemo.exception.UserSearchDisabledException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller advice mapping the errors of the user API to responses, for
+ * both the MVC and the reactive controllers.
+ *
+ * <p>Every error is answered straight from its handler with an RFC 9457
+ * {@code application/problem+json} body, so missing users, email conflicts
+ * and failed preconditions all look alike to clients. Leaving them to
+ * {@code @ResponseStatus} would call {@code sendError} on the servlet
+ * stack and render the error body in a second dispatch to Spring Boot's
+ * error controller, which is far more expensive per error and renders a
+ * different body.
+ *
+ * <p>Reads of missing users never get here: the controllers answer them
+ * with {@link #USER_NOT_FOUND}, a response built once with a pre-encoded
+ * problem body of the same shape, so a 404 on the read path allocates
+ * neither an exception nor a response.
+ */
+@RestControllerAdvice
+public class UserErrorController {
+
+    /**
+     * Shared 404 response for reads of missing users. Its headers are read
+     * only and its body is never modified, so it is safe to return from
+     * any number of requests.
+     */
+    static final ResponseEntity<byte[]> USER_NOT_FOUND = ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .body("{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,\"detail\":\"User not found\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Answer an update or delete of a missing user with 404 Not Found.
+     *
+     * @param e the exception
+     * @return the problem response
+     */
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleUserNotFound(UserNotFoundException e) {
+        return problem(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    /**
+     * Answer an email taken by another user with 409 Conflict.
+     *
+     * @param e the exception
+     * @return the problem response
+     */
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public ResponseEntity<ProblemDetail> handleUserAlreadyExists(UserAlreadyExistsException e) {
+        return problem(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    /**
+     * Answer an update of another user version with 412 Precondition Failed.
+     *
+     * @param e the exception
+     * @return the problem response
+     */
+    @ExceptionHandler(UserVersionConflictException.class)
+    public ResponseEntity<ProblemDetail> handleUserVersionConflict(UserVersionConflictException e) {
+        return problem(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+    }
+
+    /**
+     * Answer a search of a disabled index with 501 Not Implemented.
+     *
+     * @param e the exception
+     * @return the problem response
+     */
+    @ExceptionHandler(UserSearchDisabledException.class)
+    public ResponseEntity<ProblemDetail> handleUserSearchDisabled(UserSearchDisabledException e) {
+        return problem(HttpStatus.NOT_IMPLEMENTED, e.getMessage());
+    }
+
+    /**
+     * Answer the statuses the controllers reject requests with, such as an
+     * unparsable {@code If-Match} header or an oversized batch.
+     *
+     * @param e the exception
+     * @return the problem response
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ProblemDetail> handleResponseStatus(ResponseStatusException e) {
+        return problem(e.getStatusCode(), e.getReason());
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(HttpStatusCode status, String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
+    }
+}
@@ -0,0 +1,136 @@
+package com.demo.actions.GithubActionsDemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a single item in a batch operation.
+ *
+ * <p>Batch endpoints return one result per submitted item, in submission
+ * order, so callers can tell exactly which items were applied and why the
+ * others were rejected.
+ */
+@Schema(description = "Result of a single item in a batch operation")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+
+    /**
+     * Outcome of a batch item.
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        INVALID,
+        CONFLICT,
+        NOT_FOUND;
+
+        /**
+         * Check whether this status means the item was applied.
+         *
+         * @return true if the item was applied, false otherwise
+         */
+        public boolean isSuccess() {
+            return this == CREATED || this == UPDATED || this == DELETED;
+        }
+    }
+
+    @Schema(description = "Position of the item in the submitted batch", example = "0")
+    @JsonProperty("index")
+    private int index;
+
+    @Schema(description = "Outcome of the item", example = "CREATED")
+    @JsonProperty("status")
+    private Status status;
+
+    @Schema(description = "ID of the affected user", example = "1")
+    @JsonProperty("id")
+    private Long id;
+
+    @Schema(description = "Reasons the item was rejected")
+    @JsonProperty("errors")
+    private List<String> errors;
+
+    // Default constructor
+    public BatchItemResultDto() {
+    }
+
+    // Constructor with all fields
+    public BatchItemResultDto(int index, Status status, Long id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    /**
+     * Create a result for an item that was applied.
+     *
+     * @param index the position of the item in the batch
+     * @param status the outcome of the item
+     * @param id the ID of the affected user
+     * @return the result
+     */
+    public static BatchItemResultDto success(int index, Status status, Long id) {
+        return new BatchItemResultDto(index, status, id, null);
+    }
+
+    /**
+     * Create a result for an item that was rejected.
+     *
+     * @param index the position of the item in the batch
+     * @param status the outcome of the item
+     * @param id the ID of the affected user, or null if unknown
+     * @param errors the reasons the item was rejected
+     * @return the result
+     */
+    public static BatchItemResultDto failure(int index, Status status, Long id, List<String> errors) {
+        return new BatchItemResultDto(index, status, id, errors);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemResultDto{" +
+                "index=" + index +
+                ", status=" + status +
+                ", id=" + id +
+                ", errors=" + errors +
+                '}';
+    }
+}
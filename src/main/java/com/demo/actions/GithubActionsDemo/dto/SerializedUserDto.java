@@ -0,0 +1,43 @@
+package com.demo.actions.GithubActionsDemo.dto;
+
+/**
+ * A user already serialized to its JSON response body.
+ *
+ * <p>Instances are shared between requests and never modified, so the body
+ * can be written to a response as is. The version is the version of the
+ * user the body was serialized from, and is exposed as the ETag.
+ */
+public final class SerializedUserDto {
+
+    private final long id;
+    private final long version;
+    private final byte[] json;
+
+    public SerializedUserDto(long id, long version, byte[] json) {
+        this.id = id;
+        this.version = version;
+        this.json = json;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the serialized user. The array is shared and must not be modified.
+     *
+     * @return the JSON body, UTF-8 encoded
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedUserDto{id=" + id + ", version=" + version + ", bytes=" + json.length + "}";
+    }
+}
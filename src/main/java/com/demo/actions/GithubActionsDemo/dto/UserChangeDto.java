@@ -0,0 +1,70 @@
+package com.demo.actions.GithubActionsDemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A change to a user, as recorded in the change log.
+ *
+ * <p>Instances are shared between all consumers of the log and never
+ * modified. The user is the state of the user when the change was
+ * recorded, and is absent for deletions.
+ */
+@Schema(description = "A create, update or delete of a user")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class UserChangeDto {
+
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Schema(description = "Position of the change in the change log", example = "1718000000000001")
+    @JsonProperty("sequence")
+    private final long sequence;
+
+    @Schema(description = "Kind of change", example = "UPDATED")
+    @JsonProperty("type")
+    private final Type type;
+
+    @Schema(description = "ID of the changed user", example = "1")
+    @JsonProperty("id")
+    private final long id;
+
+    @Schema(description = "The user after the change, absent if it was deleted")
+    @JsonProperty("user")
+    private final UserDto user;
+
+    public UserChangeDto(long sequence, Type type, long id, UserDto user) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.user = user;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public UserDto getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangeDto{sequence=" + sequence + ", type=" + type + ", id=" + id + "}";
+    }
+}
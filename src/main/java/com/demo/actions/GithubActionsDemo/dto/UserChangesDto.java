@@ -0,0 +1,76 @@
+package com.demo.actions.GithubActionsDemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a batch of changes read from the change log.
+ *
+ * <p>The sequence is the cursor to read the following changes from. When
+ * the requested changes are no longer retained, no changes are returned,
+ * resync is required and the sequence is the current end of the log: the
+ * consumer reloads the users it tracks and continues from there.
+ */
+@Schema(description = "Changes to users after a sequence number")
+public final class UserChangesDto {
+
+    @Schema(description = "The changes, in sequence order")
+    @JsonProperty("changes")
+    private final List<UserChangeDto> changes;
+
+    @Schema(description = "Sequence number to read the following changes after", example = "1718000000000042")
+    @JsonProperty("sequence")
+    private final long sequence;
+
+    @Schema(description = "Whether changes were missed and the users must be reloaded", example = "false")
+    @JsonProperty("resyncRequired")
+    private final boolean resyncRequired;
+
+    public UserChangesDto(List<UserChangeDto> changes, long sequence, boolean resyncRequired) {
+        this.changes = changes;
+        this.sequence = sequence;
+        this.resyncRequired = resyncRequired;
+    }
+
+    /**
+     * Create a batch of changes read in full.
+     *
+     * @param changes the changes, in sequence order
+     * @param sequence the sequence number of the last change, or the
+     *        requested one if there are none
+     * @return the batch
+     */
+    public static UserChangesDto of(List<UserChangeDto> changes, long sequence) {
+        return new UserChangesDto(changes, sequence, false);
+    }
+
+    /**
+     * Create the answer to a read of changes that are no longer retained.
+     *
+     * @param sequence the sequence number of the last change in the log
+     * @return the batch
+     */
+    public static UserChangesDto resync(long sequence) {
+        return new UserChangesDto(List.of(), sequence, true);
+    }
+
+    public List<UserChangeDto> getChanges() {
+        return changes;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangesDto{changes=" + changes.size() + ", sequence=" + sequence
+                + ", resyncRequired=" + resyncRequired + "}";
+    }
+}
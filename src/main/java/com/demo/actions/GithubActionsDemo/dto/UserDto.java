@@ -1,5 +1,6 @@
 package com.demo.actions.GithubActionsDemo.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
@@ -35,7 +36,8 @@ public class UserDto {
     @JsonProperty("lastName")
     private String lastName;
 
-    @Schema(description = "User's email address", example = "john.doe@example.com")
+    @Schema(description = "User's email address, unique among users ignoring case and surrounding "
+            + "whitespace; stored as given", example = "john.doe@example.com")
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be a valid email address")
     @JsonProperty("email")
@@ -53,6 +55,10 @@ public class UserDto {
     @JsonProperty("phoneNumber")
     private String phoneNumber;
 
+    // Assigned by the repository on every write; exposed as the ETag, not in the body
+    @JsonIgnore
+    private long version;
+
     // Default constructor
     public UserDto() {
     }
@@ -116,6 +122,14 @@ public class UserDto {
         this.phoneNumber = phoneNumber;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
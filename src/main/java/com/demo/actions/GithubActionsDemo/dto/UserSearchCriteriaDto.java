@@ -0,0 +1,95 @@
+package com.demo.actions.GithubActionsDemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Data Transfer Object for user search criteria.
+ *
+ * <p>Every criterion is optional and all given criteria must match. Name
+ * prefixes and the email domain are matched case-insensitively; the age
+ * bounds are inclusive.
+ */
+@Schema(description = "User search criteria")
+public class UserSearchCriteriaDto {
+
+    @Schema(description = "Prefix of the user's first name", example = "Jo")
+    private String firstNamePrefix;
+
+    @Schema(description = "Prefix of the user's last name", example = "Do")
+    private String lastNamePrefix;
+
+    @Schema(description = "Minimum age, inclusive", example = "18")
+    private Integer minAge;
+
+    @Schema(description = "Maximum age, inclusive", example = "65")
+    private Integer maxAge;
+
+    @Schema(description = "Domain of the user's email address", example = "example.com")
+    private String emailDomain;
+
+    // Default constructor
+    public UserSearchCriteriaDto() {
+    }
+
+    // Constructor with all fields
+    public UserSearchCriteriaDto(String firstNamePrefix, String lastNamePrefix, Integer minAge, Integer maxAge,
+                                 String emailDomain) {
+        this.firstNamePrefix = firstNamePrefix;
+        this.lastNamePrefix = lastNamePrefix;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.emailDomain = emailDomain;
+    }
+
+    // Getters and Setters
+    public String getFirstNamePrefix() {
+        return firstNamePrefix;
+    }
+
+    public void setFirstNamePrefix(String firstNamePrefix) {
+        this.firstNamePrefix = firstNamePrefix;
+    }
+
+    public String getLastNamePrefix() {
+        return lastNamePrefix;
+    }
+
+    public void setLastNamePrefix(String lastNamePrefix) {
+        this.lastNamePrefix = lastNamePrefix;
+    }
+
+    public Integer getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Integer minAge) {
+        this.minAge = minAge;
+    }
+
+    public Integer getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Integer maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    public void setEmailDomain(String emailDomain) {
+        this.emailDomain = emailDomain;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSearchCriteriaDto{" +
+                "firstNamePrefix='" + firstNamePrefix + '\'' +
+                ", lastNamePrefix='" + lastNamePrefix + '\'' +
+                ", minAge=" + minAge +
+                ", maxAge=" + maxAge +
+                ", emailDomain='" + emailDomain + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.demo.actions.GithubActionsDemo.exception;
+
+/**
+ * Exception thrown when a user with the same email address already exists.
+ *
+ * <p>This exception extends {@link IllegalArgumentException} so existing
+ * callers that handle invalid arguments keep working, while the API layer
+ * can map it to a 409 Conflict response.
+ */
+public class UserAlreadyExistsException extends IllegalArgumentException {
+
+    /**
+     * Constructs a new UserAlreadyExistsException with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public UserAlreadyExistsException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates a UserAlreadyExistsException for the given email address.
+     *
+     * @param email the email address that is already taken
+     * @return the exception
+     */
+    public static UserAlreadyExistsException forEmail(String email) {
+        return new UserAlreadyExistsException("User with email " + email + " already exists");
+    }
+}
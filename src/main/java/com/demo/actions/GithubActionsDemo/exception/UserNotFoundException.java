@@ -2,19 +2,29 @@ package com.demo.actions.GithubActionsDemo.exception;
 
 /**
  * Exception thrown when a user is not found.
- * 
+ *
  * <p>This exception is used to indicate that a requested user
  * does not exist in the system.
+ *
+ * <p>Misses are routine (stale links, scanners probing IDs), so the
+ * exception is cheap to throw: it never fills in a stack trace, and when
+ * created {@link #forId(long) for an ID} its message is only built if it
+ * is read.
  */
 public class UserNotFoundException extends RuntimeException {
 
+    private static final long NO_ID = -1L;
+
+    private final long id;
+
     /**
      * Constructs a new UserNotFoundException with the specified detail message.
      *
      * @param message the detail message
      */
     public UserNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.id = NO_ID;
     }
 
     /**
@@ -24,6 +34,27 @@ public class UserNotFoundException extends RuntimeException {
      * @param cause the cause
      */
     public UserNotFoundException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
+        this.id = NO_ID;
+    }
+
+    private UserNotFoundException(long id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    /**
+     * Create the exception for a missing user ID without building its message.
+     *
+     * @param id the ID that was not found
+     * @return the exception
+     */
+    public static UserNotFoundException forId(long id) {
+        return new UserNotFoundException(id);
+    }
+
+    @Override
+    public String getMessage() {
+        return id == NO_ID ? super.getMessage() : "User not found with ID: " + id;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.demo.actions.GithubActionsDemo.exception;
+
+/**
+ * Exception thrown when a search needs an index that is not enabled.
+ *
+ * <p>The search indexes are only built when the {@code app.users.search.enabled}
+ * property is set. The API layer maps this exception to a 501 Not Implemented
+ * response.
+ */
+public class UserSearchDisabledException extends RuntimeException {
+
+    /**
+     * Constructs a new UserSearchDisabledException.
+     *
+     * @param message the detail message
+     */
+    public UserSearchDisabledException(String message) {
+        super(message);
+    }
+}
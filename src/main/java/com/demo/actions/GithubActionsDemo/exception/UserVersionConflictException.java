@@ -0,0 +1,33 @@
+package com.demo.actions.GithubActionsDemo.exception;
+
+/**
+ * Exception thrown when a conditional update finds the user at another version.
+ *
+ * <p>The API layer maps it to a 412 Precondition Failed response, since the
+ * expected version comes from the {@code If-Match} request header.
+ */
+public class UserVersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    /**
+     * Constructs a new UserVersionConflictException.
+     *
+     * @param id the user ID
+     * @param expectedVersion the version the caller expected
+     * @param currentVersion the version of the stored user
+     */
+    public UserVersionConflictException(long id, long expectedVersion, long currentVersion) {
+        super("User with ID " + id + " has version " + currentVersion + ", expected " + expectedVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Get the version of the stored user.
+     *
+     * @return the current version
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,343 @@
+package com.demo.actions.GithubActionsDemo.json;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.exc.IgnoredPropertyException;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Jackson module reading and writing {@link UserDto} with hand-written
+ * streaming code over {@code JsonParser} and {@code JsonGenerator} instead
+ * of Jackson's reflective bean (de)serializers.
+ *
+ * <p>Properties are dispatched by name and written with pre-encoded names,
+ * so no bean property metadata is walked per user.
+ *
+ * <p>The module wraps the bean (de)serializers Jackson builds for
+ * {@code UserDto}. It only takes over when the mapper configuration leaves
+ * the JSON form of a user as declared, one property per field in
+ * declaration order with nulls included, so the output is byte-identical
+ * to the bean serializer's. Otherwise, and for the cases the streaming
+ * code does not handle itself (views, type ids, objects wrapped in
+ * arrays), users go through the bean (de)serializers.
+ */
+public final class UserJsonModule extends SimpleModule {
+
+    /**
+     * Create the module.
+     */
+    public UserJsonModule() {
+        super("UserDtoModule");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (beanDesc.getBeanClass() != UserDto.class || !UserDtoSerializer.supports(serializer)) {
+                    return serializer;
+                }
+                @SuppressWarnings("unchecked")
+                JsonSerializer<Object> beanSerializer = (JsonSerializer<Object>) serializer;
+                return new UserDtoSerializer(beanSerializer);
+            }
+        });
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                                                          JsonDeserializer<?> deserializer) {
+                if (beanDesc.getBeanClass() != UserDto.class
+                        || config.isEnabled(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+                        || !UserDtoDeserializer.supports(deserializer)) {
+                    return deserializer;
+                }
+                return new UserDtoDeserializer(deserializer);
+            }
+        });
+    }
+
+    /**
+     * Writes users field by field with pre-encoded property names.
+     */
+    static final class UserDtoSerializer extends StdSerializer<UserDto>
+            implements ContextualSerializer, ResolvableSerializer {
+
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+        private static final SerializedString LAST_NAME = new SerializedString("lastName");
+        private static final SerializedString EMAIL = new SerializedString("email");
+        private static final SerializedString AGE = new SerializedString("age");
+        private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+        private static final SerializedString[] PROPERTIES = {ID, FIRST_NAME, LAST_NAME, EMAIL, AGE, PHONE_NUMBER};
+
+        private final JsonSerializer<Object> beanSerializer;
+
+        UserDtoSerializer(JsonSerializer<Object> beanSerializer) {
+            super(UserDto.class);
+            this.beanSerializer = beanSerializer;
+        }
+
+        /**
+         * Check that the bean serializer writes every property, in the
+         * order written here, with the default serializers and nulls.
+         */
+        static boolean supports(JsonSerializer<?> beanSerializer) {
+            Iterator<PropertyWriter> properties = beanSerializer.properties();
+            for (SerializedString name : PROPERTIES) {
+                if (!properties.hasNext()
+                        || !(properties.next() instanceof BeanPropertyWriter property)
+                        || !property.getName().equals(name.getValue())
+                        || property.hasSerializer()
+                        || property.hasNullSerializer()
+                        || property.willSuppressNulls()
+                        || property.getViews() != null) {
+                    return false;
+                }
+            }
+            return !properties.hasNext();
+        }
+
+        @Override
+        public void serialize(UserDto user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (provider.getActiveView() != null) {
+                beanSerializer.serialize(user, generator, provider);
+                return;
+            }
+            generator.writeStartObject(user);
+            generator.writeFieldName(ID);
+            Long id = user.getId();
+            if (id == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(id.longValue());
+            }
+            writeString(generator, FIRST_NAME, user.getFirstName());
+            writeString(generator, LAST_NAME, user.getLastName());
+            writeString(generator, EMAIL, user.getEmail());
+            generator.writeFieldName(AGE);
+            Integer age = user.getAge();
+            if (age == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(age.intValue());
+            }
+            writeString(generator, PHONE_NUMBER, user.getPhoneNumber());
+            generator.writeEndObject();
+        }
+
+        private static void writeString(JsonGenerator generator, SerializedString name, String value)
+                throws IOException {
+            generator.writeFieldName(name);
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(value);
+            }
+        }
+
+        @Override
+        public void serializeWithType(UserDto user, JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            beanSerializer.serializeWithType(user, generator, provider, typeSerializer);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (beanSerializer instanceof ContextualSerializer contextual) {
+                JsonSerializer<?> serializer = contextual.createContextual(provider, property);
+                // A property-specific serializer (a format or ignorals on the property) is left to Jackson
+                return serializer == beanSerializer ? this : serializer;
+            }
+            return this;
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (beanSerializer instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        public JsonSerializer<UserDto> unwrappingSerializer(NameTransformer unwrapper) {
+            @SuppressWarnings("unchecked")
+            JsonSerializer<UserDto> serializer = (JsonSerializer<UserDto>) (JsonSerializer<?>)
+                    beanSerializer.unwrappingSerializer(unwrapper);
+            return serializer;
+        }
+
+        @Override
+        public Iterator<PropertyWriter> properties() {
+            return beanSerializer.properties();
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType type)
+                throws JsonMappingException {
+            beanSerializer.acceptJsonFormatVisitor(visitor, type);
+        }
+    }
+
+    /**
+     * Reads users by dispatching on property names, with values of the
+     * expected token type read straight from the parser. Other values are
+     * converted by Jackson's standard deserializers, so coercions and their
+     * errors stay the same.
+     */
+    static final class UserDtoDeserializer extends DelegatingDeserializer {
+
+        private static final Set<String> PROPERTIES =
+                Set.of("id", "firstName", "lastName", "email", "age", "phoneNumber");
+        private static final String IGNORED_PROPERTY = "version";
+
+        UserDtoDeserializer(JsonDeserializer<?> beanDeserializer) {
+            super(beanDeserializer);
+        }
+
+        /**
+         * Check that the bean deserializer sets exactly the properties
+         * handled here.
+         */
+        static boolean supports(JsonDeserializer<?> beanDeserializer) {
+            if (!(beanDeserializer instanceof BeanDeserializerBase bean) || bean.getObjectIdReader() != null) {
+                return false;
+            }
+            Set<String> properties = new HashSet<>();
+            for (Iterator<SettableBeanProperty> it = bean.properties(); it.hasNext(); ) {
+                SettableBeanProperty property = it.next();
+                if (property.hasValueDeserializer() || property.hasViews()) {
+                    return false;
+                }
+                properties.add(property.getName());
+            }
+            return properties.equals(PROPERTIES);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+            return new UserDtoDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            String name;
+            if (parser.isExpectedStartObjectToken()) {
+                name = parser.nextFieldName();
+            } else if (parser.hasToken(JsonToken.FIELD_NAME)) {
+                name = parser.currentName();
+            } else if (parser.hasToken(JsonToken.END_OBJECT)) {
+                name = null;
+            } else {
+                return _delegatee.deserialize(parser, context);
+            }
+            if (context.getActiveView() != null) {
+                return _delegatee.deserialize(parser, context);
+            }
+
+            UserDto user = new UserDto();
+            for (; name != null; name = parser.nextFieldName()) {
+                JsonToken token = parser.nextToken();
+                boolean known;
+                try {
+                    known = readProperty(user, name, parser, token, context);
+                } catch (JacksonException e) {
+                    if (!(e instanceof JsonMappingException)
+                            && !context.isEnabled(DeserializationFeature.WRAP_EXCEPTIONS)) {
+                        throw e;
+                    }
+                    throw JsonMappingException.wrapWithPath(e, user, name);
+                }
+                if (known) {
+                    continue;
+                }
+                if (!name.equals(IGNORED_PROPERTY)) {
+                    context.handleUnknownProperty(parser, this, user, name);
+                } else if (context.isEnabled(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)) {
+                    throw IgnoredPropertyException.from(parser, user, name, getKnownPropertyNames());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return user;
+        }
+
+        /**
+         * Set the property with the given name from the current value.
+         *
+         * @return whether the name is one of the properties of a user
+         */
+        private static boolean readProperty(UserDto user, String name, JsonParser parser, JsonToken token,
+                                            DeserializationContext context) throws IOException {
+            switch (name) {
+                case "id" -> user.setId(readLong(parser, token, context));
+                case "firstName" -> user.setFirstName(readString(parser, token, context));
+                case "lastName" -> user.setLastName(readString(parser, token, context));
+                case "email" -> user.setEmail(readString(parser, token, context));
+                case "age" -> user.setAge(readInteger(parser, token, context));
+                case "phoneNumber" -> user.setPhoneNumber(readString(parser, token, context));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static String readString(JsonParser parser, JsonToken token, DeserializationContext context)
+                throws IOException {
+            return switch (token) {
+                case VALUE_STRING -> parser.getText();
+                case VALUE_NULL -> null;
+                default -> context.readValue(parser, String.class);
+            };
+        }
+
+        private static Long readLong(JsonParser parser, JsonToken token, DeserializationContext context)
+                throws IOException {
+            if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                return parser.getLongValue();
+            }
+            return token == JsonToken.VALUE_NULL ? null : context.readValue(parser, Long.class);
+        }
+
+        private static Integer readInteger(JsonParser parser, JsonToken token, DeserializationContext context)
+                throws IOException {
+            if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                return parser.getIntValue();
+            }
+            return token == JsonToken.VALUE_NULL ? null : context.readValue(parser, Integer.class);
+        }
+    }
+}
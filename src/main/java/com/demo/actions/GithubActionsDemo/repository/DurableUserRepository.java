@@ -0,0 +1,786 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link UserRepository} that makes an {@link InMemoryUserRepository}
+ * durable with a write-ahead log and periodic snapshots.
+ *
+ * <p>Every successful create, update or delete appends a record to the
+ * current WAL segment. Records are buffered and written by a single flusher
+ * thread, so many writes share one {@link FileChannel#write} and one
+ * {@link FileChannel#force}. With a positive fsync interval, writes return
+ * once buffered and at most one interval of writes can be lost on a crash.
+ * With a zero interval, each write waits until its record is fsynced, and
+ * concurrent writes are group-committed.
+ *
+ * <p>A snapshot first rotates the WAL to a new segment, then writes all
+ * users to a {@link SnapshotUserRepository} file without blocking writers.
+ * Because WAL records carry the full state of a user, replaying the segments
+ * from the rotation point over such a snapshot yields the exact state. Older
+ * segments and snapshots are deleted once the snapshot and its directory
+ * entry are on disk, and snapshots left half-written by a crash are deleted
+ * on startup.
+ *
+ * <p>On startup the latest snapshot is memory-mapped and used as the
+ * read-only base of a {@link LayeredUserRepository}, so startup time does
+ * not depend on the number of users; alternatively it is bulk-loaded into
+ * the heap straight from the mapping. The WAL tail is then replayed into
+ * the overlay. A record torn by a crash at the end of the last segment is
+ * discarded. A mapped snapshot stays mapped until the repository is closed,
+ * even after a newer snapshot has deleted its file.
+ */
+public class DurableUserRepository implements UserRepository, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DurableUserRepository.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final Pattern TEMPORARY_SNAPSHOT_NAME = Pattern.compile("snapshot-\\d{20}\\.bin\\.tmp");
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int IO_BUFFER_SIZE = 1024 * 1024;
+    private static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+    static final int NULL_AGE = Integer.MIN_VALUE;
+    // Type 1 was a put without a version, no longer read
+    private static final byte DELETE = 2;
+    static final byte PUT = 3;
+
+    private final LayeredUserRepository delegate;
+    private final Path directory;
+    private final long fsyncIntervalNanos;
+    private final Thread flusher;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    // Orders in-memory changes and their WAL records; guards pending, appendedSequence and closing
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition pendingCondition = appendLock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long appendedSequence;
+    private boolean closing;
+
+    // Guards the WAL channel, the current segment and the spare buffer;
+    // always acquired before appendLock
+    private final ReentrantLock channelLock = new ReentrantLock();
+    private FileChannel channel;
+    private long segment;
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableCondition = durableLock.newCondition();
+    private volatile long durableSequence;
+    private volatile IOException failure;
+    // The last record appended by the batch the current thread runs, if any
+    private final ThreadLocal<long[]> batchSequence = new ThreadLocal<>();
+
+    /**
+     * Recover the state persisted in a directory and start logging to it.
+     *
+     * @param directory the directory for WAL segments and snapshots
+     * @param fsyncInterval the maximum time between fsyncs, or zero to fsync
+     *        before every write returns
+     * @param snapshotInterval the time between snapshots, or zero to only
+     *        take snapshots through {@link #snapshot()}
+     * @param mapSnapshot whether to use the latest snapshot as a mapped base
+     *        layer instead of loading it into the heap
+     * @throws UncheckedIOException if the directory cannot be read or written
+     */
+    public DurableUserRepository(Path directory, Duration fsyncInterval, Duration snapshotInterval,
+                                 boolean mapSnapshot) {
+        this.directory = directory;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        try {
+            Files.createDirectories(directory);
+            deleteTemporaryFiles();
+            long startTime = System.nanoTime();
+            long snapshotSegment = latestSnapshotSegment();
+            SnapshotUserRepository snapshot = snapshotSegment == 0 ? null
+                    : SnapshotUserRepository.open(directory.resolve(snapshotName(snapshotSegment)));
+            if (snapshot == null || mapSnapshot) {
+                delegate = new LayeredUserRepository(snapshot);
+            } else {
+                delegate = new LayeredUserRepository(null);
+                try (snapshot) {
+                    for (long index = 0; index < snapshot.count(); index++) {
+                        delegate.restore(snapshot.userAt(index));
+                    }
+                }
+            }
+            segment = replay(snapshotSegment, startTime) + 1;
+            channel = openSegment(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover users from " + directory, e);
+        }
+
+        flusher = Thread.ofPlatform().name("user-wal-flusher").daemon().start(this::runFlusher);
+        if (snapshotInterval.isZero()) {
+            snapshotScheduler = null;
+        } else {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                    runnable -> Thread.ofPlatform().name("user-snapshot").daemon().unstarted(runnable));
+            long intervalMillis = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot,
+                    intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        Long newId;
+        long sequence;
+        appendLock.lock();
+        try {
+            checkWritable();
+            newId = delegate.insert(user);
+            if (newId == null) {
+                return null;
+            }
+            sequence = appendPut(user);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(sequence);
+        return newId;
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        UserDto previousUser;
+        long sequence;
+        appendLock.lock();
+        try {
+            checkWritable();
+            previousUser = delegate.replace(id, user, expectedVersion);
+            if (previousUser == null) {
+                return null;
+            }
+            sequence = appendPut(user);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(sequence);
+        return previousUser;
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        UserDto removedUser;
+        long sequence;
+        appendLock.lock();
+        try {
+            checkWritable();
+            removedUser = delegate.deleteById(id);
+            if (removedUser == null) {
+                return null;
+            }
+            sequence = appendDelete(id);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(sequence);
+        return removedUser;
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Map<String, Long> indexSizes() {
+        return delegate.indexSizes();
+    }
+
+    /**
+     * Run a batch of writes that wait for their records to be fsynced only
+     * once, at the end of the batch. Only makes a difference with a zero
+     * fsync interval, where every write otherwise waits on its own.
+     *
+     * @param writes the writes to run
+     */
+    @Override
+    public void writeBatch(Runnable writes) {
+        if (fsyncIntervalNanos != 0 || batchSequence.get() != null) {
+            writes.run();
+            return;
+        }
+        long[] sequence = new long[1];
+        batchSequence.set(sequence);
+        try {
+            writes.run();
+        } finally {
+            batchSequence.remove();
+        }
+        awaitDurable(sequence[0]);
+    }
+
+    /**
+     * Tell whether writes wait for their records to be fsynced, which they
+     * do with a zero fsync interval.
+     *
+     * @return true with a zero fsync interval
+     */
+    @Override
+    public boolean writesBlock() {
+        return fsyncIntervalNanos == 0;
+    }
+
+    /**
+     * Write a snapshot of all users and delete the WAL segments it covers.
+     *
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long startTime = System.nanoTime();
+            long snapshotSegment = rotate();
+            long count = SnapshotUserRepository.write(directory.resolve(snapshotName(snapshotSegment)),
+                    snapshotSegment, delegate);
+            deleteObsoleteFiles(snapshotSegment);
+            logger.info("Wrote snapshot of {} users in {} ms", count,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write user snapshot", e);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Flush and fsync all logged writes and stop the background threads.
+     */
+    @Override
+    public void close() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        appendLock.lock();
+        try {
+            closing = true;
+            pendingCondition.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channelLock.lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close WAL segment {}", segment, e);
+        } finally {
+            channelLock.unlock();
+        }
+        delegate.close();
+    }
+
+    private void checkWritable() {
+        if (closing) {
+            throw new IllegalStateException("Repository is closed");
+        }
+        IOException error = failure;
+        if (error != null) {
+            throw new UncheckedIOException("WAL is not writable", error);
+        }
+    }
+
+    private long appendPut(UserDto user) {
+        byte[][] strings = encodeStrings(user);
+        pending = ensureCapacity(pending, putRecordLength(strings));
+        writePut(pending, user.getId(), user.getVersion(), user.getAge(), strings);
+        return appended();
+    }
+
+    private long appendDelete(long id) {
+        pending = ensureCapacity(pending, RECORD_HEADER_LENGTH + Byte.BYTES + Long.BYTES);
+        writeRecord(pending, DELETE, id);
+        return appended();
+    }
+
+    private long appended() {
+        if (fsyncIntervalNanos == 0) {
+            pendingCondition.signal();
+        }
+        return ++appendedSequence;
+    }
+
+    private void awaitDurable(long sequence) {
+        if (fsyncIntervalNanos != 0) {
+            return;
+        }
+        long[] batch = batchSequence.get();
+        if (batch != null) {
+            batch[0] = Math.max(batch[0], sequence);
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                IOException error = failure;
+                if (error != null) {
+                    throw new UncheckedIOException("Failed to write WAL", error);
+                }
+                durableCondition.awaitUninterruptibly();
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        boolean running = true;
+        while (running) {
+            appendLock.lock();
+            try {
+                if (fsyncIntervalNanos == 0) {
+                    while (pending.position() == 0 && !closing) {
+                        pendingCondition.awaitUninterruptibly();
+                    }
+                } else {
+                    long remainingNanos = fsyncIntervalNanos;
+                    while (remainingNanos > 0 && !closing) {
+                        remainingNanos = pendingCondition.awaitNanos(remainingNanos);
+                    }
+                }
+                running = !closing;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                appendLock.unlock();
+            }
+
+            channelLock.lock();
+            try {
+                flushPending();
+            } catch (IOException e) {
+                logger.error("Failed to write WAL segment {}", segment, e);
+                failure = e;
+                publishDurable(durableSequence);
+                running = false;
+            } finally {
+                channelLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write and fsync all buffered records. Requires channelLock.
+     */
+    private void flushPending() throws IOException {
+        ByteBuffer batch;
+        long batchSequence;
+        appendLock.lock();
+        try {
+            if (pending.position() == 0) {
+                return;
+            }
+            batch = pending;
+            pending = spare;
+            batchSequence = appendedSequence;
+        } finally {
+            appendLock.unlock();
+        }
+
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        channel.force(false);
+        batch.clear();
+        spare = batch;
+        publishDurable(batchSequence);
+    }
+
+    private void publishDurable(long sequence) {
+        durableLock.lock();
+        try {
+            durableSequence = sequence;
+            durableCondition.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /**
+     * Flush the current segment and switch to a new one.
+     *
+     * @return the new segment, the first one a snapshot taken now must replay
+     */
+    private long rotate() throws IOException {
+        channelLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                flushPending();
+                channel.close();
+                segment++;
+                channel = openSegment(segment);
+                return segment;
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            logger.error("Scheduled user snapshot failed", e);
+        }
+    }
+
+    /**
+     * Delete snapshots that were still being written when the process
+     * stopped; they were never moved into place, so nothing refers to them.
+     */
+    private void deleteTemporaryFiles() throws IOException {
+        for (Path file : listFiles()) {
+            if (TEMPORARY_SNAPSHOT_NAME.matcher(file.getFileName().toString()).matches()) {
+                logger.warn("Deleting incomplete snapshot {}", file);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void deleteObsoleteFiles(long snapshotSegment) throws IOException {
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            Matcher segmentMatcher = SEGMENT_NAME.matcher(name);
+            Matcher snapshotMatcher = SNAPSHOT_NAME.matcher(name);
+            if ((segmentMatcher.matches() && Long.parseLong(segmentMatcher.group(1)) < snapshotSegment)
+                    || (snapshotMatcher.matches() && Long.parseLong(snapshotMatcher.group(1)) < snapshotSegment)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private long latestSnapshotSegment() throws IOException {
+        long snapshotSegment = 0;
+        for (Path file : listFiles()) {
+            Matcher snapshotMatcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+            if (snapshotMatcher.matches()) {
+                snapshotSegment = Math.max(snapshotSegment, Long.parseLong(snapshotMatcher.group(1)));
+            }
+        }
+        return snapshotSegment;
+    }
+
+    /**
+     * Replay the WAL segments written since the given snapshot.
+     *
+     * @return the last existing segment, or the snapshot segment minus one
+     */
+    private long replay(long snapshotSegment, long startTime) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        for (Path file : listFiles()) {
+            Matcher segmentMatcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+            if (segmentMatcher.matches()) {
+                segments.add(Long.parseLong(segmentMatcher.group(1)));
+            }
+        }
+        segments.sort(null);
+
+        long records = 0;
+        long lastSegment = Math.max(0, snapshotSegment - 1);
+        for (int i = 0; i < segments.size(); i++) {
+            long replayed = segments.get(i);
+            if (replayed >= snapshotSegment) {
+                records += replaySegment(replayed, i == segments.size() - 1);
+            }
+            lastSegment = Math.max(lastSegment, replayed);
+        }
+
+        logger.info("Recovered {} users from snapshot segment {} and {} WAL records in {} ms",
+                delegate.count(), snapshotSegment, records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return lastSegment;
+    }
+
+    private long replaySegment(long replayedSegment, boolean last) throws IOException {
+        Path file = directory.resolve(segmentName(replayedSegment));
+        long records = 0;
+        long validLength;
+        long fileLength;
+        try (FileChannel segmentChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            fileLength = segmentChannel.size();
+            RecordReader reader = new RecordReader(segmentChannel);
+            ByteBuffer payload;
+            while ((payload = reader.next()) != null) {
+                byte type = payload.get();
+                long id = payload.getLong();
+                if (type == DELETE) {
+                    delegate.deleteById(id);
+                } else if (type == PUT) {
+                    delegate.restore(readUser(id, payload));
+                } else {
+                    throw new IOException("Unsupported record type " + type + " in " + file);
+                }
+                records++;
+            }
+            validLength = reader.position();
+        }
+
+        if (validLength < fileLength) {
+            if (!last) {
+                throw new IOException("Corrupt record at offset " + validLength + " of " + file);
+            }
+            logger.warn("Discarding {} bytes of torn WAL records at the end of {}", fileLength - validLength, file);
+            try (FileChannel truncated = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                truncated.truncate(validLength);
+                truncated.force(true);
+            }
+        }
+        return records;
+    }
+
+    private FileChannel openSegment(long newSegment) throws IOException {
+        FileChannel newChannel = FileChannel.open(directory.resolve(segmentName(newSegment)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // Fsyncing the segment does not persist its directory entry
+        try {
+            syncDirectory(directory);
+        } catch (IOException e) {
+            newChannel.close();
+            throw e;
+        }
+        return newChannel;
+    }
+
+    /**
+     * Fsync a directory, so the files created, renamed or deleted in it so
+     * far survive a crash.
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        }
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static String segmentName(long segment) {
+        return String.format("wal-%020d.log", segment);
+    }
+
+    private static String snapshotName(long segment) {
+        return String.format("snapshot-%020d.bin", segment);
+    }
+
+    // Record: int payload length, int CRC32C of the payload, then the
+    // payload: byte type and long ID, followed for PUT by long version, int
+    // age and the strings first name, last name, email and phone number,
+    // each an int length (-1 for null) and its UTF-8 bytes. Snapshots use
+    // the same format for their user records.
+
+    static byte[][] encodeStrings(UserDto user) {
+        return new byte[][] {
+                utf8(user.getFirstName()),
+                utf8(user.getLastName()),
+                utf8(user.getEmail()),
+                utf8(user.getPhoneNumber())
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int putRecordLength(byte[][] strings) {
+        int length = RECORD_HEADER_LENGTH + Byte.BYTES + 2 * Long.BYTES + Integer.BYTES;
+        for (byte[] bytes : strings) {
+            length += Integer.BYTES + (bytes == null ? 0 : bytes.length);
+        }
+        return length;
+    }
+
+    static void writePut(ByteBuffer buffer, long id, long version, Integer age, byte[][] strings) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_LENGTH);
+        buffer.put(PUT).putLong(id).putLong(version).putInt(age == null ? NULL_AGE : age);
+        for (byte[] bytes : strings) {
+            if (bytes == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(bytes.length).put(bytes);
+            }
+        }
+        sealRecord(buffer, start);
+    }
+
+    private static void writeRecord(ByteBuffer buffer, byte type, long id) {
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_LENGTH);
+        buffer.put(type).putLong(id);
+        sealRecord(buffer, start);
+    }
+
+    private static void sealRecord(ByteBuffer buffer, int start) {
+        int payloadLength = buffer.position() - start - RECORD_HEADER_LENGTH;
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), buffer.arrayOffset() + start + RECORD_HEADER_LENGTH, payloadLength);
+        buffer.putInt(start, payloadLength);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private static UserDto readUser(long id, ByteBuffer payload) {
+        long version = payload.getLong();
+        int age = payload.getInt();
+        String firstName = readString(payload);
+        String lastName = readString(payload);
+        String email = readString(payload);
+        String phoneNumber = readString(payload);
+        UserDto user = new UserDto(id, firstName, lastName, email, age == NULL_AGE ? null : age, phoneNumber);
+        user.setVersion(version);
+        return user;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, int length) {
+        if (buffer.remaining() >= length) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+
+    static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads checksummed records from a channel through one large buffer.
+     */
+    private static final class RecordReader {
+
+        private final FileChannel source;
+        private ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE).flip();
+        private long position;
+
+        RecordReader(FileChannel source) {
+            this.source = source;
+        }
+
+        /**
+         * @return the payload of the next record, valid until the next call,
+         *         or null at end of file or at a torn or corrupt record
+         */
+        ByteBuffer next() throws IOException {
+            if (!fill(RECORD_HEADER_LENGTH)) {
+                return null;
+            }
+            int payloadLength = buffer.getInt(buffer.position());
+            int expectedCrc = buffer.getInt(buffer.position() + Integer.BYTES);
+            if (payloadLength <= 0 || payloadLength > MAX_RECORD_LENGTH
+                    || !fill(RECORD_HEADER_LENGTH + payloadLength)) {
+                return null;
+            }
+            ByteBuffer payload = buffer.slice(buffer.position() + RECORD_HEADER_LENGTH, payloadLength);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                return null;
+            }
+            buffer.position(buffer.position() + RECORD_HEADER_LENGTH + payloadLength);
+            position += RECORD_HEADER_LENGTH + payloadLength;
+            return payload;
+        }
+
+        /**
+         * @return the file offset just after the last record returned
+         */
+        long position() {
+            return position;
+        }
+
+        private boolean fill(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return true;
+            }
+            if (length > buffer.capacity()) {
+                buffer = ByteBuffer.allocate(length).put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < length) {
+                if (source.read(buffer) < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Heap-based {@link UserRepository} backed by a primitive {@link LongMap}.
+ *
+ * <p>The primary index is keyed by the primitive ID, so lookups do not box
+ * the ID and entries carry no {@code Long} key or node objects.
+ *
+ * <p>Email uniqueness is enforced through a secondary index from the
+ * normalized email address to the owning user ID, so duplicate checks are
+ * O(1) and atomic instead of scanning every stored user.
+ *
+ * <p>An ID-ordered set of keys backs keyset pagination, so listing a page
+ * only touches the users on that page instead of copying the whole store.
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    // Email index owner of an email whose insert has not taken its ID yet
+    static final Long RESERVED = 0L;
+
+    private final LongMap<UserDto> users = new LongMap<>();
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+    private final AtomicLong idCounter = new AtomicLong(1);
+
+    @Override
+    public UserDto findById(long id) {
+        return users.get(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return users.containsKey(id);
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        // Reserve the email first so two concurrent inserts cannot both
+        // succeed, and only then take an ID, so rejected inserts leave no gap
+        String emailKey = UserRepository.normalizeEmail(user.getEmail());
+        if (emailIndex.putIfAbsent(emailKey, RESERVED) != null) {
+            return null;
+        }
+        Long newId = idCounter.getAndIncrement();
+        emailIndex.put(emailKey, newId);
+
+        user.setId(newId);
+        user.setVersion(1);
+        users.put(newId, user);
+        orderedIds.add(newId);
+        return newId;
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        // Check the version and swap the email index entry and the user
+        // atomically with respect to other writers of the same ID
+        String newEmailKey = UserRepository.normalizeEmail(user.getEmail());
+        return users.computeIfPresent(id, existingUser -> {
+            UserRepository.checkVersion(id, existingUser.getVersion(), expectedVersion);
+            String oldEmailKey = UserRepository.normalizeEmail(existingUser.getEmail());
+            if (!oldEmailKey.equals(newEmailKey)) {
+                Long owner = emailIndex.putIfAbsent(newEmailKey, id);
+                if (owner != null && owner != id) {
+                    throw UserAlreadyExistsException.forEmail(user.getEmail());
+                }
+                emailIndex.remove(oldEmailKey, id);
+            }
+            user.setId(id);
+            user.setVersion(existingUser.getVersion() + 1);
+            return user;
+        });
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        UserDto removedUser = users.remove(id);
+        if (removedUser != null) {
+            orderedIds.remove(id);
+            emailIndex.remove(UserRepository.normalizeEmail(removedUser.getEmail()), id);
+        }
+        return removedUser;
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        List<UserDto> result = new ArrayList<>(users.size());
+        for (Long id : orderedIds) {
+            UserDto user = users.get(id);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        List<UserDto> page = new ArrayList<>(Math.min(limit, users.size()));
+        for (Long id : orderedIds.tailSet(afterId, false)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            UserDto user = users.get(id);
+            if (user != null) {
+                page.add(user);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long count() {
+        return users.size();
+    }
+
+    @Override
+    public Map<String, Long> indexSizes() {
+        return Map.of("id", (long) users.size(), "email", (long) emailIndex.size());
+    }
+
+    /**
+     * Store a user under its existing ID and version, replacing any user
+     * with that ID.
+     *
+     * <p>Used to rebuild the repository from persisted state. The ID counter
+     * is advanced past the restored ID. The email index entry of the user is
+     * overwritten, so callers must apply the persisted operations in order
+     * for the index to end up consistent.
+     *
+     * @param user the user to restore, with its ID set
+     */
+    void restore(UserDto user) {
+        long id = user.getId();
+        UserDto previousUser = users.put(id, user);
+        if (previousUser != null) {
+            emailIndex.remove(UserRepository.normalizeEmail(previousUser.getEmail()), id);
+        }
+        emailIndex.put(UserRepository.normalizeEmail(user.getEmail()), id);
+        orderedIds.add(id);
+        reserveIdsThrough(id);
+    }
+
+    /**
+     * Make sure IDs up to and including the given one are never assigned.
+     *
+     * @param id the highest ID in use elsewhere
+     */
+    void reserveIdsThrough(long id) {
+        idCounter.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Concurrent open-addressing map keyed by a primitive positive {@code long}.
+     *
+     * <p>Keys are spread over 64 stripes, each a linear-probing table of
+     * parallel {@code long} key and value arrays guarded by its own
+     * {@link StampedLock}. Writers lock a single stripe; readers probe
+     * optimistically and only fall back to the read lock if a writer raced
+     * with them, so a lookup allocates nothing.
+     *
+     * @param <V> the value type
+     */
+    public static final class LongMap<V> {
+
+        private static final int STRIPE_SHIFT = 6;
+        private static final int STRIPES = 1 << STRIPE_SHIFT;
+        private static final int INITIAL_CAPACITY = 16;
+        private static final long FREE = 0L;
+        private static final long REMOVED = -1L;
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+        private final LongAdder size = new LongAdder();
+
+        /**
+         * Create an empty map.
+         */
+        public LongMap() {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        /**
+         * Get the value mapped to a key.
+         *
+         * @param key the key
+         * @return the value, or null if the key is not mapped
+         */
+        @SuppressWarnings("unchecked")
+        public V get(long key) {
+            long hash = mix(key);
+            Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_SHIFT))];
+            long stamp = stripe.lock.tryOptimisticRead();
+            Object value = stripe.table.find(key, hash);
+            if (!stripe.lock.validate(stamp)) {
+                stamp = stripe.lock.readLock();
+                try {
+                    value = stripe.table.find(key, hash);
+                } finally {
+                    stripe.lock.unlockRead(stamp);
+                }
+            }
+            return (V) value;
+        }
+
+        /**
+         * Check if a key is mapped.
+         *
+         * @param key the key
+         * @return true if the key is mapped, false otherwise
+         */
+        public boolean containsKey(long key) {
+            return get(key) != null;
+        }
+
+        /**
+         * Map a key to a value.
+         *
+         * @param key the key, which must be positive
+         * @param value the value, which must not be null
+         * @return the previous value, or null if the key was not mapped
+         */
+        public V put(long key, V value) {
+            if (key <= 0) {
+                throw new IllegalArgumentException("Key must be positive: " + key);
+            }
+            long hash = mix(key);
+            Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_SHIFT))];
+            long stamp = stripe.lock.writeLock();
+            try {
+                Object previous = stripe.put(key, hash, value);
+                if (previous == null) {
+                    size.increment();
+                }
+                @SuppressWarnings("unchecked")
+                V previousValue = (V) previous;
+                return previousValue;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Replace the value of a mapped key with the result of a function.
+         *
+         * <p>The function runs under the stripe's write lock, so it is atomic
+         * with respect to other writers of the same key. If it throws, the
+         * mapping is left unchanged.
+         *
+         * @param key the key
+         * @param remapping computes the new value from the current one
+         * @return the previous value, or null if the key was not mapped
+         */
+        public V computeIfPresent(long key, UnaryOperator<V> remapping) {
+            long hash = mix(key);
+            Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_SHIFT))];
+            long stamp = stripe.lock.writeLock();
+            try {
+                @SuppressWarnings("unchecked")
+                V existing = (V) stripe.table.find(key, hash);
+                if (existing != null) {
+                    stripe.put(key, hash, remapping.apply(existing));
+                }
+                return existing;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Map, remap or unmap a key with the result of a function.
+         *
+         * <p>The function receives the current value, or null if the key is
+         * not mapped, and returns the new value, or null to remove the
+         * mapping. It runs under the stripe's write lock, so it is atomic
+         * with respect to other writers of the same key. If it throws, the
+         * mapping is left unchanged.
+         *
+         * @param key the key, which must be positive
+         * @param remapping computes the new value from the current one
+         * @return the new value, or null if the key is no longer mapped
+         */
+        public V compute(long key, UnaryOperator<V> remapping) {
+            if (key <= 0) {
+                throw new IllegalArgumentException("Key must be positive: " + key);
+            }
+            long hash = mix(key);
+            Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_SHIFT))];
+            long stamp = stripe.lock.writeLock();
+            try {
+                @SuppressWarnings("unchecked")
+                V existing = (V) stripe.table.find(key, hash);
+                V value = remapping.apply(existing);
+                if (value != null) {
+                    stripe.put(key, hash, value);
+                    if (existing == null) {
+                        size.increment();
+                    }
+                } else if (existing != null) {
+                    stripe.remove(key, hash);
+                    size.decrement();
+                }
+                return value;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Remove the mapping of a key.
+         *
+         * @param key the key
+         * @return the removed value, or null if the key was not mapped
+         */
+        public V remove(long key) {
+            long hash = mix(key);
+            Stripe stripe = stripes[(int) (hash >>> (Long.SIZE - STRIPE_SHIFT))];
+            long stamp = stripe.lock.writeLock();
+            try {
+                @SuppressWarnings("unchecked")
+                V removed = (V) stripe.remove(key, hash);
+                if (removed != null) {
+                    size.decrement();
+                }
+                return removed;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Count the mapped keys.
+         *
+         * @return the number of mappings
+         */
+        public int size() {
+            return size.intValue();
+        }
+
+        private static long mix(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            key *= 0xc4ceb9fe1a85ec53L;
+            return key ^ (key >>> 33);
+        }
+
+        /**
+         * One stripe. The table is replaced as a whole on resize so an
+         * optimistic reader always sees matching key and value arrays.
+         */
+        private static final class Stripe {
+
+            private final StampedLock lock = new StampedLock();
+            private Table table = new Table(INITIAL_CAPACITY);
+            private int used;
+
+            Object put(long key, long hash, Object value) {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                int target = -1;
+                for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                    long k = current.keys[i];
+                    if (k == key) {
+                        Object previous = current.values[i];
+                        current.values[i] = value;
+                        return previous;
+                    }
+                    if (k == REMOVED && target < 0) {
+                        target = i;
+                    }
+                    if (k == FREE) {
+                        if (target < 0) {
+                            if ((used + 1) * 2 > current.keys.length) {
+                                table = current.resized();
+                                used = countUsed(table);
+                                return put(key, hash, value);
+                            }
+                            target = i;
+                            used++;
+                        }
+                        break;
+                    }
+                }
+                // Publish the value before the key so an optimistic reader
+                // that sees the key also sees a value
+                current.values[target] = value;
+                current.keys[target] = key;
+                return null;
+            }
+
+            Object remove(long key, long hash) {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                    long k = current.keys[i];
+                    if (k == key) {
+                        Object previous = current.values[i];
+                        current.keys[i] = REMOVED;
+                        current.values[i] = null;
+                        return previous;
+                    }
+                    if (k == FREE) {
+                        return null;
+                    }
+                }
+            }
+
+            private static int countUsed(Table table) {
+                int live = 0;
+                for (long key : table.keys) {
+                    if (key != FREE) {
+                        live++;
+                    }
+                }
+                return live;
+            }
+        }
+
+        /**
+         * Parallel key and value arrays of one stripe.
+         */
+        private static final class Table {
+
+            private final long[] keys;
+            private final Object[] values;
+
+            Table(int capacity) {
+                this.keys = new long[capacity];
+                this.values = new Object[capacity];
+            }
+
+            /**
+             * Probe for a key. Safe to call without the lock: at least half
+             * of the cells are always free, so the probe terminates.
+             */
+            Object find(long key, long hash) {
+                int mask = keys.length - 1;
+                for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                    long k = keys[i];
+                    if (k == key) {
+                        return values[i];
+                    }
+                    if (k == FREE) {
+                        return null;
+                    }
+                }
+            }
+
+            /**
+             * Copy the live entries into a table sized for them, dropping
+             * removed markers.
+             */
+            Table resized() {
+                int live = 0;
+                for (long key : keys) {
+                    if (key != FREE && key != REMOVED) {
+                        live++;
+                    }
+                }
+                Table resized = new Table(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(live * 4 + 1)));
+                int mask = resized.keys.length - 1;
+                for (int j = 0; j < keys.length; j++) {
+                    long key = keys[j];
+                    if (key != FREE && key != REMOVED) {
+                        int i = (int) mix(key) & mask;
+                        while (resized.keys[i] != FREE) {
+                            i = (i + 1) & mask;
+                        }
+                        resized.keys[i] = key;
+                        resized.values[i] = values[j];
+                    }
+                }
+                return resized;
+            }
+        }
+    }
+}
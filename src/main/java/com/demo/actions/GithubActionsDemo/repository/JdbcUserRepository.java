@@ -0,0 +1,184 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * {@link UserRepository} backed by a relational database through JDBC.
+ *
+ * <p>IDs come from an identity column and email uniqueness is enforced by a
+ * unique constraint on the normalized email. The schema is portable between
+ * PostgreSQL and the embedded H2 database and is created on startup when
+ * missing. The version of a user is a column checked and incremented under
+ * the row lock taken by updates.
+ *
+ * <p>Only one application process may write to the database. The response
+ * cache, search indexes, change log and listing ETag of the service are
+ * kept in process memory and only follow the writes of their own process,
+ * so writes by another process would leave them stale.
+ */
+public class JdbcUserRepository implements UserRepository {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS users (
+                id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                first_name VARCHAR(255),
+                last_name VARCHAR(255),
+                email VARCHAR(320) NOT NULL,
+                email_key VARCHAR(320) NOT NULL UNIQUE,
+                age INTEGER,
+                phone_number VARCHAR(32),
+                version BIGINT DEFAULT 1 NOT NULL
+            )""";
+    private static final String COLUMNS = "id, first_name, last_name, email, age, phone_number, version";
+    private static final String INSERT =
+            "INSERT INTO users (first_name, last_name, email, email_key, age, phone_number) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE =
+            "UPDATE users SET first_name = ?, last_name = ?, email = ?, email_key = ?, age = ?, phone_number = ?, version = ? WHERE id = ?";
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM users WHERE id = ?";
+    private static final String SELECT_BY_ID_FOR_UPDATE = SELECT_BY_ID + " FOR UPDATE";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM users ORDER BY id";
+    private static final String SELECT_PAGE = "SELECT " + COLUMNS + " FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final RowMapper<UserDto> USER_ROW_MAPPER = (rs, rowNum) -> {
+        UserDto user = new UserDto(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getObject("age", Integer.class),
+                rs.getString("phone_number"));
+        user.setVersion(rs.getLong("version"));
+        return user;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Create a repository on the given data source, creating the schema if needed.
+     *
+     * @param dataSource the data source
+     */
+    public JdbcUserRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute(CREATE_TABLE);
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        List<UserDto> users = jdbcTemplate.query(SELECT_BY_ID, USER_ROW_MAPPER, id);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE id = ?)", Boolean.class, id));
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT, new String[] {"id"});
+                bindUser(statement, user);
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+
+        Long newId = keyHolder.getKeyAs(Long.class);
+        user.setId(newId);
+        user.setVersion(1);
+        return newId;
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        return transactionTemplate.execute(status -> {
+            List<UserDto> existing = jdbcTemplate.query(SELECT_BY_ID_FOR_UPDATE, USER_ROW_MAPPER, id);
+            if (existing.isEmpty()) {
+                return null;
+            }
+            UserDto existingUser = existing.get(0);
+            UserRepository.checkVersion(id, existingUser.getVersion(), expectedVersion);
+            long newVersion = existingUser.getVersion() + 1;
+            try {
+                jdbcTemplate.update(UPDATE, statement -> {
+                    bindUser(statement, user);
+                    statement.setLong(7, newVersion);
+                    statement.setLong(8, id);
+                });
+            } catch (DuplicateKeyException e) {
+                throw UserAlreadyExistsException.forEmail(user.getEmail());
+            }
+            user.setId(id);
+            user.setVersion(newVersion);
+            return existingUser;
+        });
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        return transactionTemplate.execute(status -> {
+            List<UserDto> existing = jdbcTemplate.query(SELECT_BY_ID_FOR_UPDATE, USER_ROW_MAPPER, id);
+            if (existing.isEmpty()) {
+                return null;
+            }
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+            return existing.get(0);
+        });
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        return jdbcTemplate.query(SELECT_ALL, USER_ROW_MAPPER);
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_PAGE, USER_ROW_MAPPER, afterId, limit);
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        return count == null ? 0L : count;
+    }
+
+    @Override
+    public boolean readsBlock() {
+        return true;
+    }
+
+    @Override
+    public boolean writesBlock() {
+        return true;
+    }
+
+    private static void bindUser(PreparedStatement statement, UserDto user) throws SQLException {
+        statement.setString(1, user.getFirstName());
+        statement.setString(2, user.getLastName());
+        statement.setString(3, user.getEmail());
+        statement.setString(4, UserRepository.normalizeEmail(user.getEmail()));
+        statement.setObject(5, user.getAge(), Types.INTEGER);
+        statement.setString(6, user.getPhoneNumber());
+    }
+}
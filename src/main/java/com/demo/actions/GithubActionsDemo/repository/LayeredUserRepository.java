@@ -0,0 +1,210 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link UserRepository} that layers an in-memory overlay over a
+ * {@link ReadOnlyUserRepository} base, such as a mapped
+ * {@link SnapshotUserRepository}.
+ *
+ * <p>New users go to the overlay. A base user is copied up to the overlay
+ * when it is updated and shadowed when it is deleted, so the base is never
+ * written. Reads check the overlay first and fall back to the base unless
+ * the ID is shadowed; listings merge both layers in ID order. New IDs start
+ * after the highest base ID, so the layers never assign the same ID.
+ *
+ * <p>Writes are serialized by a lock so that email checks spanning both
+ * layers stay atomic. Without a base the repository is a plain overlay.
+ */
+public class LayeredUserRepository implements UserRepository, AutoCloseable {
+
+    private final ReadOnlyUserRepository base;
+    private final InMemoryUserRepository overlay = new InMemoryUserRepository();
+    private final InMemoryUserRepository.LongMap<Boolean> shadowed = new InMemoryUserRepository.LongMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Create a repository over a read-only base.
+     *
+     * @param base the read-only base layer, or null for none
+     */
+    public LayeredUserRepository(ReadOnlyUserRepository base) {
+        this.base = base;
+        if (base != null && base.count() > 0) {
+            overlay.reserveIdsThrough(base.idAt(base.count() - 1));
+        }
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        UserDto user = overlay.findById(id);
+        if (user != null || base == null || shadowed.containsKey(id)) {
+            return user;
+        }
+        return base.findById(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return overlay.existsById(id) || (base != null && !shadowed.containsKey(id) && base.existsById(id));
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        writeLock.lock();
+        try {
+            if (ownedByBase(UserRepository.normalizeEmail(user.getEmail()))) {
+                return null;
+            }
+            return overlay.insert(user);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        writeLock.lock();
+        try {
+            UserDto existingUser = findById(id);
+            if (existingUser == null) {
+                return null;
+            }
+            UserRepository.checkVersion(id, existingUser.getVersion(), expectedVersion);
+            String newEmailKey = UserRepository.normalizeEmail(user.getEmail());
+            if (!newEmailKey.equals(UserRepository.normalizeEmail(existingUser.getEmail())) && ownedByBase(newEmailKey)) {
+                throw UserAlreadyExistsException.forEmail(user.getEmail());
+            }
+            if (!overlay.existsById(id)) {
+                copyUp(existingUser);
+            }
+            return overlay.replace(id, user, expectedVersion);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        writeLock.lock();
+        try {
+            UserDto removedUser = overlay.deleteById(id);
+            if (removedUser != null || base == null || shadowed.containsKey(id)) {
+                return removedUser;
+            }
+            removedUser = base.findById(id);
+            if (removedUser != null) {
+                shadowed.put(id, Boolean.TRUE);
+            }
+            return removedUser;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        return findPage(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        if (base == null) {
+            return overlay.findPage(afterId, limit);
+        }
+        List<UserDto> overlayPage = overlay.findPage(afterId, limit);
+        List<UserDto> page = new ArrayList<>((int) Math.min(limit, count()));
+        long baseCount = base.count();
+        long baseIndex = base.indexAfter(afterId);
+        int overlayIndex = 0;
+        while (page.size() < limit) {
+            while (baseIndex < baseCount && shadowed.containsKey(base.idAt(baseIndex))) {
+                baseIndex++;
+            }
+            long baseId = baseIndex < baseCount ? base.idAt(baseIndex) : Long.MAX_VALUE;
+            UserDto overlayUser = overlayIndex < overlayPage.size() ? overlayPage.get(overlayIndex) : null;
+            if (overlayUser != null && overlayUser.getId() < baseId) {
+                page.add(overlayUser);
+                overlayIndex++;
+            } else if (baseId != Long.MAX_VALUE) {
+                page.add(base.userAt(baseIndex++));
+            } else {
+                break;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long count() {
+        long baseCount = base == null ? 0 : base.count() - shadowed.size();
+        return baseCount + overlay.count();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Reports the indexes of the in-memory overlay and the number of
+     * base users it shadows; the mapped base has fixed, file-backed indexes.
+     */
+    @Override
+    public Map<String, Long> indexSizes() {
+        Map<String, Long> sizes = new HashMap<>(overlay.indexSizes());
+        sizes.put("shadowed", (long) shadowed.size());
+        return sizes;
+    }
+
+    /**
+     * Unmap the base layer. The repository must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (base != null) {
+            base.close();
+        }
+    }
+
+    /**
+     * Store a user under its existing ID and version, shadowing any base
+     * user with that ID.
+     *
+     * @param user the user to restore, with its ID set
+     * @see InMemoryUserRepository#restore(UserDto)
+     */
+    void restore(UserDto user) {
+        writeLock.lock();
+        try {
+            overlay.restore(user);
+            if (base != null && base.existsById(user.getId())) {
+                shadowed.put(user.getId(), Boolean.TRUE);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Copy a base user to the overlay before changing it. The overlay entry
+     * is visible before the base entry is shadowed, so readers always see
+     * the user.
+     */
+    private void copyUp(UserDto baseUser) {
+        overlay.restore(baseUser);
+        shadowed.put(baseUser.getId(), Boolean.TRUE);
+    }
+
+    private boolean ownedByBase(String emailKey) {
+        if (base == null) {
+            return false;
+        }
+        long owner = base.emailOwner(emailKey);
+        return owner > 0 && !shadowed.containsKey(owner);
+    }
+}
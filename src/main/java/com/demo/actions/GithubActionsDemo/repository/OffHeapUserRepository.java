@@ -0,0 +1,771 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Columnar {@link UserRepository} that keeps users outside the Java heap.
+ *
+ * <p>Users live in {@link MemorySegment}s allocated from a shared
+ * {@link Arena}. Every user occupies one slot; slots are grouped in pages of
+ * fixed-width columns (ID, version, age, flags and four string references), and the
+ * string fields are UTF-8 bytes appended to a chunked string arena. The ID
+ * index maps a primitive {@code long} ID to its slot and the email index
+ * stores only hashes and slots, so the heap holds no per-user objects at all.
+ * {@link UserDto} objects are created only when a user is read.
+ *
+ * <p>Slots are assigned in ID order, so paging is a binary search over the
+ * ID column followed by a sequential scan. Deleted slots and replaced string
+ * bytes stay dead until the repository is compacted: once they outweigh the
+ * live ones, or a write would not fit the string arena otherwise, the live
+ * users are copied into fresh memory in ID order and the old memory is
+ * released. Writers are serialized by a {@link StampedLock} and readers
+ * share its read lock, so compaction pauses both.
+ */
+public class OffHeapUserRepository implements UserRepository, AutoCloseable {
+
+    /** Default size of a single string arena chunk, in bytes. */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    static final int PAGE_SHIFT = 14;
+    static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+
+    private static final int MAX_CHUNK_SIZE = 1 << 24;
+    private static final int MAX_CHUNKS = (1 << 23) - 1;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE_NUMBER = 3;
+    private static final int STRING_COLUMNS = 4;
+
+    private static final int NULL_AGE = Integer.MIN_VALUE;
+    private static final long NULL_REF = -1L;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    private final StampedLock lock = new StampedLock();
+    private final int chunkSize;
+    private final int maxChunks;
+    private final IdIndex idIndex = new IdIndex();
+    private final EmailIndex emailIndex = new EmailIndex();
+
+    // All mutable state below is guarded by lock
+    private Arena arena = Arena.ofShared();
+    private Page[] pages = new Page[0];
+    private MemorySegment[] chunks = new MemorySegment[0];
+    private long chunkPosition;
+    private int slotCount;
+    private int deadSlots;
+    private long liveStringBytes;
+    private long deadStringBytes;
+    private long compactions;
+    private long size;
+    private long nextId = 1;
+
+    /**
+     * One page of fixed-width columns.
+     */
+    private record Page(MemorySegment ids, MemorySegment versions, MemorySegment ages, MemorySegment flags,
+                        MemorySegment refs) {
+    }
+
+    /**
+     * Create a repository with the default string arena chunk size.
+     */
+    public OffHeapUserRepository() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a repository with the given string arena chunk size.
+     *
+     * @param chunkSize the size of each string arena chunk, in bytes (at most 16 MiB)
+     */
+    public OffHeapUserRepository(int chunkSize) {
+        this(chunkSize, MAX_CHUNKS);
+    }
+
+    /**
+     * Create a repository whose string arena holds at most the given number
+     * of chunks, so tests can fill it up.
+     */
+    OffHeapUserRepository(int chunkSize, int maxChunks) {
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE + " bytes");
+        }
+        if (maxChunks <= 0 || maxChunks > MAX_CHUNKS) {
+            throw new IllegalArgumentException("Chunk count must be between 1 and " + MAX_CHUNKS);
+        }
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        long stamp = lock.readLock();
+        try {
+            int slot = idIndex.get(id);
+            return slot < 0 ? null : decode(slot);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        long stamp = lock.readLock();
+        try {
+            return idIndex.get(id) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        byte[][] strings = encode(user);
+        String emailKey = UserRepository.normalizeEmail(user.getEmail());
+        long emailHash = hash(emailKey);
+
+        long newId;
+        long stamp = lock.writeLock();
+        try {
+            ensureCapacity(strings);
+            if (emailIndex.find(emailHash, emailKey) >= 0) {
+                return null;
+            }
+            newId = nextId++;
+            int slot = addSlot();
+            Page page = pages[slot >>> PAGE_SHIFT];
+            int index = slot & (PAGE_SLOTS - 1);
+            page.ids().setAtIndex(ValueLayout.JAVA_LONG, index, newId);
+            page.versions().setAtIndex(ValueLayout.JAVA_LONG, index, 1L);
+            page.flags().set(ValueLayout.JAVA_BYTE, index, LIVE);
+            write(page, index, user.getAge(), strings);
+            idIndex.put(newId, slot);
+            emailIndex.add(emailHash, slot);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        user.setId(newId);
+        user.setVersion(1);
+        return newId;
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        byte[][] strings = encode(user);
+        String newEmailKey = UserRepository.normalizeEmail(user.getEmail());
+        long newEmailHash = hash(newEmailKey);
+
+        long stamp = lock.writeLock();
+        try {
+            // Compacting moves slots, so make room before looking the user up
+            ensureCapacity(strings);
+            int slot = idIndex.get(id);
+            if (slot < 0) {
+                return null;
+            }
+            UserDto existingUser = decode(slot);
+            UserRepository.checkVersion(id, existingUser.getVersion(), expectedVersion);
+            String oldEmailKey = UserRepository.normalizeEmail(existingUser.getEmail());
+            boolean emailChanged = !oldEmailKey.equals(newEmailKey);
+            if (emailChanged && emailIndex.find(newEmailHash, newEmailKey) >= 0) {
+                throw UserAlreadyExistsException.forEmail(user.getEmail());
+            }
+            if (emailChanged) {
+                emailIndex.remove(hash(oldEmailKey), slot);
+            }
+            Page page = pages[slot >>> PAGE_SHIFT];
+            int index = slot & (PAGE_SLOTS - 1);
+            long newVersion = existingUser.getVersion() + 1;
+            page.versions().setAtIndex(ValueLayout.JAVA_LONG, index, newVersion);
+            releaseStrings(page, index);
+            write(page, index, user.getAge(), strings);
+            if (emailChanged) {
+                emailIndex.add(newEmailHash, slot);
+            }
+            compactIfMostlyDead();
+            user.setId(id);
+            user.setVersion(newVersion);
+            return existingUser;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = idIndex.remove(id);
+            if (slot < 0) {
+                return null;
+            }
+            UserDto removedUser = decode(slot);
+            Page page = pages[slot >>> PAGE_SHIFT];
+            int index = slot & (PAGE_SLOTS - 1);
+            page.flags().set(ValueLayout.JAVA_BYTE, index, DELETED);
+            releaseStrings(page, index);
+            deadSlots++;
+            emailIndex.remove(hash(UserRepository.normalizeEmail(removedUser.getEmail())), slot);
+            size--;
+            compactIfMostlyDead();
+            return removedUser;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        long stamp = lock.readLock();
+        try {
+            List<UserDto> result = new ArrayList<>((int) Math.min(size, Integer.MAX_VALUE));
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (isLive(slot)) {
+                    result.add(decode(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        long stamp = lock.readLock();
+        try {
+            List<UserDto> page = new ArrayList<>((int) Math.min(limit, size));
+            for (int slot = firstSlotAfter(afterId); slot < slotCount && page.size() < limit; slot++) {
+                if (isLive(slot)) {
+                    page.add(decode(slot));
+                }
+            }
+            return page;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long count() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Index sizes count occupied cells, including the markers of deleted
+     * entries that are only dropped when an index grows or is cleared.
+     * {@code slots} counts column rows including the {@code deadSlots} of
+     * deleted users, and {@code stringBytes} and {@code deadStringBytes}
+     * count the string arena bytes still referenced and those left behind by
+     * replaced and deleted users, until the next compaction.
+     */
+    @Override
+    public Map<String, Long> indexSizes() {
+        long stamp = lock.readLock();
+        try {
+            return Map.of("id", (long) idIndex.used, "email", (long) emailIndex.used,
+                    "slots", (long) slotCount, "deadSlots", (long) deadSlots,
+                    "stringBytes", liveStringBytes, "deadStringBytes", deadStringBytes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the number of times the repository has been compacted.
+     *
+     * @return the number of compactions
+     */
+    public long compactionCount() {
+        long stamp = lock.readLock();
+        try {
+            return compactions;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Release all off-heap memory. The repository must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private int addSlot() {
+        int slot = slotCount;
+        if ((slot & (PAGE_SLOTS - 1)) == 0 && (slot >>> PAGE_SHIFT) == pages.length) {
+            addPage();
+        }
+        slotCount++;
+        return slot;
+    }
+
+    private void addPage() {
+        Page page = new Page(
+                arena.allocate(MemoryLayout.sequenceLayout(PAGE_SLOTS, ValueLayout.JAVA_LONG)),
+                arena.allocate(MemoryLayout.sequenceLayout(PAGE_SLOTS, ValueLayout.JAVA_LONG)),
+                arena.allocate(MemoryLayout.sequenceLayout(PAGE_SLOTS, ValueLayout.JAVA_INT)),
+                arena.allocate(MemoryLayout.sequenceLayout(PAGE_SLOTS, ValueLayout.JAVA_BYTE)),
+                arena.allocate(MemoryLayout.sequenceLayout((long) PAGE_SLOTS * STRING_COLUMNS, ValueLayout.JAVA_LONG)));
+        pages = Arrays.copyOf(pages, pages.length + 1);
+        pages[pages.length - 1] = page;
+    }
+
+    private void write(Page page, int index, Integer age, byte[][] strings) {
+        page.ages().setAtIndex(ValueLayout.JAVA_INT, index, age == null ? NULL_AGE : age);
+        long refBase = (long) index * STRING_COLUMNS;
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            page.refs().setAtIndex(ValueLayout.JAVA_LONG, refBase + column, appendString(strings[column]));
+        }
+    }
+
+    private void releaseStrings(Page page, int index) {
+        long refBase = (long) index * STRING_COLUMNS;
+        for (int column = 0; column < STRING_COLUMNS; column++) {
+            long ref = page.refs().getAtIndex(ValueLayout.JAVA_LONG, refBase + column);
+            if (ref != NULL_REF) {
+                liveStringBytes -= ref & 0xFFFF;
+                deadStringBytes += ref & 0xFFFF;
+            }
+        }
+    }
+
+    /**
+     * Make sure the strings of one user fit the string arena before any
+     * column is written, compacting first if there are dead bytes to
+     * reclaim, so a full arena fails the write instead of leaving a
+     * half-written slot behind.
+     */
+    private void ensureCapacity(byte[][] strings) {
+        if (!fits(strings)) {
+            if (deadStringBytes > 0) {
+                compact();
+            }
+            if (!fits(strings)) {
+                throw new IllegalStateException("Off-heap string arena is full");
+            }
+        }
+    }
+
+    /**
+     * Check whether the strings fit the remaining chunks, placing them
+     * exactly like {@link #appendString(byte[])} would.
+     */
+    private boolean fits(byte[][] strings) {
+        int chunkCount = chunks.length;
+        long position = chunkPosition;
+        for (byte[] bytes : strings) {
+            if (bytes == null) {
+                continue;
+            }
+            if (chunkCount == 0 || position + bytes.length > chunkSize) {
+                chunkCount++;
+                position = 0;
+            }
+            position += bytes.length;
+        }
+        return chunkCount <= maxChunks;
+    }
+
+    /**
+     * Compact once dead slots or string bytes outnumber live ones, so the
+     * cost of copying the live users is paid for by the writes that left
+     * at least as much garbage behind.
+     */
+    private void compactIfMostlyDead() {
+        if ((deadStringBytes >= chunkSize && deadStringBytes > liveStringBytes)
+                || (deadSlots >= PAGE_SLOTS && deadSlots > slotCount - deadSlots)) {
+            compact();
+        }
+    }
+
+    /**
+     * Copy the live users into fresh pages and string chunks in slot order,
+     * repoint both indexes at their new slots and release the old memory.
+     */
+    private void compact() {
+        Arena oldArena = arena;
+        Page[] oldPages = pages;
+        MemorySegment[] oldChunks = chunks;
+        int oldSlotCount = slotCount;
+        int[] newSlots = new int[oldSlotCount];
+
+        arena = Arena.ofShared();
+        pages = new Page[0];
+        chunks = new MemorySegment[0];
+        chunkPosition = 0;
+        slotCount = 0;
+        deadSlots = 0;
+        liveStringBytes = 0;
+        deadStringBytes = 0;
+        for (int oldSlot = 0; oldSlot < oldSlotCount; oldSlot++) {
+            Page from = oldPages[oldSlot >>> PAGE_SHIFT];
+            int fromIndex = oldSlot & (PAGE_SLOTS - 1);
+            if (from.flags().get(ValueLayout.JAVA_BYTE, fromIndex) != LIVE) {
+                newSlots[oldSlot] = -1;
+                continue;
+            }
+            int slot = addSlot();
+            Page to = pages[slot >>> PAGE_SHIFT];
+            int index = slot & (PAGE_SLOTS - 1);
+            to.ids().setAtIndex(ValueLayout.JAVA_LONG, index, from.ids().getAtIndex(ValueLayout.JAVA_LONG, fromIndex));
+            to.versions().setAtIndex(ValueLayout.JAVA_LONG, index,
+                    from.versions().getAtIndex(ValueLayout.JAVA_LONG, fromIndex));
+            to.ages().setAtIndex(ValueLayout.JAVA_INT, index, from.ages().getAtIndex(ValueLayout.JAVA_INT, fromIndex));
+            to.flags().set(ValueLayout.JAVA_BYTE, index, LIVE);
+            for (int column = 0; column < STRING_COLUMNS; column++) {
+                long ref = from.refs().getAtIndex(ValueLayout.JAVA_LONG, (long) fromIndex * STRING_COLUMNS + column);
+                to.refs().setAtIndex(ValueLayout.JAVA_LONG, (long) index * STRING_COLUMNS + column,
+                        moveString(oldChunks, ref));
+            }
+            newSlots[oldSlot] = slot;
+        }
+        idIndex.remap(newSlots);
+        emailIndex.remap(newSlots);
+        oldArena.close();
+        compactions++;
+    }
+
+    private UserDto decode(int slot) {
+        Page page = pages[slot >>> PAGE_SHIFT];
+        int index = slot & (PAGE_SLOTS - 1);
+        long refBase = (long) index * STRING_COLUMNS;
+        int age = page.ages().getAtIndex(ValueLayout.JAVA_INT, index);
+        UserDto user = new UserDto(
+                page.ids().getAtIndex(ValueLayout.JAVA_LONG, index),
+                readString(page.refs().getAtIndex(ValueLayout.JAVA_LONG, refBase + FIRST_NAME)),
+                readString(page.refs().getAtIndex(ValueLayout.JAVA_LONG, refBase + LAST_NAME)),
+                readString(page.refs().getAtIndex(ValueLayout.JAVA_LONG, refBase + EMAIL)),
+                age == NULL_AGE ? null : age,
+                readString(page.refs().getAtIndex(ValueLayout.JAVA_LONG, refBase + PHONE_NUMBER)));
+        user.setVersion(page.versions().getAtIndex(ValueLayout.JAVA_LONG, index));
+        return user;
+    }
+
+    private String readEmailKey(int slot) {
+        long ref = pages[slot >>> PAGE_SHIFT].refs()
+                .getAtIndex(ValueLayout.JAVA_LONG, (long) (slot & (PAGE_SLOTS - 1)) * STRING_COLUMNS + EMAIL);
+        return UserRepository.normalizeEmail(readString(ref));
+    }
+
+    private boolean isLive(int slot) {
+        return pages[slot >>> PAGE_SHIFT].flags().get(ValueLayout.JAVA_BYTE, slot & (PAGE_SLOTS - 1)) == LIVE;
+    }
+
+    private long idAt(int slot) {
+        return pages[slot >>> PAGE_SHIFT].ids().getAtIndex(ValueLayout.JAVA_LONG, slot & (PAGE_SLOTS - 1));
+    }
+
+    /**
+     * Binary search the ID column, which is sorted because slots are
+     * assigned in ID order.
+     */
+    private int firstSlotAfter(long afterId) {
+        int low = 0;
+        int high = slotCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idAt(mid) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Append UTF-8 bytes to the string arena, which the caller has made
+     * sure has room for them.
+     *
+     * @return a reference packing the chunk index (23 bits), the offset in
+     *         the chunk (24 bits) and the length (16 bits)
+     */
+    private long appendString(byte[] bytes) {
+        if (bytes == null) {
+            return NULL_REF;
+        }
+        long ref = reserveString(bytes.length);
+        MemorySegment.copy(bytes, 0, chunks[(int) (ref >>> 40)], ValueLayout.JAVA_BYTE,
+                (ref >>> 16) & 0xFFFFFF, bytes.length);
+        return ref;
+    }
+
+    /**
+     * Copy a string from the chunks of the arena being compacted.
+     */
+    private long moveString(MemorySegment[] oldChunks, long oldRef) {
+        if (oldRef == NULL_REF) {
+            return NULL_REF;
+        }
+        int length = (int) (oldRef & 0xFFFF);
+        long ref = reserveString(length);
+        MemorySegment.copy(oldChunks[(int) (oldRef >>> 40)], (oldRef >>> 16) & 0xFFFFFF,
+                chunks[(int) (ref >>> 40)], (ref >>> 16) & 0xFFFFFF, length);
+        return ref;
+    }
+
+    private long reserveString(int length) {
+        if (chunks.length == 0 || chunkPosition + length > chunkSize) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = arena.allocate(chunkSize);
+            chunkPosition = 0;
+        }
+        long ref = ((long) (chunks.length - 1) << 40) | (chunkPosition << 16) | length;
+        chunkPosition += length;
+        liveStringBytes += length;
+        return ref;
+    }
+
+    private String readString(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int length = (int) (ref & 0xFFFF);
+        long offset = (ref >>> 16) & 0xFFFFFF;
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(chunks[(int) (ref >>> 40)], ValueLayout.JAVA_BYTE, offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encode the string fields of a user, rejecting values that do not fit
+     * a string reference before any lock is taken.
+     */
+    private byte[][] encode(UserDto user) {
+        byte[][] strings = new byte[STRING_COLUMNS][];
+        strings[FIRST_NAME] = utf8(user.getFirstName());
+        strings[LAST_NAME] = utf8(user.getLastName());
+        strings[EMAIL] = utf8(user.getEmail());
+        strings[PHONE_NUMBER] = utf8(user.getPhoneNumber());
+        for (byte[] bytes : strings) {
+            if (bytes != null && (bytes.length > MAX_STRING_BYTES || bytes.length > chunkSize)) {
+                throw new IllegalArgumentException("User field of " + bytes.length + " bytes is too large");
+            }
+        }
+        return strings;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string, used to pre-filter email index probes.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+
+    /**
+     * Open-addressing map from a primitive ID to a slot. IDs are always
+     * positive, so 0 marks a free cell and -1 a deleted one.
+     */
+    private static final class IdIndex {
+
+        private static final long FREE = 0L;
+        private static final long REMOVED = -1L;
+
+        private long[] keys = new long[16];
+        private int[] slots = new int[16];
+        private int used;
+
+        int get(long id) {
+            int mask = keys.length - 1;
+            for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+                long key = keys[i];
+                if (key == id) {
+                    return slots[i];
+                }
+                if (key == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long id, int slot) {
+            if ((used + 1) * 2 > keys.length) {
+                rehash();
+            }
+            int mask = keys.length - 1;
+            int i = mix(id) & mask;
+            while (keys[i] != FREE && keys[i] != REMOVED) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == FREE) {
+                used++;
+            }
+            keys[i] = id;
+            slots[i] = slot;
+        }
+
+        int remove(long id) {
+            int mask = keys.length - 1;
+            for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+                long key = keys[i];
+                if (key == id) {
+                    keys[i] = REMOVED;
+                    return slots[i];
+                }
+                if (key == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void remap(int[] newSlots) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE && keys[i] != REMOVED) {
+                    slots[i] = newSlots[slots[i]];
+                }
+            }
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldSlots = slots;
+            int live = 0;
+            for (long key : oldKeys) {
+                if (key != FREE && key != REMOVED) {
+                    live++;
+                }
+            }
+            int capacity = Integer.highestOneBit(Math.max(16, live * 4 - 1)) << 1;
+            keys = new long[capacity];
+            slots = new int[capacity];
+            used = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE && oldKeys[i] != REMOVED) {
+                    put(oldKeys[i], oldSlots[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing set of slots keyed by the hash of the normalized email.
+     * Hash matches are confirmed against the email stored in the arena, so
+     * the index holds no strings.
+     */
+    private final class EmailIndex {
+
+        private static final int FREE = -1;
+        private static final int REMOVED = -2;
+
+        private long[] hashes = new long[16];
+        private int[] slots = filled(16);
+        private int used;
+
+        int find(long hash, String emailKey) {
+            int mask = slots.length - 1;
+            for (int i = mix(hash) & mask; ; i = (i + 1) & mask) {
+                int slot = slots[i];
+                if (slot == FREE) {
+                    return -1;
+                }
+                if (slot != REMOVED && hashes[i] == hash && readEmailKey(slot).equals(emailKey)) {
+                    return slot;
+                }
+            }
+        }
+
+        void add(long hash, int slot) {
+            if ((used + 1) * 2 > slots.length) {
+                rehash();
+            }
+            int mask = slots.length - 1;
+            int i = mix(hash) & mask;
+            while (slots[i] >= 0) {
+                i = (i + 1) & mask;
+            }
+            if (slots[i] == FREE) {
+                used++;
+            }
+            hashes[i] = hash;
+            slots[i] = slot;
+        }
+
+        void remove(long hash, int slot) {
+            int mask = slots.length - 1;
+            for (int i = mix(hash) & mask; slots[i] != FREE; i = (i + 1) & mask) {
+                if (slots[i] == slot) {
+                    slots[i] = REMOVED;
+                    return;
+                }
+            }
+        }
+
+        void remap(int[] newSlots) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] >= 0) {
+                    slots[i] = newSlots[slots[i]];
+                }
+            }
+        }
+
+        private void rehash() {
+            long[] oldHashes = hashes;
+            int[] oldSlots = slots;
+            int live = 0;
+            for (int slot : oldSlots) {
+                if (slot >= 0) {
+                    live++;
+                }
+            }
+            int capacity = Integer.highestOneBit(Math.max(16, live * 4 - 1)) << 1;
+            hashes = new long[capacity];
+            slots = filled(capacity);
+            used = 0;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] >= 0) {
+                    add(oldHashes[i], oldSlots[i]);
+                }
+            }
+        }
+
+        private static int[] filled(int capacity) {
+            int[] array = new int[capacity];
+            Arrays.fill(array, FREE);
+            return array;
+        }
+    }
+}
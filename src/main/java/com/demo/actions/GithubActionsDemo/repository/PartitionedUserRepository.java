@@ -0,0 +1,240 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap-based {@link UserRepository} split into hash partitions, so
+ * concurrent writers on many cores share no index structure.
+ *
+ * <p>A user is stored in the partition chosen by the hash of its ID, which
+ * holds its own primary index and ID-ordered key set. Email uniqueness is
+ * enforced through the email index of the partition chosen by the hash of
+ * the normalized email address, which is reserved before the user is
+ * stored, exactly as in {@link InMemoryUserRepository}; two users can
+ * only race for an email in the one partition owning it.
+ *
+ * <p>IDs come from one shared counter, as in
+ * {@link InMemoryUserRepository}, so they follow the order in which users
+ * were created and a keyset cursor never skips a user created after it.
+ * The counter is the only structure all writers share; the user itself is
+ * stored in the partition its ID hashes to.
+ *
+ * <p>Operations spanning all users are answered by merging the
+ * partitions: counts are summed, and listings and pages merge the ordered
+ * keys of all partitions, reading only as many keys as the page needs.
+ */
+public class PartitionedUserRepository implements UserRepository {
+
+    private final Partition[] partitions;
+    private final int mask;
+    private final AtomicLong idCounter = new AtomicLong(1);
+
+    /**
+     * Create an empty repository with a partition per available processor.
+     */
+    public PartitionedUserRepository() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create an empty repository.
+     *
+     * @param partitions the number of partitions, rounded up to a power of two
+     */
+    public PartitionedUserRepository(int partitions) {
+        if (partitions < 1 || partitions > 1 << 16) {
+            throw new IllegalArgumentException("Partitions must be between 1 and 65536: " + partitions);
+        }
+        int count = Integer.highestOneBit(partitions) == partitions ? partitions : Integer.highestOneBit(partitions) << 1;
+        this.partitions = new Partition[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.partitions[i] = new Partition();
+        }
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        return partitionOf(id).users.get(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        return partitionOf(id).users.containsKey(id);
+    }
+
+    @Override
+    public Long insert(UserDto user) {
+        // Reserve the email first so two concurrent inserts cannot both
+        // succeed, and only then take an ID, so rejected inserts leave no gap
+        String emailKey = UserRepository.normalizeEmail(user.getEmail());
+        Map<String, Long> emails = emailPartitionOf(emailKey).emails;
+        if (emails.putIfAbsent(emailKey, InMemoryUserRepository.RESERVED) != null) {
+            return null;
+        }
+        Long newId = idCounter.getAndIncrement();
+        emails.put(emailKey, newId);
+
+        user.setId(newId);
+        user.setVersion(1);
+        Partition partition = partitionOf(newId);
+        partition.users.put(newId, user);
+        partition.orderedIds.add(newId);
+        return newId;
+    }
+
+    @Override
+    public UserDto replace(long id, UserDto user, long expectedVersion) {
+        // Check the version and swap the email index entries and the user
+        // atomically with respect to other writers of the same ID
+        String newEmailKey = UserRepository.normalizeEmail(user.getEmail());
+        return partitionOf(id).users.computeIfPresent(id, existingUser -> {
+            UserRepository.checkVersion(id, existingUser.getVersion(), expectedVersion);
+            String oldEmailKey = UserRepository.normalizeEmail(existingUser.getEmail());
+            if (!oldEmailKey.equals(newEmailKey)) {
+                Long owner = emailPartitionOf(newEmailKey).emails.putIfAbsent(newEmailKey, id);
+                if (owner != null && owner != id) {
+                    throw UserAlreadyExistsException.forEmail(user.getEmail());
+                }
+                emailPartitionOf(oldEmailKey).emails.remove(oldEmailKey, id);
+            }
+            user.setId(id);
+            user.setVersion(existingUser.getVersion() + 1);
+            return user;
+        });
+    }
+
+    @Override
+    public UserDto deleteById(long id) {
+        Partition partition = partitionOf(id);
+        UserDto removedUser = partition.users.remove(id);
+        if (removedUser != null) {
+            partition.orderedIds.remove(id);
+            String emailKey = UserRepository.normalizeEmail(removedUser.getEmail());
+            emailPartitionOf(emailKey).emails.remove(emailKey, id);
+        }
+        return removedUser;
+    }
+
+    @Override
+    public List<UserDto> findAll() {
+        return findPage(0L, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<UserDto> findPage(long afterId, int limit) {
+        List<UserDto> page = new ArrayList<>((int) Math.min(limit, count()));
+        // The next key of every partition with keys left, smallest first
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(partitions.length,
+                Comparator.comparingLong(cursor -> cursor.id));
+        for (Partition partition : partitions) {
+            Cursor cursor = new Cursor(partition, partition.orderedIds.tailSet(afterId, false).iterator());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        while (page.size() < limit && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            UserDto user = cursor.partition.users.get(cursor.id);
+            if (user != null) {
+                page.add(user);
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Partition partition : partitions) {
+            count += partition.users.size();
+        }
+        return count;
+    }
+
+    @Override
+    public Map<String, Long> indexSizes() {
+        long ids = 0;
+        long emails = 0;
+        for (Partition partition : partitions) {
+            ids += partition.users.size();
+            emails += partition.emails.size();
+        }
+        return Map.of("id", ids, "email", emails);
+    }
+
+    /**
+     * Get the number of partitions.
+     *
+     * @return the number of partitions
+     */
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    private Partition partitionOf(long id) {
+        return partitions[index(id)];
+    }
+
+    private Partition emailPartitionOf(String emailKey) {
+        return partitions[index(emailKey.hashCode())];
+    }
+
+    /**
+     * Map a key to a partition by the high bits of its Fibonacci hash, so
+     * the partition does not correlate with the low bits the hash tables
+     * inside a partition use.
+     */
+    private int index(long key) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> 40) & mask;
+    }
+
+    /**
+     * One partition: the users whose IDs hash to it and the email index
+     * entries whose emails hash to it.
+     */
+    private static final class Partition {
+
+        private final InMemoryUserRepository.LongMap<UserDto> users = new InMemoryUserRepository.LongMap<>();
+        private final NavigableSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+        private final Map<String, Long> emails = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Position in the ordered keys of one partition while merging pages.
+     */
+    private static final class Cursor {
+
+        private final Partition partition;
+        private final Iterator<Long> ids;
+        private long id;
+
+        Cursor(Partition partition, Iterator<Long> ids) {
+            this.partition = partition;
+            this.ids = ids;
+        }
+
+        boolean advance() {
+            if (!ids.hasNext()) {
+                return false;
+            }
+            id = ids.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+
+/**
+ * Read-only users in ID order, as read by {@link LayeredUserRepository}
+ * from its base layer.
+ *
+ * <p>Besides lookups by ID, users are addressed by their position in ID
+ * order, from 0 to {@link #count()} - 1, so a layer over them can merge
+ * listings and skip shadowed users without copying.
+ */
+public interface ReadOnlyUserRepository extends AutoCloseable {
+
+    /**
+     * Find a user by ID.
+     *
+     * @param id the user ID
+     * @return the user, or null if no user has the given ID
+     */
+    UserDto findById(long id);
+
+    /**
+     * Check if a user exists.
+     *
+     * @param id the user ID
+     * @return true if a user has the given ID, false otherwise
+     */
+    boolean existsById(long id);
+
+    /**
+     * Count the users.
+     *
+     * @return the number of users
+     */
+    long count();
+
+    /**
+     * Find the position of the first user with an ID greater than the given one.
+     *
+     * @param afterId the exclusive lower bound for user IDs
+     * @return the position, or {@link #count()} if there is no such user
+     */
+    long indexAfter(long afterId);
+
+    /**
+     * Get the ID of the user at a position.
+     *
+     * @param index the position in ID order
+     * @return the user ID
+     */
+    long idAt(long index);
+
+    /**
+     * Get the user at a position.
+     *
+     * @param index the position in ID order
+     * @return the user
+     */
+    UserDto userAt(long index);
+
+    /**
+     * Find the user owning a normalized email address.
+     *
+     * @param emailKey the normalized email address
+     * @return the ID of the owning user, or -1 if no user has the email
+     */
+    long emailOwner(String emailKey);
+
+    /**
+     * Release the users. The repository must not be used afterwards.
+     */
+    @Override
+    void close();
+}
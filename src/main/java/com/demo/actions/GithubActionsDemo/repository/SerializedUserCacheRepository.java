@@ -0,0 +1,381 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.SerializedUserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded read-through cache of users serialized to their JSON response
+ * bodies, so reads of hot users skip serialization entirely.
+ *
+ * <p>Eviction follows W-TinyLFU. Every lookup is counted in a 4-bit
+ * count-min sketch of recent access frequencies, halved periodically so
+ * old popularity fades. Newly loaded users enter a small FIFO window of
+ * 1% of the capacity; a user leaving the window is only admitted to the
+ * main region if it is more frequent than a victim sampled from that
+ * region. One-off reads of cold users therefore cannot flush hot users
+ * out of the cache.
+ *
+ * <p>Hits take no locks: the entry map is read optimistically and the
+ * sketch is updated without synchronization, at the price of an
+ * occasional lost increment. Loads, admissions and invalidations are
+ * serialized by one lock, which is never held while loading or
+ * serializing a user.
+ *
+ * <p>Entries carry the version they were serialized from and are only
+ * replaced by newer versions. Callers must {@link #invalidate(long)} a
+ * user after every write to it. A load that races with a write is
+ * detected through per-stripe invalidation counters and its entry is
+ * dropped, so a stale body is never served after the write completed.
+ */
+public class SerializedUserCacheRepository {
+
+    static final int EVICTION_SAMPLES = 8;
+    private static final int INVALIDATION_STRIPES = 1024;
+    private static final int IN_WINDOW = -1;
+    private static final int REMOVED = -2;
+
+    private final Function<UserDto, byte[]> serializer;
+    private final int maximumSize;
+    private final int windowSize;
+    private final InMemoryUserRepository.LongMap<Entry> entries = new InMemoryUserRepository.LongMap<>();
+    private final FrequencySketch sketch;
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // Guarded by evictionLock
+    private final ArrayDeque<Entry> window = new ArrayDeque<>();
+    private final Entry[] main;
+    private int mainSize;
+    private volatile long weight;
+
+    /**
+     * Create an empty cache.
+     *
+     * @param serializer the function serializing a user to its response body
+     * @param maximumSize the maximum number of cached users, 0 to disable caching
+     */
+    public SerializedUserCacheRepository(Function<UserDto, byte[]> serializer, int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+        }
+        this.serializer = serializer;
+        this.maximumSize = maximumSize;
+        this.windowSize = maximumSize == 0 ? 0 : Math.max(1, maximumSize / 100);
+        this.main = new Entry[maximumSize - windowSize];
+        this.sketch = maximumSize == 0 ? null : new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Get the serialized user with the given ID, loading and serializing it
+     * on a miss.
+     *
+     * @param id the user ID
+     * @param loader the function reading the user from the store
+     * @return the serialized user, or null if the loader found no user
+     */
+    public SerializedUserDto get(long id, LongFunction<UserDto> loader) {
+        if (maximumSize == 0) {
+            misses.increment();
+            return serialize(id, loader);
+        }
+        sketch.increment(id);
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            hits.increment();
+            return entry.user;
+        }
+        misses.increment();
+
+        int stripe = stripe(id);
+        long stamp = invalidations.get(stripe);
+        SerializedUserDto user = serialize(id, loader);
+        if (user != null) {
+            admit(user);
+            if (invalidations.get(stripe) != stamp) {
+                // A write may have landed between the load and the admission
+                remove(id);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Drop the cached user with the given ID. Must be called after every
+     * write to the user.
+     *
+     * @param id the ID of the user that was written
+     */
+    public void invalidate(long id) {
+        invalidations.incrementAndGet(stripe(id));
+        if (entries.containsKey(id)) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Count the lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Count the lookups that had to load and serialize the user.
+     *
+     * @return the number of misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Count the users dropped to make room for others.
+     *
+     * @return the number of evictions
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Count the cached users.
+     *
+     * @return the number of cached users
+     */
+    public long size() {
+        return entries.size();
+    }
+
+    /**
+     * Sum the sizes of the cached response bodies.
+     *
+     * @return the number of cached bytes
+     */
+    public long weight() {
+        return weight;
+    }
+
+    private SerializedUserDto serialize(long id, LongFunction<UserDto> loader) {
+        UserDto user = loader.apply(id);
+        return user == null ? null : new SerializedUserDto(id, user.getVersion(), serializer.apply(user));
+    }
+
+    private void admit(SerializedUserDto user) {
+        evictionLock.lock();
+        try {
+            Entry existing = entries.get(user.getId());
+            if (existing != null) {
+                if (existing.user.getVersion() < user.getVersion()) {
+                    weight += user.getJson().length - existing.user.getJson().length;
+                    existing.user = user;
+                }
+                return;
+            }
+            Entry entry = new Entry(user);
+            entries.put(user.getId(), entry);
+            window.addLast(entry);
+            weight += user.getJson().length;
+            while (window.size() > windowSize) {
+                Entry candidate = window.pollFirst();
+                if (candidate.slot == IN_WINDOW) {
+                    promote(candidate);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Move a user leaving the window into the main region, if there is
+     * room or it is more frequent than a sampled victim, and evict the
+     * loser.
+     */
+    private void promote(Entry candidate) {
+        if (mainSize < main.length) {
+            link(candidate);
+            return;
+        }
+        Entry victim = sampleVictim();
+        if (victim != null && sketch.frequency(candidate.user.getId()) > sketch.frequency(victim.user.getId())) {
+            evict(victim);
+            link(candidate);
+        } else {
+            evict(candidate);
+        }
+    }
+
+    /**
+     * Pick the least frequent of a few random users of the main region.
+     */
+    private Entry sampleVictim() {
+        if (mainSize == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Entry victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLES; i++) {
+            Entry sample = main[random.nextInt(mainSize)];
+            int frequency = sketch.frequency(sample.user.getId());
+            if (frequency < victimFrequency) {
+                victim = sample;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private void remove(long id) {
+        evictionLock.lock();
+        try {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                unlink(entry);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evict(Entry entry) {
+        entries.remove(entry.user.getId());
+        unlink(entry);
+        evictions.increment();
+    }
+
+    private void link(Entry entry) {
+        entry.slot = mainSize;
+        main[mainSize++] = entry;
+    }
+
+    /**
+     * Take an entry out of its region. Main region slots are kept dense by
+     * moving the last entry into the hole; window entries are left in the
+     * queue and skipped when they reach its head.
+     */
+    private void unlink(Entry entry) {
+        if (entry.slot >= 0) {
+            Entry last = main[--mainSize];
+            main[entry.slot] = last;
+            last.slot = entry.slot;
+            main[mainSize] = null;
+        }
+        entry.slot = REMOVED;
+        weight -= entry.user.getJson().length;
+    }
+
+    private static int stripe(long id) {
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 54) & (INVALIDATION_STRIPES - 1);
+    }
+
+    /**
+     * A cached user and its position in the cache regions.
+     */
+    private static final class Entry {
+
+        volatile SerializedUserDto user;
+        // Guarded by evictionLock: a main region slot, IN_WINDOW or REMOVED
+        int slot = IN_WINDOW;
+
+        Entry(SerializedUserDto user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * Count-min sketch of access frequencies with four 4-bit counters per
+     * key, packed sixteen to a long.
+     *
+     * <p>Counters saturate at 15. Once the number of increments reaches ten
+     * times the cache size, every counter is halved, so the sketch reflects
+     * recent popularity. Increments race benignly: a lost update only
+     * undercounts one access.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int MAX_TABLE_SIZE = 1 << 26;
+
+        private final long[] table;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(int maximumSize) {
+            int size = Math.clamp(maximumSize, 64, MAX_TABLE_SIZE);
+            this.table = new long[Integer.highestOneBit(size - 1) << 1];
+            this.sampleSize = (int) Math.min(10L * maximumSize, Integer.MAX_VALUE);
+        }
+
+        int frequency(long key) {
+            long hash = spread(key);
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long probe = probe(hash, i);
+                frequency = Math.min(frequency, (int) (table[index(probe)] >>> offset(probe)) & 15);
+            }
+            return frequency;
+        }
+
+        void increment(long key) {
+            long hash = spread(key);
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long probe = probe(hash, i);
+                int index = index(probe);
+                int offset = offset(probe);
+                if (((table[index] >>> offset) & 15) < 15) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && additions.incrementAndGet() >= sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            int count = additions.get();
+            if (count < sampleSize || !additions.compareAndSet(count, count / 2)) {
+                return;
+            }
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+        }
+
+        private int index(long probe) {
+            return (int) probe & (table.length - 1);
+        }
+
+        private static int offset(long probe) {
+            return (int) (probe >>> 60) << 2;
+        }
+
+        private static long probe(long hash, int i) {
+            long probe = (hash + SEEDS[i]) * SEEDS[i];
+            return probe + (probe >>> 32);
+        }
+
+        private static long spread(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 32);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * {@link ReadOnlyUserRepository} over a memory-mapped snapshot file.
+ *
+ * <p>The snapshot holds the users as checksummed records in the WAL record
+ * format, followed by an ID index of {@code (id, record offset)} pairs
+ * sorted by ID and an open-addressing email table of
+ * {@code (email hash, record offset)} pairs. Opening a snapshot only maps
+ * the file and reads its header, so it is ready in constant time regardless
+ * of its size; records are decoded when they are read and the page cache
+ * holds the data instead of the heap.
+ *
+ * <p>Layout, all integers big-endian: int magic, int version, long first
+ * WAL segment to replay, long user count, long ID index offset, long email
+ * table offset, long email table capacity, then the sections. Only
+ * version 3 snapshots, whose user records carry the user version, are
+ * read.
+ */
+public class SnapshotUserRepository implements ReadOnlyUserRepository {
+
+    private static final int MAGIC = 0x55534E50;
+    private static final int VERSION = 3;
+    private static final int HEADER_LENGTH = 2 * Integer.BYTES + 5 * Long.BYTES;
+    private static final int ENTRY_LENGTH = 2 * Long.BYTES;
+    private static final int SOURCE_PAGE_SIZE = 10_000;
+    private static final int IO_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    // Offsets inside a record: int length, int CRC32C, byte type, long id,
+    // long version, int age, strings
+    private static final int PAYLOAD_OFFSET = 2 * Integer.BYTES;
+    private static final int TYPE_OFFSET = PAYLOAD_OFFSET;
+    private static final int ID_OFFSET = TYPE_OFFSET + Byte.BYTES;
+    private static final int VERSION_OFFSET = ID_OFFSET + Long.BYTES;
+    private static final int AGE_OFFSET = VERSION_OFFSET + Long.BYTES;
+    private static final int EMAIL_COLUMN = 2;
+
+    private final Arena arena;
+    private final MemorySegment file;
+    private final long walSegment;
+    private final long count;
+    private final long idIndexOffset;
+    private final long emailTableOffset;
+    private final long emailTableMask;
+
+    private SnapshotUserRepository(Arena arena, MemorySegment file, Path path) throws IOException {
+        this.arena = arena;
+        this.file = file;
+        if (file.byteSize() < HEADER_LENGTH || file.get(INT, 0) != MAGIC
+                || file.get(INT, Integer.BYTES) != VERSION) {
+            throw new IOException("Invalid snapshot header in " + path);
+        }
+        this.walSegment = file.get(LONG, 8);
+        this.count = file.get(LONG, 16);
+        this.idIndexOffset = file.get(LONG, 24);
+        this.emailTableOffset = file.get(LONG, 32);
+        long emailTableCapacity = file.get(LONG, 40);
+        this.emailTableMask = emailTableCapacity - 1;
+        if (Long.bitCount(emailTableCapacity) != 1
+                || idIndexOffset + count * ENTRY_LENGTH != emailTableOffset
+                || emailTableOffset + emailTableCapacity * ENTRY_LENGTH != file.byteSize()) {
+            throw new IOException("Inconsistent snapshot layout in " + path);
+        }
+    }
+
+    /**
+     * Map a snapshot file.
+     *
+     * @param path the snapshot file
+     * @return the snapshot repository, which must be closed to unmap the file
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static SnapshotUserRepository open(Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SnapshotUserRepository(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena), path);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write a snapshot of all users of a repository.
+     *
+     * <p>The records are streamed page by page, so the source may change
+     * while it is written. The indexes are then built in place through a
+     * writable mapping, and the file is fsynced and atomically moved to its
+     * target. The directory is fsynced as well before this returns, so the
+     * snapshot survives a crash once the WAL segments it covers are deleted.
+     *
+     * @param target the snapshot file
+     * @param walSegment the first WAL segment to replay over the snapshot
+     * @param source the repository to copy
+     * @return the number of users written
+     * @throws IOException if the file cannot be written
+     */
+    static long write(Path target, long walSegment, UserRepository source) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+            buffer.position(HEADER_LENGTH);
+            long afterId = 0;
+            List<UserDto> page;
+            do {
+                page = source.findPage(afterId, SOURCE_PAGE_SIZE);
+                for (UserDto user : page) {
+                    byte[][] strings = DurableUserRepository.encodeStrings(user);
+                    int recordLength = DurableUserRepository.putRecordLength(strings);
+                    if (buffer.remaining() < recordLength) {
+                        DurableUserRepository.writeFully(channel, buffer);
+                        buffer = DurableUserRepository.ensureCapacity(buffer, recordLength);
+                    }
+                    DurableUserRepository.writePut(buffer, user.getId(), user.getVersion(), user.getAge(), strings);
+                    afterId = user.getId();
+                    count++;
+                }
+            } while (page.size() == SOURCE_PAGE_SIZE);
+            DurableUserRepository.writeFully(channel, buffer);
+            buildIndexes(channel, walSegment, count);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        DurableUserRepository.syncDirectory(target.toAbsolutePath().getParent());
+        return count;
+    }
+
+    private static void buildIndexes(FileChannel channel, long walSegment, long count) throws IOException {
+        long recordsEnd = channel.size();
+        long idIndexOffset = (recordsEnd + Long.BYTES - 1) & -Long.BYTES;
+        long emailTableCapacity = Math.max(16, Long.highestOneBit(Math.max(1, count * 3 / 2)) << 1);
+        long emailTableOffset = idIndexOffset + count * ENTRY_LENGTH;
+        long emailTableMask = emailTableCapacity - 1;
+        long length = emailTableOffset + emailTableCapacity * ENTRY_LENGTH;
+
+        try (Arena arena = Arena.ofConfined()) {
+            // Mapping past the end grows the file with zeros, so every email
+            // table entry starts out empty (record offset 0)
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, length, arena);
+            long position = HEADER_LENGTH;
+            for (long index = 0; index < count; index++) {
+                long entry = idIndexOffset + index * ENTRY_LENGTH;
+                mapped.set(LONG, entry, mapped.get(LONG, position + ID_OFFSET));
+                mapped.set(LONG, entry + Long.BYTES, position);
+
+                long hash = hash(UserRepository.normalizeEmail(readString(mapped, stringOffset(mapped, position, EMAIL_COLUMN))));
+                long slot = mix(hash) & emailTableMask;
+                while (mapped.get(LONG, emailTableOffset + slot * ENTRY_LENGTH + Long.BYTES) != 0) {
+                    slot = (slot + 1) & emailTableMask;
+                }
+                mapped.set(LONG, emailTableOffset + slot * ENTRY_LENGTH, hash);
+                mapped.set(LONG, emailTableOffset + slot * ENTRY_LENGTH + Long.BYTES, position);
+
+                position += PAYLOAD_OFFSET + mapped.get(INT, position);
+            }
+            mapped.set(INT, 0, MAGIC);
+            mapped.set(INT, Integer.BYTES, VERSION);
+            mapped.set(LONG, 8, walSegment);
+            mapped.set(LONG, 16, count);
+            mapped.set(LONG, 24, idIndexOffset);
+            mapped.set(LONG, 32, emailTableOffset);
+            mapped.set(LONG, 40, emailTableCapacity);
+            mapped.force();
+        }
+    }
+
+    @Override
+    public UserDto findById(long id) {
+        long index = indexAfter(id - 1);
+        return index < count && idAt(index) == id ? userAt(index) : null;
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        long index = indexAfter(id - 1);
+        return index < count && idAt(index) == id;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Unmap the file. The repository must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    /**
+     * @return the first WAL segment to replay over this snapshot
+     */
+    long walSegment() {
+        return walSegment;
+    }
+
+    @Override
+    public long indexAfter(long afterId) {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (idAt(mid) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public long idAt(long index) {
+        return file.get(LONG, idIndexOffset + index * ENTRY_LENGTH);
+    }
+
+    @Override
+    public UserDto userAt(long index) {
+        return decode(file.get(LONG, idIndexOffset + index * ENTRY_LENGTH + Long.BYTES));
+    }
+
+    @Override
+    public long emailOwner(String emailKey) {
+        long hash = hash(emailKey);
+        for (long slot = mix(hash) & emailTableMask; ; slot = (slot + 1) & emailTableMask) {
+            long entry = emailTableOffset + slot * ENTRY_LENGTH;
+            long position = file.get(LONG, entry + Long.BYTES);
+            if (position == 0) {
+                return -1;
+            }
+            if (file.get(LONG, entry) == hash
+                    && UserRepository.normalizeEmail(readString(file, stringOffset(file, position, EMAIL_COLUMN)))
+                            .equals(emailKey)) {
+                return file.get(LONG, position + ID_OFFSET);
+            }
+        }
+    }
+
+    private UserDto decode(long position) {
+        int payloadLength = file.get(INT, position);
+        // Buffers over a closeable shared arena cannot be checksummed in place.
+        byte[] payload = new byte[payloadLength];
+        MemorySegment.copy(file, ValueLayout.JAVA_BYTE, position + PAYLOAD_OFFSET, payload, 0, payloadLength);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        if ((int) crc.getValue() != file.get(INT, position + Integer.BYTES)) {
+            throw new IllegalStateException("Corrupt snapshot record at offset " + position);
+        }
+        int age = file.get(INT, position + AGE_OFFSET);
+        long offset = position + AGE_OFFSET + Integer.BYTES;
+        String[] strings = new String[4];
+        for (int column = 0; column < strings.length; column++) {
+            strings[column] = readString(file, offset);
+            offset += Integer.BYTES + Math.max(0, file.get(INT, offset));
+        }
+        UserDto user = new UserDto(file.get(LONG, position + ID_OFFSET), strings[0], strings[1], strings[2],
+                age == DurableUserRepository.NULL_AGE ? null : age, strings[3]);
+        user.setVersion(file.get(LONG, position + VERSION_OFFSET));
+        return user;
+    }
+
+    private static long stringOffset(MemorySegment segment, long position, int column) {
+        long offset = position + AGE_OFFSET + Integer.BYTES;
+        for (int i = 0; i < column; i++) {
+            offset += Integer.BYTES + Math.max(0, segment.get(INT, offset));
+        }
+        return offset;
+    }
+
+    private static String readString(MemorySegment segment, long offset) {
+        int length = segment.get(INT, offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset + Integer.BYTES, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a string.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,244 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded in-memory log of the changes to users, for consumers that tail
+ * changes instead of polling the whole store.
+ *
+ * <p>Every change gets the next sequence number. Changes are kept in a
+ * ring of a fixed capacity, so only the most recent ones are retained; a
+ * consumer asking for changes that were overwritten is told to resync.
+ * The first sequence number is chosen by the caller, and the log starts
+ * empty, so a cursor from before a restart is either out of range or
+ * behind the retained changes.
+ *
+ * <p>The log takes no locks. An append claims its sequence number from a
+ * counter first and only then loads the state of the changed user, so
+ * appends never wait for each other's loads. Since every write appends
+ * after it is applied, the change with the highest sequence number for a
+ * user is claimed after the last write to it and carries its current
+ * state: a consumer applying changes in order ends up with the current
+ * state even when two writes to a user race, although it may briefly see
+ * an older state after a newer one.
+ *
+ * <p>Appends store their change in its ring slot in any order, and the
+ * published end of the log only moves past a sequence number once its
+ * slot holds it, so readers never see a gap. Any append finding the slots
+ * after the published end filled moves the end past them. Reads read the
+ * published end, then the ring, and detect changes overwritten meanwhile
+ * by their sequence numbers.
+ *
+ * <p>Consumers waiting for changes register one-shot listeners, which are
+ * run by the appending thread that moves the published end past them. Listeners
+ * hold up the writer, so they must return quickly and typically hand the
+ * read off to another thread.
+ */
+public class UserChangeLogRepository {
+
+    private final AtomicReferenceArray<UserChangeDto> ring;
+    private final int mask;
+    private final long firstSequence;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    // The last sequence number handed out to an append
+    private final AtomicLong claimedSequence;
+    // The last sequence number up to which every change is stored in the ring
+    private final AtomicLong lastSequence;
+
+    /**
+     * Create an empty log.
+     *
+     * @param capacity the number of changes to retain, rounded up to a power of two
+     * @param firstSequence the sequence number before the first change
+     */
+    public UserChangeLogRepository(int capacity, long firstSequence) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.firstSequence = firstSequence;
+        this.claimedSequence = new AtomicLong(firstSequence);
+        this.lastSequence = new AtomicLong(firstSequence);
+    }
+
+    /**
+     * Record a change to a user and run the waiting listeners.
+     *
+     * <p>The user is loaded after the sequence number of the change is
+     * taken. If it no longer exists, the change is recorded as a deletion.
+     * If loading it fails, the change is recorded without a user, so later
+     * changes are still published, and the failure is rethrown.
+     *
+     * @param type the kind of change
+     * @param id the ID of the changed user
+     * @param loader the function loading the current state of a user, or
+     *        returning null if it does not exist
+     * @return the sequence number of the change
+     */
+    public long append(UserChangeDto.Type type, long id, LongFunction<UserDto> loader) {
+        long sequence = claimedSequence.incrementAndGet();
+        UserChangeDto change = new UserChangeDto(sequence, type, id, null);
+        try {
+            UserDto user = type == UserChangeDto.Type.DELETED ? null : loader.apply(id);
+            change = new UserChangeDto(sequence, user == null ? UserChangeDto.Type.DELETED : type, id, user);
+        } finally {
+            store(change);
+            long last = publish();
+            for (Waiter waiter : waiters) {
+                // Waiters for unpublished changes stay, and only the thread removing a waiter runs it
+                if (waiter.since < last && waiters.remove(waiter)) {
+                    waiter.listener.run();
+                }
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Store a change in its slot, unless an append a full lap of the ring
+     * ahead has already overwritten the slot.
+     */
+    private void store(UserChangeDto change) {
+        int slot = (int) change.getSequence() & mask;
+        UserChangeDto current;
+        do {
+            current = ring.get(slot);
+            if (current != null && current.getSequence() > change.getSequence()) {
+                return;
+            }
+        } while (!ring.compareAndSet(slot, current, change));
+    }
+
+    /**
+     * Move the published end past every stored change following it.
+     *
+     * @return the published end
+     */
+    private long publish() {
+        long last = lastSequence.get();
+        while (true) {
+            UserChangeDto next = ring.get((int) (last + 1) & mask);
+            // Still holding a change from the previous lap, or none; a change
+            // a lap ahead means the next one was overwritten before it was read
+            if (next == null || next.getSequence() <= last) {
+                return last;
+            }
+            if (lastSequence.compareAndSet(last, last + 1)) {
+                last++;
+            } else {
+                last = lastSequence.get();
+            }
+        }
+    }
+
+    /**
+     * Read the changes after the given sequence number.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param limit the maximum number of changes to return
+     * @return the changes, in sequence order, or a resync if some of them
+     *         are no longer retained or the sequence number is not of this log
+     */
+    public UserChangesDto read(long since, int limit) {
+        long last = lastSequence.get();
+        if (since > last || since < firstSequence || last - since > ring.length()) {
+            return UserChangesDto.resync(last);
+        }
+        int count = (int) Math.min(last - since, limit);
+        List<UserChangeDto> changes = new ArrayList<>(count);
+        for (long sequence = since + 1; sequence <= since + count; sequence++) {
+            UserChangeDto change = ring.get((int) sequence & mask);
+            if (change == null || change.getSequence() != sequence) {
+                // Overwritten by appends after the end was read
+                return UserChangesDto.resync(lastSequence.get());
+            }
+            changes.add(change);
+        }
+        return UserChangesDto.of(changes, since + count);
+    }
+
+    /**
+     * Get the sequence number of the last change, or the first sequence
+     * number if there are none yet.
+     *
+     * @return the sequence number
+     */
+    public long lastSequence() {
+        return lastSequence.get();
+    }
+
+    /**
+     * Run a listener once after the given sequence number has been passed.
+     *
+     * <p>If the log is already past it, the listener is not registered and
+     * the caller reads the changes itself.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param listener the listener, run once by the thread appending a change
+     * @return true if the listener was registered, false if there are
+     *         already changes after the sequence number
+     */
+    public boolean awaitAfter(long since, Runnable listener) {
+        if (lastSequence.get() != since) {
+            return false;
+        }
+        Waiter waiter = new Waiter(since, listener);
+        waiters.add(waiter);
+        // An append between the check and the add may have missed the waiter
+        return lastSequence.get() == since || !waiters.remove(waiter);
+    }
+
+    /**
+     * Unregister a listener that has not run yet.
+     *
+     * @param listener the listener
+     */
+    public void cancel(Runnable listener) {
+        waiters.removeIf(waiter -> waiter.listener == listener);
+    }
+
+    /**
+     * Get the number of changes currently retained.
+     *
+     * @return the number of retained changes
+     */
+    public long size() {
+        return Math.min(lastSequence.get() - firstSequence, ring.length());
+    }
+
+    /**
+     * Get the number of listeners waiting for a change.
+     *
+     * @return the number of listeners
+     */
+    public int listenerCount() {
+        return waiters.size();
+    }
+
+    /**
+     * A registered listener. Compared by identity, so removing it claims
+     * it even if the same listener is registered again.
+     */
+    private static final class Waiter {
+
+        final long since;
+        final Runnable listener;
+
+        Waiter(long since, Runnable listener) {
+            this.since = since;
+            this.listener = listener;
+        }
+    }
+}
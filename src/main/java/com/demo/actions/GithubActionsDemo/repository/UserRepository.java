@@ -0,0 +1,191 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Storage SPI for users.
+ *
+ * <p>Implementations own ID allocation and enforce email uniqueness on the
+ * normalized email address (see {@link #normalizeEmail(String)}). All
+ * operations must be safe to call concurrently. Listing operations return
+ * users ordered by ID so callers can page through them with a keyset cursor.
+ *
+ * <p>Every stored user carries a version, set to 1 on insert and incremented
+ * atomically by every replace, which callers can use for optimistic
+ * concurrency control.
+ *
+ * <p>The backend is selected with the {@code app.users.store} property.
+ */
+public interface UserRepository {
+
+    /**
+     * Expected version that makes {@link #replace(long, UserDto, long)} skip the version check.
+     */
+    long ANY_VERSION = 0L;
+
+    /**
+     * Find a user by ID.
+     *
+     * @param id the user ID
+     * @return the user, or null if no user has the given ID
+     */
+    UserDto findById(long id);
+
+    /**
+     * Check if a user exists.
+     *
+     * @param id the user ID
+     * @return true if a user has the given ID, false otherwise
+     */
+    boolean existsById(long id);
+
+    /**
+     * Store a new user and assign its ID.
+     *
+     * <p>On success the ID and version 1 are also set on the given user.
+     *
+     * @param user the user to store
+     * @return the new user ID, or null if the email is already taken
+     */
+    Long insert(UserDto user);
+
+    /**
+     * Replace the stored user with the given ID, whatever its version.
+     *
+     * <p>On success the ID and the new version are also set on the given user.
+     *
+     * @param id the user ID
+     * @param user the new user data
+     * @return the previously stored user, or null if no user has the given ID
+     * @throws UserAlreadyExistsException if the new email belongs to another user
+     */
+    default UserDto replace(long id, UserDto user) {
+        return replace(id, user, ANY_VERSION);
+    }
+
+    /**
+     * Replace the stored user with the given ID if it still has the expected version.
+     *
+     * <p>The version check and the write are atomic. On success the ID and
+     * the new version are also set on the given user.
+     *
+     * @param id the user ID
+     * @param user the new user data
+     * @param expectedVersion the version the stored user must have, or
+     *        {@link #ANY_VERSION} to replace it unconditionally
+     * @return the previously stored user, or null if no user has the given ID
+     * @throws UserAlreadyExistsException if the new email belongs to another user
+     * @throws UserVersionConflictException if the stored user has another version
+     */
+    UserDto replace(long id, UserDto user, long expectedVersion);
+
+    /**
+     * Delete the user with the given ID.
+     *
+     * @param id the user ID
+     * @return the deleted user, or null if no user has the given ID
+     */
+    UserDto deleteById(long id);
+
+    /**
+     * Find all users.
+     *
+     * @return all users, ordered by ID
+     */
+    List<UserDto> findAll();
+
+    /**
+     * Find a page of users ordered by ID.
+     *
+     * @param afterId the exclusive lower bound for user IDs
+     * @param limit the maximum number of users to return
+     * @return the users on the page, ordered by ID
+     */
+    List<UserDto> findPage(long afterId, int limit);
+
+    /**
+     * Count the stored users.
+     *
+     * @return the number of users
+     */
+    long count();
+
+    /**
+     * Report the number of entries in each in-memory index, for monitoring.
+     *
+     * <p>Backends whose indexes live elsewhere, such as in a database,
+     * report none.
+     *
+     * @return the entry count per index name
+     */
+    default Map<String, Long> indexSizes() {
+        return Map.of();
+    }
+
+    /**
+     * Run a batch of writes made by the calling thread, letting the backend
+     * share the cost of completing them.
+     *
+     * <p>Writes inside the batch may return before they are durable; all of
+     * them are durable once this method returns. Backends without such
+     * costs just run the writes.
+     *
+     * @param writes the writes to run
+     */
+    default void writeBatch(Runnable writes) {
+        writes.run();
+    }
+
+    /**
+     * Tell whether reads may block the calling thread waiting for I/O.
+     *
+     * @return true if reads may wait for I/O, false if they are answered from memory
+     */
+    default boolean readsBlock() {
+        return false;
+    }
+
+    /**
+     * Tell whether writes may block the calling thread waiting for I/O.
+     *
+     * @return true if writes may wait for I/O, false if they are applied in memory
+     */
+    default boolean writesBlock() {
+        return false;
+    }
+
+    /**
+     * Normalize an email address for use as a uniqueness key.
+     *
+     * <p>Uniqueness ignores case and surrounding whitespace, so
+     * {@code John.Doe@Example.com} and {@code john.doe@example.com} belong
+     * to the same user even though mail servers may treat the local parts
+     * as different. Users keep the address as they gave it.
+     *
+     * @param email the email address
+     * @return the trimmed, lower-cased email address
+     */
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check the version of a stored user against the version a caller expects.
+     *
+     * @param id the user ID
+     * @param currentVersion the version of the stored user
+     * @param expectedVersion the expected version, or {@link #ANY_VERSION}
+     * @throws UserVersionConflictException if the versions differ
+     */
+    static void checkVersion(long id, long currentVersion, long expectedVersion) {
+        if (expectedVersion != ANY_VERSION && currentVersion != expectedVersion) {
+            throw new UserVersionConflictException(id, expectedVersion, currentVersion);
+        }
+    }
+}
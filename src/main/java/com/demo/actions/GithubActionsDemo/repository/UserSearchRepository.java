@@ -0,0 +1,463 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserSearchCriteriaDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory secondary indexes answering field searches over the users of
+ * another {@link UserRepository}.
+ *
+ * <p>Users are indexed by first and last name, age and email domain. Each
+ * index is a sorted set of {@code (value, id)} postings, so an age range
+ * is a single range scan and an email domain is an exact range. The
+ * postings of each given criterion are read lazily in ID order, merging the
+ * ID-ordered postings of every value in its range, and the criteria are
+ * intersected by leapfrogging: each one seeks straight to the next ID the
+ * others agree on, skipping the postings in between. Only the users left
+ * after the intersection are read from the store, and reading stops as soon
+ * as the page is full.
+ *
+ * <p>Names are also posted under each of their first
+ * {@value #PREFIX_BUCKET_LENGTH} characters, so a short name prefix is a
+ * single ID-ordered posting list rather than a merge over every name it
+ * starts. A longer prefix merges the names it starts if there are at most
+ * {@value #MAX_PREFIX_VALUES} of them, and otherwise reads the list of its
+ * first {@value #PREFIX_BUCKET_LENGTH} characters, leaving the rest of the
+ * prefix to the check against the stored user.
+ *
+ * <p>The indexes are kept up to date by calling
+ * {@link #reindex(long, UserDto)} with the stored user after every write.
+ * Reindexing is serialized per ID and never replaces an entry with one of
+ * an older version, so concurrent writes to the same user always leave the
+ * indexes matching the stored user. Search results are checked against the
+ * stored users, so a write that has not been reindexed yet never shows up
+ * as a false match.
+ */
+public class UserSearchRepository {
+
+    static final int PREFIX_BUCKET_LENGTH = 3;
+    static final int MAX_PREFIX_VALUES = 64;
+
+    // Seek result of an exhausted cursor; IDs are always smaller
+    private static final long END = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final InMemoryUserRepository.LongMap<Entry> indexed = new InMemoryUserRepository.LongMap<>();
+    private final Index<String> firstNames = new Index<>();
+    private final Index<String> lastNames = new Index<>();
+    private final Index<String> firstNamePrefixes = new Index<>();
+    private final Index<String> lastNamePrefixes = new Index<>();
+    private final Index<Integer> ages = new Index<>();
+    private final Index<String> emailDomains = new Index<>();
+
+    /**
+     * Create empty indexes over the users of the given repository.
+     *
+     * @param userRepository the store the indexed users are read from
+     */
+    public UserSearchRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Bring the index entries of a user in line with the stored user,
+     * removing them if the user no longer exists.
+     *
+     * <p>The user is read by the caller, outside the per-ID lock, so a
+     * concurrent write may already have indexed a newer version; that
+     * entry is kept. A user deleted after it was read is removed again
+     * once indexed, as IDs are never reused.
+     *
+     * @param id the ID of the user that was written
+     * @param user the stored user, or null if it no longer exists
+     */
+    public void reindex(long id, UserDto user) {
+        Entry loaded = user == null ? null : Entry.of(user);
+        indexed.compute(id, previous -> {
+            if (previous != null && loaded != null && previous.version() >= loaded.version()) {
+                return previous;
+            }
+            if (previous == null || loaded == null || !previous.sameValues(loaded)) {
+                if (previous != null) {
+                    unindex(id, previous);
+                }
+                if (loaded != null) {
+                    index(id, loaded);
+                }
+            }
+            return loaded;
+        });
+        if (loaded != null && !userRepository.existsById(id)) {
+            reindex(id, null);
+        }
+    }
+
+    /**
+     * Find the users matching all given criteria, ordered by ID.
+     *
+     * <p>Without any criteria this is a plain page of users.
+     *
+     * @param criteria the search criteria
+     * @param afterId the exclusive lower bound for user IDs
+     * @param limit the maximum number of users to return
+     * @return the matching users, ordered by ID
+     */
+    public List<UserDto> search(UserSearchCriteriaDto criteria, long afterId, int limit) {
+        Query query = Query.of(criteria);
+        List<IdCursor> cursors = new ArrayList<>(4);
+        if (query.firstNamePrefix() != null) {
+            cursors.add(prefix(firstNames, firstNamePrefixes, query.firstNamePrefix()));
+        }
+        if (query.lastNamePrefix() != null) {
+            cursors.add(prefix(lastNames, lastNamePrefixes, query.lastNamePrefix()));
+        }
+        if (query.hasAgeRange()) {
+            cursors.add(ages.cursor(query.minAge(), query.maxAge(), true));
+        }
+        if (query.emailDomain() != null) {
+            cursors.add(emailDomains.cursor(query.emailDomain(), query.emailDomain(), true));
+        }
+        if (cursors.isEmpty()) {
+            return userRepository.findPage(afterId, limit);
+        }
+
+        List<UserDto> result = new ArrayList<>(Math.min(limit, 64));
+        long id = afterId;
+        while (result.size() < limit && id < END - 1) {
+            id = intersect(cursors, id + 1);
+            if (id == END) {
+                break;
+            }
+            UserDto user = userRepository.findById(id);
+            if (user != null && query.matches(Entry.of(user))) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Report the number of postings in each index, for monitoring.
+     *
+     * @return the posting count per index name
+     */
+    public Map<String, Long> indexSizes() {
+        return Map.of(
+                "firstName", firstNames.size(),
+                "lastName", lastNames.size(),
+                "firstNamePrefix", firstNamePrefixes.size(),
+                "lastNamePrefix", lastNamePrefixes.size(),
+                "age", ages.size(),
+                "emailDomain", emailDomains.size());
+    }
+
+    private void index(long id, Entry entry) {
+        firstNames.add(entry.firstName(), id);
+        lastNames.add(entry.lastName(), id);
+        ages.add(entry.age(), id);
+        emailDomains.add(entry.emailDomain(), id);
+        addPrefixes(firstNamePrefixes, entry.firstName(), id);
+        addPrefixes(lastNamePrefixes, entry.lastName(), id);
+    }
+
+    private void unindex(long id, Entry entry) {
+        firstNames.remove(entry.firstName(), id);
+        lastNames.remove(entry.lastName(), id);
+        ages.remove(entry.age(), id);
+        emailDomains.remove(entry.emailDomain(), id);
+        removePrefixes(firstNamePrefixes, entry.firstName(), id);
+        removePrefixes(lastNamePrefixes, entry.lastName(), id);
+    }
+
+    private static void addPrefixes(Index<String> prefixes, String name, long id) {
+        if (name != null) {
+            for (int length = 1; length <= Math.min(name.length(), PREFIX_BUCKET_LENGTH); length++) {
+                prefixes.add(name.substring(0, length), id);
+            }
+        }
+    }
+
+    private static void removePrefixes(Index<String> prefixes, String name, long id) {
+        if (name != null) {
+            for (int length = 1; length <= Math.min(name.length(), PREFIX_BUCKET_LENGTH); length++) {
+                prefixes.remove(name.substring(0, length), id);
+            }
+        }
+    }
+
+    /**
+     * Find the smallest ID of at least {@code target} that every cursor
+     * holds, letting each cursor in turn seek to the candidate of the
+     * previous one until all of them agree.
+     *
+     * @return the common ID, or {@link #END} if there is none
+     */
+    private static long intersect(List<IdCursor> cursors, long target) {
+        long candidate = target;
+        int agreed = 0;
+        for (int i = 0; agreed < cursors.size(); i = (i + 1) % cursors.size()) {
+            long id = cursors.get(i).seek(candidate);
+            if (id == END) {
+                return END;
+            }
+            if (id == candidate) {
+                agreed++;
+            } else {
+                candidate = id;
+                agreed = 1;
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Open a cursor over the IDs of the users whose name starts with the
+     * given prefix. A short prefix is one list of the prefix index. A longer
+     * one merges the names it starts, which sort between the prefix itself
+     * and {@link #prefixEnd(String)}; if there are too many of them, the
+     * list of its leading characters is read instead, which may hold IDs of
+     * names that do not match.
+     */
+    private static IdCursor prefix(Index<String> names, Index<String> prefixes, String prefix) {
+        if (prefix.length() <= PREFIX_BUCKET_LENGTH) {
+            return prefixes.cursor(prefix, prefix, true, 1);
+        }
+        String end = prefixEnd(prefix);
+        IdCursor cursor = end == null
+                ? names.cursor(prefix, null, true, MAX_PREFIX_VALUES)
+                : names.cursor(prefix, end, false, MAX_PREFIX_VALUES);
+        if (cursor == null) {
+            String bucket = prefix.substring(0, PREFIX_BUCKET_LENGTH);
+            cursor = prefixes.cursor(bucket, bucket, true, 1);
+        }
+        return cursor;
+    }
+
+    /**
+     * The smallest string greater than every string with the given prefix,
+     * or null if there is none.
+     */
+    static String prefixEnd(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+
+    static String normalizeName(String name) {
+        return name == null || name.isBlank() ? null : name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    static String domainOf(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = UserRepository.normalizeEmail(email);
+        int at = normalized.lastIndexOf('@');
+        return at < 0 || at == normalized.length() - 1 ? null : normalized.substring(at + 1);
+    }
+
+    /**
+     * The indexed, normalized field values of one version of a user. Null
+     * fields are not indexed.
+     */
+    private record Entry(long version, String firstName, String lastName, Integer age, String emailDomain) {
+
+        static Entry of(UserDto user) {
+            return new Entry(user.getVersion(), normalizeName(user.getFirstName()),
+                    normalizeName(user.getLastName()), user.getAge(), domainOf(user.getEmail()));
+        }
+
+        boolean sameValues(Entry other) {
+            return Objects.equals(firstName, other.firstName) && Objects.equals(lastName, other.lastName)
+                    && Objects.equals(age, other.age) && Objects.equals(emailDomain, other.emailDomain);
+        }
+    }
+
+    /**
+     * Normalized search criteria. Null fields are not constrained.
+     */
+    private record Query(String firstNamePrefix, String lastNamePrefix, Integer minAge, Integer maxAge,
+                         String emailDomain) {
+
+        static Query of(UserSearchCriteriaDto criteria) {
+            String domain = criteria.getEmailDomain();
+            if (domain != null) {
+                domain = domain.strip().toLowerCase(Locale.ROOT);
+                domain = domain.startsWith("@") ? domain.substring(1) : domain;
+            }
+            return new Query(normalizeName(criteria.getFirstNamePrefix()),
+                    normalizeName(criteria.getLastNamePrefix()),
+                    criteria.getMinAge(), criteria.getMaxAge(),
+                    domain == null || domain.isEmpty() ? null : domain);
+        }
+
+        boolean hasAgeRange() {
+            return minAge != null || maxAge != null;
+        }
+
+        boolean matches(Entry entry) {
+            return (firstNamePrefix == null
+                            || entry.firstName() != null && entry.firstName().startsWith(firstNamePrefix))
+                    && (lastNamePrefix == null
+                            || entry.lastName() != null && entry.lastName().startsWith(lastNamePrefix))
+                    && (!hasAgeRange() || entry.age() != null
+                            && (minAge == null || entry.age() >= minAge)
+                            && (maxAge == null || entry.age() <= maxAge))
+                    && (emailDomain == null || emailDomain.equals(entry.emailDomain()));
+        }
+    }
+
+    /**
+     * One posting of an index: a user ID under one indexed value.
+     */
+    private record Posting<K>(K key, long id) {
+    }
+
+    /**
+     * A sorted set of postings, ordered by value and then by ID.
+     *
+     * @param <K> the indexed value type
+     */
+    private static final class Index<K extends Comparable<K>> {
+
+        private final NavigableSet<Posting<K>> postings = new ConcurrentSkipListSet<>(
+                Comparator.<Posting<K>, K>comparing(Posting::key).thenComparingLong(Posting::id));
+        private final LongAdder size = new LongAdder();
+
+        void add(K key, long id) {
+            if (key != null && postings.add(new Posting<>(key, id))) {
+                size.increment();
+            }
+        }
+
+        void remove(K key, long id) {
+            if (key != null && postings.remove(new Posting<>(key, id))) {
+                size.decrement();
+            }
+        }
+
+        long size() {
+            return size.sum();
+        }
+
+        /**
+         * Open a cursor over the IDs of the postings whose value lies
+         * between the given bounds, merging the postings of every value in
+         * the range into ascending ID order. A null bound leaves that side
+         * open; {@code from} is inclusive. Only the distinct values are
+         * visited here; their postings are read as the cursor advances.
+         */
+        IdCursor cursor(K from, K to, boolean toInclusive) {
+            return cursor(from, to, toInclusive, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Like {@link #cursor(Comparable, Comparable, boolean)}, but give up
+         * once the range holds more than {@code maxValues} distinct values.
+         *
+         * @return the cursor, or null if there are too many values
+         */
+        IdCursor cursor(K from, K to, boolean toInclusive, int maxValues) {
+            List<KeyCursor<K>> keys = new ArrayList<>();
+            Posting<K> posting;
+            if (from == null) {
+                Iterator<Posting<K>> iterator = postings.iterator();
+                posting = iterator.hasNext() ? iterator.next() : null;
+            } else {
+                posting = postings.ceiling(new Posting<>(from, Long.MIN_VALUE));
+            }
+            while (posting != null && (to == null || posting.key().compareTo(to) < (toInclusive ? 1 : 0))) {
+                if (keys.size() == maxValues) {
+                    return null;
+                }
+                keys.add(new KeyCursor<>(postings, posting.key()));
+                // Jump past the remaining postings of this value
+                posting = postings.higher(new Posting<>(posting.key(), Long.MAX_VALUE));
+            }
+            return keys.size() == 1 ? keys.get(0) : new MergedCursor(keys);
+        }
+    }
+
+    /**
+     * Ascending user IDs read lazily from the postings of an index.
+     */
+    private interface IdCursor {
+
+        /**
+         * Move to the smallest ID of at least {@code target}. Targets must
+         * not decrease between calls.
+         *
+         * @param target the smallest ID to return
+         * @return the ID, or {@code END} once there is none
+         */
+        long seek(long target);
+    }
+
+    /**
+     * The IDs of the postings of one indexed value, which are already in
+     * ID order. Seeking is a single skip-list search.
+     */
+    private static final class KeyCursor<K> implements IdCursor {
+
+        private final NavigableSet<Posting<K>> postings;
+        private final K key;
+        private long id = Long.MIN_VALUE;
+
+        KeyCursor(NavigableSet<Posting<K>> postings, K key) {
+            this.postings = postings;
+            this.key = key;
+        }
+
+        @Override
+        public long seek(long target) {
+            if (id < target) {
+                Posting<K> posting = postings.ceiling(new Posting<>(key, target));
+                id = posting != null && posting.key().equals(key) ? posting.id() : END;
+            }
+            return id;
+        }
+    }
+
+    /**
+     * The IDs of several values merged into ascending order, keeping the
+     * value cursors in a heap by their current ID.
+     */
+    private static final class MergedCursor implements IdCursor {
+
+        private final PriorityQueue<KeyCursor<?>> cursors;
+
+        MergedCursor(List<? extends KeyCursor<?>> keys) {
+            cursors = new PriorityQueue<>(Math.max(1, keys.size()), Comparator.comparingLong(cursor -> cursor.id));
+            cursors.addAll(keys);
+        }
+
+        @Override
+        public long seek(long target) {
+            KeyCursor<?> first;
+            while ((first = cursors.peek()) != null && first.id < target) {
+                cursors.poll();
+                if (first.seek(target) != END) {
+                    cursors.add(first);
+                }
+            }
+            return first == null ? END : first.id;
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory trigram inverted index for typo-tolerant full-text search over
+ * the names and email addresses of the users of another
+ * {@link UserRepository}.
+ *
+ * <p>Every user is indexed as the trigrams of the words of its first name,
+ * last name and email address, each word padded with a boundary marker so
+ * short words and word starts and ends produce their own trigrams. A query
+ * is split into trigrams the same way and users are ranked by BM25 over the
+ * trigrams they share with it, so a misspelled name still ranks the users
+ * sharing most of its trigrams first. Trigrams are folded onto a 38-symbol
+ * alphabet (boundary, {@code a-z}, {@code 0-9} and everything else), so the
+ * posting lists live in a fixed array indexed by trigram code.
+ *
+ * <p>Posting lists are append-only: every reindexed user gets a new
+ * generation, and postings of older generations are skipped while scoring
+ * and dropped once they make up half of their list.
+ *
+ * <p>A query scores its trigrams rarest first and stops before a trigram
+ * would take it past {@value #MAX_SCANNED_POSTINGS} scanned postings, which
+ * keeps its latency flat as the number of users grows instead of growing
+ * with the posting lists of common trigrams. The rare trigrams select the
+ * candidates; the best {@value #RERANKED_CANDIDATES} of them are then
+ * reranked by BM25 over all query trigrams from their indexed documents.
+ *
+ * <p>As with {@link UserSearchRepository}, {@link #reindex(long, UserDto)}
+ * must be called with the stored user after every write; a document is
+ * never replaced by one of an older version, so concurrent writes to the
+ * same user converge on the stored user.
+ */
+public class UserTextSearchRepository {
+
+    static final int MAX_SCANNED_POSTINGS = 30_000;
+    static final int RERANKED_CANDIDATES = 256;
+
+    private static final int ALPHABET = 38;
+    private static final int BOUNDARY = 0;
+    private static final int OTHER = ALPHABET - 1;
+    private static final int GRAMS = ALPHABET * ALPHABET * ALPHABET;
+    private static final int MAX_QUERY_GRAMS = 64;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final UserRepository userRepository;
+    private final InMemoryUserRepository.LongMap<Document> documents = new InMemoryUserRepository.LongMap<>();
+    private final AtomicReferenceArray<PostingList> postings = new AtomicReferenceArray<>(GRAMS);
+    private final AtomicInteger generations = new AtomicInteger();
+    private final LongAdder documentCount = new LongAdder();
+    private final LongAdder totalLength = new LongAdder();
+    private final LongAdder postingCount = new LongAdder();
+
+    /**
+     * Create an empty index over the users of the given repository.
+     *
+     * @param userRepository the store the indexed users are read from
+     */
+    public UserTextSearchRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Bring the index entries of a user in line with the stored user,
+     * removing them if the user no longer exists.
+     *
+     * <p>The user is read by the caller, outside the per-ID lock; a newer
+     * document indexed meanwhile is kept, and a user deleted after it was
+     * read is removed again once indexed.
+     *
+     * @param id the ID of the user that was written
+     * @param user the stored user, or null if it no longer exists
+     */
+    public void reindex(long id, UserDto user) {
+        Document loaded = user == null ? null : Document.of(user, generations.incrementAndGet());
+        // Swap the document first and append its postings afterwards, so a
+        // posting is never visible before the document that makes it live
+        Document[] previous = new Document[1];
+        Document next = documents.compute(id, current -> {
+            previous[0] = current;
+            if (current == null || loaded == null) {
+                return loaded;
+            }
+            if (current.version >= loaded.version) {
+                return current;
+            }
+            return Arrays.equals(current.grams, loaded.grams) && Arrays.equals(current.frequencies, loaded.frequencies)
+                    ? current.withVersion(loaded.version) : loaded;
+        });
+        Document replaced = previous[0];
+        if (next != replaced && (next == null || replaced == null || next.generation != replaced.generation)) {
+            swapPostings(id, next, replaced);
+        }
+        if (loaded != null && !userRepository.existsById(id)) {
+            reindex(id, null);
+        }
+    }
+
+    private void swapPostings(long id, Document next, Document replaced) {
+        if (next != null) {
+            for (int i = 0; i < next.grams.length; i++) {
+                postingList(next.grams[i]).append(id, next.generation, next.frequencies[i], next.length);
+            }
+            postingCount.add(next.grams.length);
+            documentCount.increment();
+            totalLength.add(next.length);
+        }
+        if (replaced != null) {
+            for (int gram : replaced.grams) {
+                postingList(gram).retire(this);
+            }
+            documentCount.decrement();
+            totalLength.add(-replaced.length);
+        }
+    }
+
+    /**
+     * Find the users best matching a free-text query, most relevant first.
+     *
+     * @param query the words to look for in names and email addresses
+     * @param limit the maximum number of users to return
+     * @return the matching users, ordered by descending relevance
+     */
+    public List<UserDto> search(String query, int limit) {
+        long total = documentCount.sum();
+        if (total <= 0 || limit <= 0) {
+            return List.of();
+        }
+        int[] queryGrams = distinct(grams(query, MAX_QUERY_GRAMS));
+        if (queryGrams.length == 0) {
+            return List.of();
+        }
+
+        // Score the rarest trigrams first, within the scan budget
+        int[] grams = new int[queryGrams.length];
+        PostingList[] lists = new PostingList[queryGrams.length];
+        int count = 0;
+        for (int gram : queryGrams) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.liveSize() > 0) {
+                grams[count] = gram;
+                lists[count++] = list;
+            }
+        }
+        if (count == 0) {
+            return List.of();
+        }
+        float averageLength = Math.max(1f, (float) totalLength.sum() / total);
+        float[] idfs = new float[count];
+        int[] frequencies = new int[count];
+        for (int i = 0; i < count; i++) {
+            frequencies[i] = lists[i].liveSize();
+            idfs[i] = (float) Math.log(1 + (total - frequencies[i] + 0.5) / (frequencies[i] + 0.5));
+        }
+        int[] order = rarestFirst(frequencies, count);
+        int scored = 1;
+        long scanned = lists[order[0]].size;
+        while (scored < count && scanned + lists[order[scored]].size <= MAX_SCANNED_POSTINGS) {
+            scanned += lists[order[scored++]].size;
+        }
+        ScoreTable scores = new ScoreTable((int) Math.min(scanned, Integer.MAX_VALUE / 4));
+        for (int i = 0; i < scored; i++) {
+            lists[order[i]].score(scores, idfs[order[i]], averageLength);
+        }
+
+        // Rerank the best candidates by their score over all query trigrams,
+        // skipping candidates that were superseded meanwhile
+        long[] candidates = scores.top(Math.max(limit * 4, RERANKED_CANDIDATES));
+        ScoreTable reranked = new ScoreTable(candidates.length / 2);
+        for (int i = 0; i < candidates.length; i += 2) {
+            Document document = documents.get(candidates[i]);
+            if (document != null && document.generation == (int) candidates[i + 1]) {
+                reranked.add(candidates[i], document.generation,
+                        document.score(grams, idfs, count, averageLength));
+            }
+        }
+        long[] ranked = reranked.top(limit);
+        List<UserDto> result = new ArrayList<>(ranked.length / 2);
+        for (int i = 0; i < ranked.length; i += 2) {
+            UserDto user = userRepository.findById(ranked[i]);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Report the number of indexed users and postings, for monitoring.
+     *
+     * @return the entry count per index name
+     */
+    public Map<String, Long> indexSizes() {
+        return Map.of("text", postingCount.sum());
+    }
+
+    private PostingList postingList(int gram) {
+        PostingList list = postings.get(gram);
+        if (list == null) {
+            postings.compareAndSet(gram, null, new PostingList());
+            list = postings.get(gram);
+        }
+        return list;
+    }
+
+    private static int[] rarestFirst(int[] frequencies, int count) {
+        long[] keyed = new long[count];
+        for (int i = 0; i < count; i++) {
+            keyed[i] = (long) frequencies[i] << 32 | i;
+        }
+        Arrays.sort(keyed);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keyed[i];
+        }
+        return order;
+    }
+
+    private static float termScore(int frequency, int length, float averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    /**
+     * Split text into padded words and return the trigram codes of all
+     * words, at most {@code maxGrams} of them.
+     */
+    static int[] grams(String text, int maxGrams) {
+        int[] grams = new int[Math.min(maxGrams, text.length() * 2 + 2)];
+        int count = 0;
+        int first = BOUNDARY;
+        int second = BOUNDARY;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length() && count < grams.length; i++) {
+            int symbol = i < text.length() ? symbol(text.charAt(i)) : BOUNDARY;
+            if (symbol == BOUNDARY) {
+                if (inWord) {
+                    grams[count++] = (first * ALPHABET + second) * ALPHABET + BOUNDARY;
+                }
+                inWord = false;
+                first = BOUNDARY;
+                second = BOUNDARY;
+                continue;
+            }
+            if (inWord) {
+                grams[count++] = (first * ALPHABET + second) * ALPHABET + symbol;
+            }
+            inWord = true;
+            first = second;
+            second = symbol;
+        }
+        return Arrays.copyOf(grams, count);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1 + c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return 1 + c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + c - '0';
+        }
+        return Character.isLetter(c) ? OTHER : BOUNDARY;
+    }
+
+    private static int[] distinct(int[] grams) {
+        int[] sorted = grams.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * The indexed trigrams of one generation of a user, with their
+     * frequencies and the total trigram count as the document length, and
+     * the latest version of the user they match.
+     */
+    private static final class Document {
+
+        final long version;
+        final int generation;
+        final int[] grams;
+        final short[] frequencies;
+        final int length;
+
+        private Document(long version, int generation, int[] grams, short[] frequencies, int length) {
+            this.version = version;
+            this.generation = generation;
+            this.grams = grams;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+
+        static Document of(UserDto user, int generation) {
+            String text = String.join(" ", nonNull(user.getFirstName()), nonNull(user.getLastName()),
+                    nonNull(user.getEmail())).toLowerCase(Locale.ROOT);
+            int[] all = grams(text, Integer.MAX_VALUE);
+            Arrays.sort(all);
+            int[] grams = new int[all.length];
+            short[] frequencies = new short[all.length];
+            int count = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i > 0 && all[i] == all[i - 1]) {
+                    frequencies[count - 1]++;
+                } else {
+                    grams[count] = all[i];
+                    frequencies[count++] = 1;
+                }
+            }
+            return new Document(user.getVersion(), generation, Arrays.copyOf(grams, count),
+                    Arrays.copyOf(frequencies, count), all.length);
+        }
+
+        /**
+         * This generation for a newer version of the user with the same
+         * trigrams.
+         */
+        Document withVersion(long version) {
+            return new Document(version, generation, grams, frequencies, length);
+        }
+
+        /**
+         * Score this document by BM25 over the given query trigrams.
+         */
+        float score(int[] queryGrams, float[] idfs, int count, float averageLength) {
+            float score = 0f;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(grams, queryGrams[i]);
+                if (position >= 0) {
+                    score += idfs[i] * termScore(frequencies[position], length, averageLength);
+                }
+            }
+            return score;
+        }
+
+        private static String nonNull(String value) {
+            return value == null ? "" : value;
+        }
+    }
+
+    /**
+     * Append-only postings of one trigram: parallel arrays of user ID,
+     * generation, and the trigram frequency and document length packed into
+     * one int.
+     */
+    private static final class PostingList {
+
+        private final StampedLock lock = new StampedLock();
+        private final AtomicBoolean compacting = new AtomicBoolean();
+        private final AtomicInteger retired = new AtomicInteger();
+        private long[] ids = new long[4];
+        private int[] generations = new int[4];
+        private int[] norms = new int[4];
+        private volatile int size;
+
+        void append(long id, int generation, short frequency, int length) {
+            long stamp = lock.writeLock();
+            try {
+                if (size == ids.length) {
+                    int capacity = size * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    generations = Arrays.copyOf(generations, capacity);
+                    norms = Arrays.copyOf(norms, capacity);
+                }
+                ids[size] = id;
+                generations[size] = generation;
+                norms[size] = Math.min(frequency, 0xFFFF) << 16 | Math.min(length, 0xFFFF);
+                size++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int liveSize() {
+            return Math.max(0, size - retired.get());
+        }
+
+        /**
+         * Count one posting as superseded, compacting the list once half of
+         * it is.
+         */
+        void retire(UserTextSearchRepository index) {
+            if (retired.incrementAndGet() * 2 > size && compacting.compareAndSet(false, true)) {
+                try {
+                    compact(index);
+                } finally {
+                    compacting.set(false);
+                }
+            }
+        }
+
+        void score(ScoreTable scores, float idf, float averageLength) {
+            long stamp = lock.readLock();
+            try {
+                for (int i = 0; i < size; i++) {
+                    int frequency = norms[i] >>> 16;
+                    int length = norms[i] & 0xFFFF;
+                    scores.add(ids[i], generations[i], idf * termScore(frequency, length, averageLength));
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Drop the postings of superseded generations. Liveness is checked
+         * outside the list lock, since the document map must not be read
+         * while a list is locked; only postings that existed before the
+         * check are dropped, so concurrent appends are kept.
+         */
+        private void compact(UserTextSearchRepository index) {
+            long[] snapshotIds;
+            int[] snapshotGenerations;
+            int checked;
+            long stamp = lock.readLock();
+            try {
+                snapshotIds = ids;
+                snapshotGenerations = generations;
+                checked = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            boolean[] dead = new boolean[checked];
+            int removed = 0;
+            for (int i = 0; i < checked; i++) {
+                Document document = index.documents.get(snapshotIds[i]);
+                if (document == null || document.generation != snapshotGenerations[i]) {
+                    dead[i] = true;
+                    removed++;
+                }
+            }
+            if (removed == 0) {
+                return;
+            }
+
+            stamp = lock.writeLock();
+            try {
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    if (i < checked && dead[i]) {
+                        continue;
+                    }
+                    ids[kept] = ids[i];
+                    generations[kept] = generations[i];
+                    norms[kept] = norms[i];
+                    kept++;
+                }
+                size = kept;
+                retired.addAndGet(-removed);
+                index.postingCount.add(-removed);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Open-addressing score accumulator keyed by user ID. Only the newest
+     * generation seen for an ID is scored, so the postings of a superseded
+     * generation never add to the score of the current one.
+     *
+     * <p>Each slot is two adjacent longs, the ID and the generation packed
+     * with the score bits, so adding a score touches a single cache line.
+     */
+    static final class ScoreTable {
+
+        private long[] slots;
+        private int size;
+
+        ScoreTable(int capacity) {
+            slots = new long[Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) * 2];
+        }
+
+        void add(long id, int generation, float score) {
+            if ((size + 1) * 4 > slots.length) {
+                grow();
+            }
+            int mask = slots.length / 2 - 1;
+            for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+                long slotId = slots[i * 2];
+                if (slotId == 0L) {
+                    slots[i * 2] = id;
+                    slots[i * 2 + 1] = pack(generation, score);
+                    size++;
+                    return;
+                }
+                if (slotId == id) {
+                    long entry = slots[i * 2 + 1];
+                    int slotGeneration = (int) (entry >>> 32);
+                    if (generation == slotGeneration) {
+                        slots[i * 2 + 1] = pack(generation, score(entry) + score);
+                    } else if (generation > slotGeneration) {
+                        slots[i * 2 + 1] = pack(generation, score);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Return the best scored entries, best first, as alternating ID and
+         * generation values.
+         */
+        long[] top(int k) {
+            // Min-heap of slot indexes, worst entry at the root
+            int[] heap = new int[Math.min(k, size)];
+            int count = 0;
+            for (int slot = 0; slot < slots.length / 2; slot++) {
+                if (slots[slot * 2] == 0L) {
+                    continue;
+                }
+                if (count < heap.length) {
+                    heap[count] = slot;
+                    siftUp(heap, count++);
+                } else if (heap.length > 0 && better(slot, heap[0])) {
+                    heap[0] = slot;
+                    siftDown(heap, count);
+                }
+            }
+            long[] result = new long[count * 2];
+            for (int i = count - 1; i >= 0; i--) {
+                int slot = heap[0];
+                result[i * 2] = slots[slot * 2];
+                result[i * 2 + 1] = slots[slot * 2 + 1] >>> 32;
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return result;
+        }
+
+        private boolean better(int slot, int other) {
+            float score = score(slots[slot * 2 + 1]);
+            float otherScore = score(slots[other * 2 + 1]);
+            return score > otherScore || score == otherScore && slots[slot * 2] < slots[other * 2];
+        }
+
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!better(heap[parent], heap[i])) {
+                    return;
+                }
+                int swap = heap[parent];
+                heap[parent] = heap[i];
+                heap[i] = swap;
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int count) {
+            int i = 0;
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < count && better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < count && better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == i) {
+                    return;
+                }
+                int swap = heap[worst];
+                heap[worst] = heap[i];
+                heap[i] = swap;
+                i = worst;
+            }
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            int mask = slots.length / 2 - 1;
+            for (int j = 0; j < old.length; j += 2) {
+                if (old[j] != 0L) {
+                    int i = slot(old[j], mask);
+                    while (slots[i * 2] != 0L) {
+                        i = (i + 1) & mask;
+                    }
+                    slots[i * 2] = old[j];
+                    slots[i * 2 + 1] = old[j + 1];
+                }
+            }
+        }
+
+        private static int slot(long id, int mask) {
+            return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        }
+
+        private static long pack(int generation, float score) {
+            return (long) generation << 32 | Float.floatToRawIntBits(score) & 0xFFFFFFFFL;
+        }
+
+        private static float score(long entry) {
+            return Float.intBitsToFloat((int) entry);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.actions.GithubActionsDemo.service;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserNotFoundException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking facade over {@link UserService} for the reactive web stack.
+ *
+ * <p>Every operation is deferred until subscription. Reads and writes are
+ * scheduled separately, as the service reports whether each may block:
+ * calls that answer from memory run on the subscribing thread, and calls
+ * that may wait, for I/O of the store (JDBC, and the durable store when it
+ * waits for fsync) or for the writer thread in pipelined write mode, are
+ * moved to the bounded elastic scheduler so they never block an event loop.
+ *
+ * <p>Listings are streamed page by page with a keyset cursor. A page is
+ * only read when the subscriber has requested more users, so a slow client
+ * holds at most one page in memory.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserService {
+
+    /** Number of users read from the store per page while streaming. */
+    public static final int STREAM_PAGE_SIZE = 1000;
+
+    private final UserService userService;
+    private final Scheduler readScheduler;
+    private final Scheduler writeScheduler;
+
+    /**
+     * Create a facade choosing the schedulers from whether the service's
+     * reads and writes may block.
+     *
+     * @param userService the blocking user service
+     */
+    @Autowired
+    public ReactiveUserService(UserService userService) {
+        this(userService, scheduler(userService.readsMayBlock()), scheduler(userService.writesMayBlock()));
+    }
+
+    /**
+     * Create a facade running service calls on the given scheduler.
+     *
+     * @param userService the blocking user service
+     * @param scheduler the scheduler for service calls
+     */
+    public ReactiveUserService(UserService userService, Scheduler scheduler) {
+        this(userService, scheduler, scheduler);
+    }
+
+    /**
+     * Create a facade running reads and writes on the given schedulers.
+     *
+     * @param userService the blocking user service
+     * @param readScheduler the scheduler for reads
+     * @param writeScheduler the scheduler for writes
+     */
+    public ReactiveUserService(UserService userService, Scheduler readScheduler, Scheduler writeScheduler) {
+        this.userService = userService;
+        this.readScheduler = readScheduler;
+        this.writeScheduler = writeScheduler;
+    }
+
+    /**
+     * Stream all users ordered by ID.
+     *
+     * @return the users, read one page at a time as demand arrives
+     */
+    public Flux<UserDto> getAllUsers() {
+        // The state is the cursor for the next page, or -1 after the last page
+        return Flux.<List<UserDto>, Long>generate(() -> 0L, (cursor, sink) -> {
+                    List<UserDto> page = cursor < 0 ? List.of() : userService.getUsersPage(cursor, STREAM_PAGE_SIZE);
+                    if (page.isEmpty()) {
+                        sink.complete();
+                        return cursor;
+                    }
+                    sink.next(page);
+                    return page.size() < STREAM_PAGE_SIZE ? -1L : page.get(page.size() - 1).getId();
+                })
+                .subscribeOn(readScheduler)
+                .concatMapIterable(page -> page, 1);
+    }
+
+    /**
+     * Get a page of users ordered by ID.
+     *
+     * @param afterId the exclusive lower bound for user IDs
+     * @param limit the maximum number of users to return
+     * @return the users on the page
+     */
+    public Mono<List<UserDto>> getUsersPage(long afterId, int limit) {
+        return read(() -> userService.getUsersPage(afterId, limit));
+    }
+
+    /**
+     * Find a user by ID.
+     *
+     * @param id the user ID
+     * @return the user, or empty if no user has the ID
+     */
+    public Mono<UserDto> findUserById(long id) {
+        return read(() -> userService.findUserById(id).orElse(null));
+    }
+
+    /**
+     * Create a new user.
+     *
+     * @param userDto the user to create
+     * @return the created user
+     */
+    public Mono<UserDto> createUser(UserDto userDto) {
+        return write(() -> userService.createUser(userDto));
+    }
+
+    /**
+     * Update an existing user if it is still at the expected version.
+     *
+     * @param id the user ID
+     * @param userDto the updated user data
+     * @param expectedVersion the version the user must have, or
+     *        {@link UserService#ANY_VERSION}
+     * @return the updated user, or an error with {@link UserNotFoundException}
+     *         or {@link UserVersionConflictException}
+     */
+    public Mono<UserDto> updateUser(long id, UserDto userDto, long expectedVersion) {
+        return write(() -> userService.updateUser(id, userDto, expectedVersion));
+    }
+
+    /**
+     * Delete a user.
+     *
+     * @param id the user ID
+     * @return completion, or an error with {@link UserNotFoundException}
+     */
+    public Mono<Void> deleteUser(long id) {
+        return write(() -> {
+            userService.deleteUser(id);
+            return null;
+        });
+    }
+
+    private <T> Mono<T> read(Callable<T> serviceCall) {
+        return Mono.fromCallable(serviceCall).subscribeOn(readScheduler);
+    }
+
+    private <T> Mono<T> write(Callable<T> serviceCall) {
+        return Mono.fromCallable(serviceCall).subscribeOn(writeScheduler);
+    }
+
+    private static Scheduler scheduler(boolean mayBlock) {
+        return mayBlock ? Schedulers.boundedElastic() : Schedulers.immediate();
+    }
+}
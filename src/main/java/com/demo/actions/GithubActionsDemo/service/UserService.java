@@ -1,39 +1,438 @@
 package com.demo.actions.GithubActionsDemo.service;
 
+import com.demo.actions.GithubActionsDemo.concurrency.UserWritePipeline;
+import com.demo.actions.GithubActionsDemo.dto.BatchItemResultDto;
+import com.demo.actions.GithubActionsDemo.dto.SerializedUserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
 import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserSearchCriteriaDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
 import com.demo.actions.GithubActionsDemo.exception.UserNotFoundException;
+import com.demo.actions.GithubActionsDemo.exception.UserSearchDisabledException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.SerializedUserCacheRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserChangeLogRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserSearchRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserTextSearchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service class for managing user operations.
  * 
  * <p>This service provides business logic for user management operations.
- * It uses an in-memory storage for demonstration purposes.
+ * Storage is delegated to a {@link UserRepository}, which owns ID
+ * allocation and email uniqueness; the in-memory repository is used by
+ * default.
+ *
+ * <p>Searches by name prefix, age range and email domain are answered from
+ * secondary indexes in a {@link UserSearchRepository}, and typo-tolerant
+ * free-text searches from the trigram index of a
+ * {@link UserTextSearchRepository}. Both indexes are only kept when the
+ * {@code app.users.search.enabled} property is set, since they
+ * are built by reading every user on startup and hold heap objects per
+ * user, which would undo the startup time of the durable store and the
+ * heap savings of the off-heap one; searches then fail with
+ * {@link UserSearchDisabledException}. Enabled indexes are built from the
+ * store on startup and updated after every successful write.
+ *
+ * <p>Single users are also served pre-serialized from a bounded
+ * {@link SerializedUserCacheRepository}, which is invalidated after every
+ * successful write, so reads of hot users skip JSON serialization.
+ *
+ * <p>Every successful write is recorded in a bounded
+ * {@link UserChangeLogRepository}, which consumers tail instead of polling
+ * the store. The sequence number of the last change doubles as a
+ * store-wide modification count: it changes whenever any user changes, so
+ * it versions listings and other views over many users without reading
+ * them.
+ *
+ * <p>Writes are made in one of two modes, chosen with the
+ * {@code app.users.writes} property. In the default {@code direct} mode,
+ * every write runs on the calling thread. In {@code pipelined} mode, writes
+ * are handed to a {@link UserWritePipeline} and applied in
+ * batches by a single writer thread, so writes never contend with each
+ * other; the indexes, the response cache and the change log are updated
+ * once each batch is committed, so a durable store waits for fsync once
+ * per batch. Reads never go through the pipeline. The {@code Async}
+ * variants of the writes return without waiting for the write in
+ * pipelined mode; their futures are completed by the writer thread.
+ *
+ * <p>The service holds no locks of its own and never uses
+ * {@code synchronized}, so requests running on virtual threads do not pin
+ * their carrier threads here. Per-user operations log at debug level only;
+ * warnings and info logs are reserved for batches, so logging does not
+ * serialize request threads under load.
+ *
+ * <p>Every operation is timed into the {@code users.operations} timer,
+ * tagged by operation and published with a percentile histogram. Missing
+ * users and email conflicts are counted, and the store and index sizes are
+ * exposed as gauges, as are the size, hits, misses and evictions of the
+ * response cache and the size of the change log. In pipelined mode, the
+ * pending writes are exposed as a gauge, and the batches and the writes
+ * they applied are counted.
  */
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    private static final String OPERATION_TIMER = "users.operations";
+    private static final String RESPONSE_CACHE_METERS = "users.response.cache";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    static final int DEFAULT_RESPONSE_CACHE_SIZE = 100_000;
+    static final int DEFAULT_CHANGE_LOG_RETENTION = 65_536;
+    static final int WRITE_PIPELINE_CAPACITY = 4096;
+    static final int WRITE_PIPELINE_MAX_BATCH_SIZE = 256;
+
+    /** Expected version that matches every version of a user, for unconditional updates. */
+    public static final long ANY_VERSION = UserRepository.ANY_VERSION;
     
-    private final Map<Long, UserDto> users = new ConcurrentHashMap<>();
-    private final AtomicLong idCounter = new AtomicLong(1);
+    private final UserRepository userRepository;
+    // Both null unless searches are enabled
+    private final UserSearchRepository searchRepository;
+    private final UserTextSearchRepository textSearchRepository;
+    private final SerializedUserCacheRepository responseCache;
+    private final UserChangeLogRepository changeLog;
+    // Null in direct write mode
+    private final UserWritePipeline writePipeline;
+    private final Timer listTimer;
+    private final Timer pageTimer;
+    private final Timer getTimer;
+    private final Timer getSerializedTimer;
+    private final Timer createTimer;
+    private final Timer batchCreateTimer;
+    private final Timer updateTimer;
+    private final Timer batchUpdateTimer;
+    private final Timer deleteTimer;
+    private final Timer batchDeleteTimer;
+    private final Timer countTimer;
+    private final Timer existsTimer;
+    private final Timer searchTimer;
+    private final Timer textSearchTimer;
+    private final Timer changesTimer;
+    private final Counter notFoundCounter;
+    private final Counter emailConflictCounter;
+    private final Counter changeResyncCounter;
+
+    /**
+     * Create a service backed by a fresh in-memory repository.
+     */
+    public UserService() {
+        this(new InMemoryUserRepository());
+    }
+
+    /**
+     * Create an uninstrumented service backed by the given repository.
+     *
+     * @param userRepository the user storage
+     */
+    public UserService(UserRepository userRepository) {
+        // A composite registry without registries hands out no-op meters
+        this(userRepository, new CompositeMeterRegistry());
+    }
+
+    /**
+     * Create a service backed by the given repository, recording its
+     * metrics into the given registry.
+     *
+     * @param userRepository the user storage
+     * @param meterRegistry the registry for timers, counters and gauges
+     */
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this(userRepository, meterRegistry, new ObjectMapper(), DEFAULT_RESPONSE_CACHE_SIZE);
+    }
+
+    /**
+     * Create a service backed by the given repository, recording its
+     * metrics into the given registry and caching single users serialized
+     * by the given mapper.
+     *
+     * @param userRepository the user storage
+     * @param meterRegistry the registry for timers, counters and gauges
+     * @param objectMapper the mapper serializing cached users, which must be
+     *        the one that writes API responses
+     * @param responseCacheSize the maximum number of cached serialized users,
+     *        0 to serialize every response
+     */
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                       int responseCacheSize) {
+        this(userRepository, meterRegistry, objectMapper, responseCacheSize, DEFAULT_CHANGE_LOG_RETENTION);
+    }
+
+    /**
+     * Create a service backed by the given repository, recording its
+     * metrics into the given registry, caching single users serialized
+     * by the given mapper and retaining the given number of changes.
+     *
+     * @param userRepository the user storage
+     * @param meterRegistry the registry for timers, counters and gauges
+     * @param objectMapper the mapper serializing cached users, which must be
+     *        the one that writes API responses
+     * @param responseCacheSize the maximum number of cached serialized users,
+     *        0 to serialize every response
+     * @param changeLogRetention the number of changes consumers can fall
+     *        behind before they must resync
+     */
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                       int responseCacheSize, int changeLogRetention) {
+        this(userRepository, meterRegistry, objectMapper, responseCacheSize, changeLogRetention, "direct");
+    }
+
+    /**
+     * Create a service backed by the given repository, recording its
+     * metrics into the given registry, caching single users serialized
+     * by the given mapper, retaining the given number of changes and
+     * making writes in the given mode.
+     *
+     * @param userRepository the user storage
+     * @param meterRegistry the registry for timers, counters and gauges
+     * @param objectMapper the mapper serializing cached users, which must be
+     *        the one that writes API responses
+     * @param responseCacheSize the maximum number of cached serialized users,
+     *        0 to serialize every response
+     * @param changeLogRetention the number of changes consumers can fall
+     *        behind before they must resync
+     * @param writeMode {@code direct} or {@code pipelined}
+     */
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                       int responseCacheSize, int changeLogRetention, String writeMode) {
+        this(userRepository, meterRegistry, objectMapper, responseCacheSize, changeLogRetention, writeMode, false);
+    }
+
+    /**
+     * Create a service backed by the given repository, recording its
+     * metrics into the given registry, caching single users serialized
+     * by the given mapper, retaining the given number of changes, making
+     * writes in the given mode and keeping search indexes if enabled.
+     *
+     * @param userRepository the user storage
+     * @param meterRegistry the registry for timers, counters and gauges
+     * @param objectMapper the mapper serializing cached users, which must be
+     *        the one that writes API responses
+     * @param responseCacheSize the maximum number of cached serialized users,
+     *        0 to serialize every response
+     * @param changeLogRetention the number of changes consumers can fall
+     *        behind before they must resync
+     * @param writeMode {@code direct} or {@code pipelined}
+     * @param searchEnabled whether to build and maintain the search indexes
+     */
+    @Autowired
+    public UserService(UserRepository userRepository, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                       @Value("${app.users.response-cache.maximum-size:" + DEFAULT_RESPONSE_CACHE_SIZE + "}")
+                       int responseCacheSize,
+                       @Value("${app.users.changes.retention:" + DEFAULT_CHANGE_LOG_RETENTION + "}")
+                       int changeLogRetention,
+                       @Value("${app.users.writes:direct}") String writeMode,
+                       @Value("${app.users.search.enabled:false}") boolean searchEnabled) {
+        this.userRepository = userRepository;
+        this.searchRepository = searchEnabled ? new UserSearchRepository(userRepository) : null;
+        this.textSearchRepository = searchEnabled ? new UserTextSearchRepository(userRepository) : null;
+        this.responseCache = new SerializedUserCacheRepository(serializer(objectMapper), responseCacheSize);
+        // Starts at the startup time in microseconds, which is past every cursor of an earlier
+        // run as long as that run made fewer writes than microseconds passed
+        this.changeLog = new UserChangeLogRepository(changeLogRetention,
+                ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+        this.writePipeline = switch (writeMode) {
+            case "direct" -> null;
+            case "pipelined" -> new UserWritePipeline(userRepository, WRITE_PIPELINE_CAPACITY,
+                    WRITE_PIPELINE_MAX_BATCH_SIZE);
+            default -> throw new IllegalArgumentException(
+                    "Unknown write mode '" + writeMode + "', expected direct or pipelined");
+        };
+        this.listTimer = operationTimer(meterRegistry, "list");
+        this.pageTimer = operationTimer(meterRegistry, "page");
+        this.getTimer = operationTimer(meterRegistry, "get");
+        this.getSerializedTimer = operationTimer(meterRegistry, "get-serialized");
+        this.createTimer = operationTimer(meterRegistry, "create");
+        this.batchCreateTimer = operationTimer(meterRegistry, "batch-create");
+        this.updateTimer = operationTimer(meterRegistry, "update");
+        this.batchUpdateTimer = operationTimer(meterRegistry, "batch-update");
+        this.deleteTimer = operationTimer(meterRegistry, "delete");
+        this.batchDeleteTimer = operationTimer(meterRegistry, "batch-delete");
+        this.countTimer = operationTimer(meterRegistry, "count");
+        this.existsTimer = operationTimer(meterRegistry, "exists");
+        this.searchTimer = operationTimer(meterRegistry, "search");
+        this.textSearchTimer = operationTimer(meterRegistry, "text-search");
+        this.changesTimer = operationTimer(meterRegistry, "changes");
+        this.notFoundCounter = Counter.builder("users.not.found")
+                .description("Lookups, updates and deletes of users that do not exist")
+                .register(meterRegistry);
+        this.emailConflictCounter = Counter.builder("users.email.conflicts")
+                .description("Creates and updates rejected because the email is taken")
+                .register(meterRegistry);
+        this.changeResyncCounter = Counter.builder("users.changes.resyncs")
+                .description("Reads of changes that were no longer retained")
+                .register(meterRegistry);
+        Gauge.builder("users.store.size", userRepository, UserRepository::count)
+                .description("Number of stored users")
+                .register(meterRegistry);
+        registerIndexGauges(meterRegistry, userRepository, UserRepository::indexSizes);
+        if (searchRepository != null) {
+            registerIndexGauges(meterRegistry, searchRepository, UserSearchRepository::indexSizes);
+            registerIndexGauges(meterRegistry, textSearchRepository, UserTextSearchRepository::indexSizes);
+        }
+        registerResponseCacheMeters(meterRegistry, responseCache);
+        Gauge.builder("users.changes.retained", changeLog, UserChangeLogRepository::size)
+                .description("Number of changes retained in the change log")
+                .register(meterRegistry);
+        Gauge.builder("users.changes.waiting", changeLog, UserChangeLogRepository::listenerCount)
+                .description("Number of consumers waiting for a change")
+                .register(meterRegistry);
+        if (writePipeline != null) {
+            registerWritePipelineMeters(meterRegistry, writePipeline);
+        }
+        if (searchRepository != null) {
+            reindexAll();
+        }
+    }
+
+    /**
+     * Apply the pending writes and stop the writer thread of the pipelined
+     * write mode. Writes made afterwards are rejected.
+     */
+    @PreDestroy
+    public void close() {
+        if (writePipeline != null) {
+            writePipeline.close();
+        }
+    }
+
+    /**
+     * Tell whether reads may block the calling thread, because the store
+     * waits for I/O to answer them.
+     *
+     * @return true if reads may block
+     */
+    public boolean readsMayBlock() {
+        return userRepository.readsBlock();
+    }
+
+    /**
+     * Tell whether writes may block the calling thread, because they wait
+     * for the writer thread in pipelined mode or the store waits for I/O.
+     *
+     * @return true if writes may block
+     */
+    public boolean writesMayBlock() {
+        return writePipeline != null || userRepository.writesBlock();
+    }
 
     /**
      * Get all users.
      *
-     * @return list of all users
+     * @return list of all users, ordered by ID
      */
     public List<UserDto> getAllUsers() {
-        logger.debug("Retrieving all users");
-        return new ArrayList<>(users.values());
+        long start = System.nanoTime();
+        try {
+            logger.debug("Retrieving all users");
+            return userRepository.findAll();
+        } finally {
+            listTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Get a page of users ordered by ID, starting after the given cursor.
+     *
+     * <p>The cursor is the ID of the last user of the previous page, so pages
+     * stay stable while users are created or deleted concurrently.
+     *
+     * @param afterId the exclusive lower bound for user IDs, 0 for the first page
+     * @param limit the maximum number of users to return
+     * @return the users on the page, ordered by ID
+     */
+    public List<UserDto> getUsersPage(long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            logger.debug("Retrieving {} users after ID: {}", limit, afterId);
+            return userRepository.findPage(afterId, limit);
+        } finally {
+            pageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Search users by name prefix, age range and email domain.
+     *
+     * <p>All given criteria must match. Results are ordered by ID and paged
+     * with the same keyset cursor as {@link #getUsersPage(long, int)}.
+     *
+     * @param criteria the search criteria
+     * @param afterId the exclusive lower bound for user IDs, 0 for the first page
+     * @param limit the maximum number of users to return
+     * @return the matching users on the page, ordered by ID
+     * @throws UserSearchDisabledException if searches are not enabled
+     */
+    public List<UserDto> searchUsers(UserSearchCriteriaDto criteria, long afterId, int limit) {
+        if (searchRepository == null) {
+            throw new UserSearchDisabledException("User search is disabled");
+        }
+        long start = System.nanoTime();
+        try {
+            logger.debug("Searching {} users after ID {} matching {}", limit, afterId, criteria);
+            return searchRepository.search(criteria, afterId, limit);
+        } finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Search users by free text, tolerating typos.
+     *
+     * <p>The words of the query are matched against the first names, last
+     * names and email addresses of the users by their trigrams, and the
+     * users are ranked by BM25.
+     *
+     * @param query the words to look for
+     * @param limit the maximum number of users to return
+     * @return the best matching users, most relevant first
+     * @throws UserSearchDisabledException if searches are not enabled
+     */
+    public List<UserDto> searchUsersByText(String query, int limit) {
+        if (textSearchRepository == null) {
+            throw new UserSearchDisabledException("User search is disabled");
+        }
+        long start = System.nanoTime();
+        try {
+            logger.debug("Searching {} users matching text: {}", limit, query);
+            return textSearchRepository.search(query, limit);
+        } finally {
+            textSearchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -44,15 +443,82 @@ public class UserService {
      * @throws UserNotFoundException if user is not found
      */
     public UserDto getUserById(Long id) {
-        logger.debug("Retrieving user with ID: {}", id);
-        UserDto user = users.get(id);
+        return getUserById(id.longValue());
+    }
+
+    /**
+     * Get user by ID without boxing the ID.
+     *
+     * @param id the user ID
+     * @return the user
+     * @throws UserNotFoundException if user is not found
+     */
+    public UserDto getUserById(long id) {
+        UserDto user = lookup(id);
         if (user == null) {
-            logger.warn("User not found with ID: {}", id);
-            throw new UserNotFoundException("User not found with ID: " + id);
+            throw UserNotFoundException.forId(id);
         }
         return user;
     }
 
+    /**
+     * Find a user by ID without throwing when it is missing.
+     *
+     * <p>This is the cheap path for callers that answer a miss themselves,
+     * such as the API returning 404: no exception is created and an empty
+     * result does not allocate.
+     *
+     * @param id the user ID
+     * @return the user, or empty if there is no user with this ID
+     */
+    public Optional<UserDto> findUserById(long id) {
+        return Optional.ofNullable(lookup(id));
+    }
+
+    /**
+     * Find a user by ID, serialized to its JSON response body.
+     *
+     * <p>Frequently read users are served from the response cache without
+     * serializing them again. The body is shared and must not be modified.
+     *
+     * @param id the user ID
+     * @return the serialized user, or empty if there is no user with this ID
+     */
+    public Optional<SerializedUserDto> findSerializedUser(long id) {
+        long start = System.nanoTime();
+        try {
+            SerializedUserDto user = responseCache.get(id, userRepository::findById);
+            if (user == null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("User not found with ID: {}", id);
+                }
+                notFoundCounter.increment();
+            }
+            return Optional.ofNullable(user);
+        } finally {
+            getSerializedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private UserDto lookup(long id) {
+        long start = System.nanoTime();
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Retrieving user with ID: {}", id);
+            }
+            UserDto user = userRepository.findById(id);
+            if (user == null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("User not found with ID: {}", id);
+                }
+                notFoundCounter.increment();
+            }
+            return user;
+        } finally {
+            getTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * Create a new user.
      *
@@ -60,26 +526,90 @@ public class UserService {
      * @return the created user
      */
     public UserDto createUser(UserDto userDto) {
+        long start = System.nanoTime();
+        try {
+            return write(() -> insertUser(userDto));
+        } finally {
+            createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Create a new user without waiting for the write in pipelined mode.
+     *
+     * @param userDto the user to create
+     * @return the created user, or a failure with {@link UserAlreadyExistsException}
+     */
+    public CompletableFuture<UserDto> createUserAsync(UserDto userDto) {
+        long start = System.nanoTime();
+        return submit(() -> insertUser(userDto))
+                .whenComplete((user, failure) -> createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private UserDto insertUser(UserDto userDto) {
         logger.debug("Creating new user: {}", userDto.getEmail());
-        
-        // Check if user with same email already exists
-        boolean emailExists = users.values().stream()
-                .anyMatch(user -> user.getEmail().equals(userDto.getEmail()));
-        
-        if (emailExists) {
-            logger.warn("User with email {} already exists", userDto.getEmail());
-            throw new IllegalArgumentException("User with email " + userDto.getEmail() + " already exists");
-        }
-
-        // Generate new ID and create user
-        Long newId = idCounter.getAndIncrement();
-        userDto.setId(newId);
-        users.put(newId, userDto);
-        
-        logger.info("Created user with ID: {}", newId);
+
+        Long newId = userRepository.insert(userDto);
+        if (newId == null) {
+            logger.debug("User with email {} already exists", userDto.getEmail());
+            emailConflictCounter.increment();
+            throw UserAlreadyExistsException.forEmail(userDto.getEmail());
+        }
+        reindex(newId, UserChangeDto.Type.CREATED);
+
+        logger.debug("Created user with ID: {}", newId);
         return userDto;
     }
 
+    /**
+     * Create a batch of users.
+     *
+     * <p>Items are applied in order. An item whose email is already taken,
+     * either in the store or by an earlier item of the same batch, is
+     * reported as a conflict and does not stop the rest of the batch.
+     *
+     * @param userDtos the users to create
+     * @return one result per submitted user, in submission order
+     */
+    public List<BatchItemResultDto> createUsers(List<UserDto> userDtos) {
+        long start = System.nanoTime();
+        try {
+            return write(() -> insertUsers(userDtos));
+        } finally {
+            batchCreateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<BatchItemResultDto> insertUsers(List<UserDto> userDtos) {
+        logger.debug("Creating batch of {} users", userDtos.size());
+
+        List<BatchItemResultDto> results = new ArrayList<>(userDtos.size());
+        Set<String> batchEmails = HashSet.newHashSet(userDtos.size());
+        int created = 0;
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            if (!batchEmails.add(UserRepository.normalizeEmail(userDto.getEmail()))) {
+                emailConflictCounter.increment();
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.CONFLICT, null,
+                        List.of("Duplicate email " + userDto.getEmail() + " within batch")));
+                continue;
+            }
+            Long newId = userRepository.insert(userDto);
+            if (newId == null) {
+                emailConflictCounter.increment();
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.CONFLICT, null,
+                        List.of(UserAlreadyExistsException.forEmail(userDto.getEmail()).getMessage())));
+            } else {
+                reindex(newId, UserChangeDto.Type.CREATED);
+                results.add(BatchItemResultDto.success(i, BatchItemResultDto.Status.CREATED, newId));
+                created++;
+            }
+        }
+
+        logger.info("Created {} of {} users in batch", created, userDtos.size());
+        return results;
+    }
+
     /**
      * Update an existing user.
      *
@@ -89,32 +619,138 @@ public class UserService {
      * @throws UserNotFoundException if user is not found
      */
     public UserDto updateUser(Long id, UserDto userDto) {
-        logger.debug("Updating user with ID: {}", id);
-        
-        if (!users.containsKey(id)) {
-            logger.warn("User not found with ID: {}", id);
-            throw new UserNotFoundException("User not found with ID: " + id);
+        return updateUser(id.longValue(), userDto, ANY_VERSION);
+    }
+
+    /**
+     * Update an existing user if it is still at the expected version.
+     *
+     * @param id the user ID
+     * @param userDto the updated user data
+     * @param expectedVersion the version the user must have, or
+     *        {@link #ANY_VERSION} to update it unconditionally
+     * @return the updated user, carrying its new version
+     * @throws UserNotFoundException if user is not found
+     * @throws UserVersionConflictException if the user has another version
+     */
+    public UserDto updateUser(long id, UserDto userDto, long expectedVersion) {
+        long start = System.nanoTime();
+        try {
+            return write(() -> replaceUser(id, userDto, expectedVersion));
+        } finally {
+            updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Update an existing user if it is still at the expected version,
+     * without waiting for the write in pipelined mode.
+     *
+     * @param id the user ID
+     * @param userDto the updated user data
+     * @param expectedVersion the version the user must have, or
+     *        {@link #ANY_VERSION} to update it unconditionally
+     * @return the updated user, or a failure with {@link UserNotFoundException},
+     *         {@link UserVersionConflictException} or {@link UserAlreadyExistsException}
+     */
+    public CompletableFuture<UserDto> updateUserAsync(long id, UserDto userDto, long expectedVersion) {
+        long start = System.nanoTime();
+        return submit(() -> replaceUser(id, userDto, expectedVersion))
+                .whenComplete((user, failure) -> updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private UserDto replaceUser(long id, UserDto userDto, long expectedVersion) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updating user with ID: {}", id);
         }
 
-        // Check if email is being changed and if it conflicts with existing user
-        UserDto existingUser = users.get(id);
-        if (!existingUser.getEmail().equals(userDto.getEmail())) {
-            boolean emailExists = users.values().stream()
-                    .anyMatch(user -> user.getEmail().equals(userDto.getEmail()) && !user.getId().equals(id));
-            
-            if (emailExists) {
-                logger.warn("User with email {} already exists", userDto.getEmail());
-                throw new IllegalArgumentException("User with email " + userDto.getEmail() + " already exists");
+        UserDto previousUser;
+        try {
+            previousUser = userRepository.replace(id, userDto, expectedVersion);
+        } catch (UserAlreadyExistsException e) {
+            logger.debug("User with email {} already exists", userDto.getEmail());
+            emailConflictCounter.increment();
+            throw e;
+        } catch (UserVersionConflictException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Rejected update of user with ID {}: {}", id, e.getMessage());
             }
+            throw e;
         }
+        if (previousUser == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("User not found with ID: {}", id);
+            }
+            throw notFound(id);
+        }
+        reindex(id, UserChangeDto.Type.UPDATED);
 
-        userDto.setId(id);
-        users.put(id, userDto);
-        
-        logger.info("Updated user with ID: {}", id);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated user with ID: {}", id);
+        }
         return userDto;
     }
 
+    /**
+     * Update a batch of users.
+     *
+     * <p>Each user must carry the ID of the user it replaces. Items are
+     * applied in order and failures are reported per item.
+     *
+     * @param userDtos the updated user data, each with its ID set
+     * @return one result per submitted user, in submission order
+     */
+    public List<BatchItemResultDto> updateUsers(List<UserDto> userDtos) {
+        long start = System.nanoTime();
+        try {
+            return write(() -> replaceUsers(userDtos));
+        } finally {
+            batchUpdateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<BatchItemResultDto> replaceUsers(List<UserDto> userDtos) {
+        logger.debug("Updating batch of {} users", userDtos.size());
+
+        List<BatchItemResultDto> results = new ArrayList<>(userDtos.size());
+        Map<String, Long> batchEmails = HashMap.newHashMap(userDtos.size());
+        int updated = 0;
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            Long id = userDto.getId();
+            if (id == null) {
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.INVALID, null,
+                        List.of("ID is required")));
+                continue;
+            }
+            Long claimedBy = batchEmails.putIfAbsent(UserRepository.normalizeEmail(userDto.getEmail()), id);
+            if (claimedBy != null && !claimedBy.equals(id)) {
+                emailConflictCounter.increment();
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.CONFLICT, id,
+                        List.of("Duplicate email " + userDto.getEmail() + " within batch")));
+                continue;
+            }
+            try {
+                if (userRepository.replace(id, userDto) == null) {
+                    notFoundCounter.increment();
+                    results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.NOT_FOUND, id,
+                            List.of("User not found with ID: " + id)));
+                } else {
+                    reindex(id, UserChangeDto.Type.UPDATED);
+                    results.add(BatchItemResultDto.success(i, BatchItemResultDto.Status.UPDATED, id));
+                    updated++;
+                }
+            } catch (UserAlreadyExistsException e) {
+                emailConflictCounter.increment();
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.CONFLICT, id,
+                        List.of(e.getMessage())));
+            }
+        }
+
+        logger.info("Updated {} of {} users in batch", updated, userDtos.size());
+        return results;
+    }
+
     /**
      * Delete a user.
      *
@@ -122,15 +758,93 @@ public class UserService {
      * @throws UserNotFoundException if user is not found
      */
     public void deleteUser(Long id) {
-        logger.debug("Deleting user with ID: {}", id);
-        
-        if (!users.containsKey(id)) {
-            logger.warn("User not found with ID: {}", id);
-            throw new UserNotFoundException("User not found with ID: " + id);
+        deleteUser(id.longValue());
+    }
+
+    /**
+     * Delete a user without boxing the ID.
+     *
+     * @param id the user ID
+     * @throws UserNotFoundException if user is not found
+     */
+    public void deleteUser(long id) {
+        long start = System.nanoTime();
+        try {
+            write(() -> removeUser(id));
+        } finally {
+            deleteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Delete a user without waiting for the write in pipelined mode.
+     *
+     * @param id the user ID
+     * @return completion, or a failure with {@link UserNotFoundException}
+     */
+    public CompletableFuture<Void> deleteUserAsync(long id) {
+        long start = System.nanoTime();
+        return submit(() -> removeUser(id))
+                .whenComplete((none, failure) -> deleteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Void removeUser(long id) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleting user with ID: {}", id);
+        }
+
+        if (userRepository.deleteById(id) == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("User not found with ID: {}", id);
+            }
+            throw notFound(id);
+        }
+        reindex(id, UserChangeDto.Type.DELETED);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Deleted user with ID: {}", id);
         }
+        return null;
+    }
 
-        users.remove(id);
-        logger.info("Deleted user with ID: {}", id);
+    /**
+     * Delete a batch of users.
+     *
+     * @param ids the IDs of the users to delete
+     * @return one result per submitted ID, in submission order
+     */
+    public List<BatchItemResultDto> deleteUsers(List<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            return write(() -> removeUsers(ids));
+        } finally {
+            batchDeleteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<BatchItemResultDto> removeUsers(List<Long> ids) {
+        logger.debug("Deleting batch of {} users", ids.size());
+
+        List<BatchItemResultDto> results = new ArrayList<>(ids.size());
+        int deleted = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.INVALID, null,
+                        List.of("ID is required")));
+            } else if (userRepository.deleteById(id) == null) {
+                notFoundCounter.increment();
+                results.add(BatchItemResultDto.failure(i, BatchItemResultDto.Status.NOT_FOUND, id,
+                        List.of("User not found with ID: " + id)));
+            } else {
+                reindex(id, UserChangeDto.Type.DELETED);
+                results.add(BatchItemResultDto.success(i, BatchItemResultDto.Status.DELETED, id));
+                deleted++;
+            }
+        }
+
+        logger.info("Deleted {} of {} users in batch", deleted, ids.size());
+        return results;
     }
 
     /**
@@ -139,7 +853,12 @@ public class UserService {
      * @return the number of users
      */
     public long getUserCount() {
-        return users.size();
+        long start = System.nanoTime();
+        try {
+            return userRepository.count();
+        } finally {
+            countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -149,6 +868,236 @@ public class UserService {
      * @return true if user exists, false otherwise
      */
     public boolean userExists(Long id) {
-        return users.containsKey(id);
+        return userExists(id.longValue());
+    }
+
+    /**
+     * Check if user exists without boxing the ID.
+     *
+     * @param id the user ID
+     * @return true if user exists, false otherwise
+     */
+    public boolean userExists(long id) {
+        long start = System.nanoTime();
+        try {
+            return userRepository.existsById(id);
+        } finally {
+            existsTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Get the store-wide modification count.
+     *
+     * <p>The count is the sequence number of the last change, advanced
+     * after every successful write once the write is visible in the store.
+     * A view over many users read after the count reflects every write
+     * counted so far, so the count read before the view can serve as its
+     * version, and as the cursor to tail changes to it from.
+     *
+     * @return the current modification count
+     */
+    public long getModificationCount() {
+        return changeLog.lastSequence();
+    }
+
+    /**
+     * Get the changes to users after the given sequence number.
+     *
+     * <p>Changes are returned in the order they were made. When some of
+     * them are no longer retained, or the sequence number is not from this
+     * run of the service, resync is required instead.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param limit the maximum number of changes to return
+     * @return the changes and the sequence number to continue from
+     */
+    public UserChangesDto getChanges(long since, int limit) {
+        long start = System.nanoTime();
+        try {
+            UserChangesDto changes = changeLog.read(since, limit);
+            if (changes.isResyncRequired()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Changes after {} are no longer retained", since);
+                }
+                changeResyncCounter.increment();
+            }
+            return changes;
+        } finally {
+            changesTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Run a listener once after the next change, unless there already are
+     * changes after the given sequence number.
+     *
+     * <p>The listener is run by the writing thread and must return
+     * quickly. A registered listener that is no longer needed must be
+     * {@linkplain #cancelAwaitChanges(Runnable) cancelled}.
+     *
+     * @param since the sequence number of the last change already seen
+     * @param listener the listener
+     * @return true if the listener was registered, false if the changes
+     *         can be read right away
+     */
+    public boolean awaitChanges(long since, Runnable listener) {
+        return changeLog.awaitAfter(since, listener);
+    }
+
+    /**
+     * Unregister a listener of {@link #awaitChanges(long, Runnable)} that
+     * has not run yet.
+     *
+     * @param listener the listener
+     */
+    public void cancelAwaitChanges(Runnable listener) {
+        changeLog.cancel(listener);
+    }
+
+    /**
+     * Make a write, on the calling thread in direct mode and through the
+     * pipeline otherwise, and return its result or rethrow its failure.
+     */
+    private <T> T write(Supplier<T> write) {
+        // A write made from a write of the pipeline would wait for itself
+        if (writePipeline == null || writePipeline.isWriterThread()) {
+            return write.get();
+        }
+        try {
+            return writePipeline.submit(write).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Make a write as {@link #write(Supplier)} does, without waiting for it
+     * in pipelined mode.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> write) {
+        if (writePipeline == null || writePipeline.isWriterThread()) {
+            try {
+                return CompletableFuture.completedFuture(write.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return writePipeline.submit(write);
+    }
+
+    /**
+     * Update the search indexes, drop the cached response and record the
+     * change after a write to the user with the given ID. Writes of the
+     * pipeline do so once their batch is committed.
+     */
+    private void reindex(long id, UserChangeDto.Type type) {
+        if (writePipeline != null && writePipeline.isWriterThread()) {
+            writePipeline.afterCommit(() -> publish(id, type));
+        } else {
+            publish(id, type);
+        }
+    }
+
+    private void publish(long id, UserChangeDto.Type type) {
+        index(id);
+        changeLog.append(type, id, userRepository::findById);
+    }
+
+    private void index(long id) {
+        responseCache.invalidate(id);
+        if (searchRepository != null) {
+            UserDto user = userRepository.findById(id);
+            searchRepository.reindex(id, user);
+            textSearchRepository.reindex(id, user);
+        }
+    }
+
+    private void reindexAll() {
+        long cursor = 0L;
+        List<UserDto> page;
+        do {
+            page = userRepository.findPage(cursor, REBUILD_PAGE_SIZE);
+            for (UserDto user : page) {
+                searchRepository.reindex(user.getId(), user);
+                textSearchRepository.reindex(user.getId(), user);
+            }
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+    }
+
+    private UserNotFoundException notFound(long id) {
+        notFoundCounter.increment();
+        return UserNotFoundException.forId(id);
+    }
+
+    private static <T> void registerIndexGauges(MeterRegistry meterRegistry, T source,
+                                                Function<T, Map<String, Long>> indexSizes) {
+        for (String index : indexSizes.apply(source).keySet()) {
+            Gauge.builder("users.index.size", source, target -> indexSizes.apply(target).getOrDefault(index, 0L))
+                    .description("Number of entries in an in-memory user index")
+                    .tag("index", index)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Function<UserDto, byte[]> serializer(ObjectMapper objectMapper) {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+        return user -> {
+            try {
+                return writer.writeValueAsBytes(user);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static void registerResponseCacheMeters(MeterRegistry meterRegistry,
+                                                    SerializedUserCacheRepository responseCache) {
+        Gauge.builder(RESPONSE_CACHE_METERS + ".size", responseCache, SerializedUserCacheRepository::size)
+                .description("Number of users in the serialized response cache")
+                .register(meterRegistry);
+        Gauge.builder(RESPONSE_CACHE_METERS + ".weight", responseCache, SerializedUserCacheRepository::weight)
+                .description("Size of the response bodies in the serialized response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder(RESPONSE_CACHE_METERS + ".gets", responseCache, SerializedUserCacheRepository::hitCount)
+                .description("Serialized user lookups by whether the response cache had the user")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder(RESPONSE_CACHE_METERS + ".gets", responseCache, SerializedUserCacheRepository::missCount)
+                .description("Serialized user lookups by whether the response cache had the user")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder(RESPONSE_CACHE_METERS + ".evictions", responseCache,
+                        SerializedUserCacheRepository::evictionCount)
+                .description("Users evicted from the serialized response cache")
+                .register(meterRegistry);
+    }
+
+    private static void registerWritePipelineMeters(MeterRegistry meterRegistry,
+                                                    UserWritePipeline writePipeline) {
+        Gauge.builder("users.writes.pending", writePipeline, UserWritePipeline::pendingCount)
+                .description("Writes submitted to the write pipeline and not applied yet")
+                .register(meterRegistry);
+        FunctionCounter.builder("users.writes.batches", writePipeline, UserWritePipeline::batchCount)
+                .description("Batches applied by the write pipeline")
+                .register(meterRegistry);
+        FunctionCounter.builder("users.writes.applied", writePipeline, UserWritePipeline::writeCount)
+                .description("Writes applied by the write pipeline")
+                .register(meterRegistry);
+    }
+
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder(OPERATION_TIMER)
+                .description("Time spent in user service operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,417 @@
+package com.demo.actions.GithubActionsDemo.service;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.SimpleErrors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Validation of {@link UserDto} against its bean validation constraints.
+ *
+ * <p>In the default {@code compiled} mode, selected with the
+ * {@code app.users.validation} property, the constraints are read from the
+ * {@code UserDto} annotations once and checked by code specialized for
+ * them: the name and phone patterns become character scans and nothing is
+ * allocated for a valid user. Email addresses outside the plain ASCII
+ * subset (quoted local parts, address literals, international domains)
+ * are handed to the bean validator, so both modes always agree. In
+ * {@code reflective} mode every user goes through the bean validator.
+ *
+ * <p>Both modes report the same field paths and messages. Startup fails if
+ * the {@code UserDto} constraints change in a way the compiled checks do
+ * not cover.
+ */
+@Service
+public class UserValidationService implements org.springframework.validation.Validator {
+
+    static final String NAME_REGEXP = "^[a-zA-Z\\s]+$";
+    static final String PHONE_NUMBER_REGEXP = "^\\+?[1-9]\\d{1,14}$";
+    private static final int MAX_EMAIL_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_EMAIL_DOMAIN_LENGTH = 255;
+    private static final int MAX_EMAIL_DOMAIN_LABEL_LENGTH = 63;
+    private static final int VALID = 0;
+    private static final int INVALID = 1;
+    private static final int UNDECIDED = 2;
+
+    private static final boolean[] NAME_CHARS = asciiTable("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ \t\n\u000B\f\r");
+    private static final boolean[] EMAIL_LOCAL_CHARS = asciiTable(
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!#$%&'*+/=?^_`{|}~-");
+    private static final boolean[] EMAIL_DOMAIN_CHARS = asciiTable(
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!#$%&'*+/=?^_`{|}~");
+
+    private final Validator beanValidator;
+    private final SpringValidatorAdapter beanValidatorAdapter;
+    private final boolean compiled;
+
+    private final String firstNameRequired;
+    private final int firstNameMinLength;
+    private final int firstNameMaxLength;
+    private final String firstNameSize;
+    private final String firstNamePattern;
+    private final String lastNameRequired;
+    private final int lastNameMinLength;
+    private final int lastNameMaxLength;
+    private final String lastNameSize;
+    private final String lastNamePattern;
+    private final String emailRequired;
+    private final String emailFormat;
+    private final String ageRequired;
+    private final long minAge;
+    private final String ageMin;
+    private final long maxAge;
+    private final String ageMax;
+    private final String phoneNumberPattern;
+
+    /**
+     * Create a compiled validator falling back to the given bean validator.
+     *
+     * @param beanValidator the bean validator for the cases the compiled checks do not decide
+     */
+    public UserValidationService(Validator beanValidator) {
+        this(beanValidator, "compiled");
+    }
+
+    /**
+     * Create a validator in the given mode.
+     *
+     * @param beanValidator the bean validator
+     * @param mode {@code compiled} or {@code reflective}
+     */
+    @Autowired
+    public UserValidationService(Validator beanValidator, @Value("${app.users.validation:compiled}") String mode) {
+        this.beanValidator = beanValidator;
+        this.beanValidatorAdapter = new SpringValidatorAdapter(beanValidator);
+        this.compiled = switch (mode) {
+            case "compiled" -> true;
+            case "reflective" -> false;
+            default -> throw new IllegalArgumentException(
+                    "Unknown validation mode '" + mode + "', expected compiled or reflective");
+        };
+
+        this.firstNameRequired = message(annotation("firstName", NotBlank.class).message());
+        Size firstNameSizeConstraint = annotation("firstName", Size.class);
+        this.firstNameMinLength = firstNameSizeConstraint.min();
+        this.firstNameMaxLength = firstNameSizeConstraint.max();
+        this.firstNameSize = message(firstNameSizeConstraint.message());
+        this.firstNamePattern = patternMessage("firstName", NAME_REGEXP);
+        this.lastNameRequired = message(annotation("lastName", NotBlank.class).message());
+        Size lastNameSizeConstraint = annotation("lastName", Size.class);
+        this.lastNameMinLength = lastNameSizeConstraint.min();
+        this.lastNameMaxLength = lastNameSizeConstraint.max();
+        this.lastNameSize = message(lastNameSizeConstraint.message());
+        this.lastNamePattern = patternMessage("lastName", NAME_REGEXP);
+        this.emailRequired = message(annotation("email", NotBlank.class).message());
+        Email emailConstraint = annotation("email", Email.class);
+        if (!emailConstraint.regexp().equals(".*") || emailConstraint.flags().length > 0) {
+            throw new IllegalStateException("Compiled validation does not support @Email with a regexp");
+        }
+        this.emailFormat = message(emailConstraint.message());
+        this.ageRequired = message(annotation("age", NotNull.class).message());
+        Min minAgeConstraint = annotation("age", Min.class);
+        this.minAge = minAgeConstraint.value();
+        this.ageMin = message(minAgeConstraint.message());
+        Max maxAgeConstraint = annotation("age", Max.class);
+        this.maxAge = maxAgeConstraint.value();
+        this.ageMax = message(maxAgeConstraint.message());
+        this.phoneNumberPattern = patternMessage("phoneNumber", PHONE_NUMBER_REGEXP);
+    }
+
+    /**
+     * Validate a user.
+     *
+     * @param user the user to validate
+     * @return one {@code "field: message"} entry per violated constraint,
+     *         empty if the user is valid
+     */
+    public List<String> validate(UserDto user) {
+        if (!compiled) {
+            Set<ConstraintViolation<UserDto>> violations = beanValidator.validate(user);
+            List<String> errors = new ArrayList<>(violations.size());
+            for (ConstraintViolation<UserDto> violation : violations) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            return errors;
+        }
+        if (check(user, null)) {
+            return List.of();
+        }
+        Errors errors = new SimpleErrors(user);
+        check(user, errors);
+        List<String> messages = new ArrayList<>(errors.getErrorCount());
+        for (FieldError error : errors.getFieldErrors()) {
+            messages.add(error.getField() + ": " + error.getDefaultMessage());
+        }
+        return messages;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDto.class.equals(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (compiled) {
+            check((UserDto) target, errors);
+        } else {
+            beanValidatorAdapter.validate(target, errors);
+        }
+    }
+
+    /**
+     * Check every constraint of a user, reporting violations to the given
+     * errors unless they are null.
+     *
+     * @return whether the user is valid
+     */
+    private boolean check(UserDto user, Errors errors) {
+        boolean valid = checkName("firstName", user.getFirstName(), firstNameRequired,
+                firstNameMinLength, firstNameMaxLength, firstNameSize, firstNamePattern, errors);
+        valid &= checkName("lastName", user.getLastName(), lastNameRequired,
+                lastNameMinLength, lastNameMaxLength, lastNameSize, lastNamePattern, errors);
+
+        String email = user.getEmail();
+        if (isBlank(email)) {
+            valid = reject(errors, "email", "NotBlank", emailRequired);
+        }
+        if (email != null && !isEmail(email)) {
+            valid = reject(errors, "email", "Email", emailFormat);
+        }
+
+        Integer age = user.getAge();
+        if (age == null) {
+            valid = reject(errors, "age", "NotNull", ageRequired);
+        } else if (age < minAge) {
+            valid = reject(errors, "age", "Min", ageMin);
+        } else if (age > maxAge) {
+            valid = reject(errors, "age", "Max", ageMax);
+        }
+
+        String phoneNumber = user.getPhoneNumber();
+        if (phoneNumber != null && !isPhoneNumber(phoneNumber)) {
+            valid = reject(errors, "phoneNumber", "Pattern", phoneNumberPattern);
+        }
+        return valid;
+    }
+
+    private static boolean checkName(String field, String name, String required, int minLength, int maxLength,
+                                     String size, String pattern, Errors errors) {
+        boolean valid = true;
+        if (isBlank(name)) {
+            valid = reject(errors, field, "NotBlank", required);
+        }
+        if (name != null) {
+            if (name.length() < minLength || name.length() > maxLength) {
+                valid = reject(errors, field, "Size", size);
+            }
+            if (!isName(name)) {
+                valid = reject(errors, field, "Pattern", pattern);
+            }
+        }
+        return valid;
+    }
+
+    private static boolean reject(Errors errors, String field, String code, String message) {
+        if (errors != null) {
+            errors.rejectValue(field, code, message);
+        }
+        return false;
+    }
+
+    /**
+     * Match {@value #NAME_REGEXP}: one or more ASCII letters or whitespace.
+     */
+    static boolean isName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!isAscii(NAME_CHARS, name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Match {@value #PHONE_NUMBER_REGEXP}: an optional plus, then 2 to 15
+     * digits, the first of them not zero.
+     */
+    static boolean isPhoneNumber(String phoneNumber) {
+        int start = phoneNumber.startsWith("+") ? 1 : 0;
+        int digits = phoneNumber.length() - start;
+        if (digits < 2 || digits > 15 || phoneNumber.charAt(start) == '0') {
+            return false;
+        }
+        for (int i = start; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Match NotBlank: null, or nothing but characters up to the space.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isEmail(String email) {
+        return switch (checkEmail(email)) {
+            case VALID -> true;
+            case INVALID -> false;
+            default -> beanValidator.validateValue(UserDto.class, "email", email).stream()
+                    .noneMatch(violation -> violation.getConstraintDescriptor().getAnnotation() instanceof Email);
+        };
+    }
+
+    /**
+     * Check an address the way Hibernate Validator's {@code @Email} does,
+     * for addresses made of unquoted ASCII atoms and ASCII domain names.
+     * Anything else is left undecided.
+     */
+    static int checkEmail(String email) {
+        if (email.isEmpty()) {
+            return VALID;
+        }
+        int at = email.lastIndexOf('@');
+        if (at < 0 || at > MAX_EMAIL_LOCAL_PART_LENGTH) {
+            return INVALID;
+        }
+        int local = checkEmailLocalPart(email, at);
+        if (local == INVALID) {
+            return INVALID;
+        }
+        int domain = checkEmailDomain(email, at + 1);
+        return domain == VALID ? local : domain;
+    }
+
+    /**
+     * Check the local part, dot-separated non-empty atoms, ending at {@code end}.
+     */
+    private static int checkEmailLocalPart(String email, int end) {
+        int atomLength = 0;
+        for (int i = 0; i < end; i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80 || c == '"') {
+                return UNDECIDED;
+            }
+            if (c == '.') {
+                if (atomLength == 0) {
+                    return INVALID;
+                }
+                atomLength = 0;
+            } else if (EMAIL_LOCAL_CHARS[c]) {
+                atomLength++;
+            } else {
+                return INVALID;
+            }
+        }
+        return atomLength == 0 ? INVALID : VALID;
+    }
+
+    /**
+     * Check the domain, dot-separated labels starting and ending with a
+     * domain character, from {@code start} to the end of the address.
+     */
+    private static int checkEmailDomain(String email, int start) {
+        if (start == email.length() || email.charAt(email.length() - 1) == '.') {
+            return INVALID;
+        }
+        if (email.charAt(start) == '[') {
+            return UNDECIDED;
+        }
+        int result = email.length() - start > MAX_EMAIL_DOMAIN_LENGTH ? INVALID : VALID;
+        int labelStart = start;
+        for (int i = start; i <= email.length(); i++) {
+            char c = i == email.length() ? '.' : email.charAt(i);
+            if (c >= 0x80) {
+                return UNDECIDED;
+            }
+            if (c != '.') {
+                if (c != '-' && !EMAIL_DOMAIN_CHARS[c]) {
+                    result = INVALID;
+                }
+                continue;
+            }
+            int length = i - labelStart;
+            if (length == 0 || length > MAX_EMAIL_DOMAIN_LABEL_LENGTH
+                    || email.charAt(labelStart) == '-' || email.charAt(i - 1) == '-') {
+                result = INVALID;
+            }
+            labelStart = i + 1;
+        }
+        return result;
+    }
+
+    private static boolean isAscii(boolean[] table, char c) {
+        return c < table.length && table[c];
+    }
+
+    private static boolean[] asciiTable(String chars) {
+        boolean[] table = new boolean[0x80];
+        for (int i = 0; i < chars.length(); i++) {
+            table[chars.charAt(i)] = true;
+        }
+        return table;
+    }
+
+    private String patternMessage(String field, String expectedRegexp) {
+        Pattern pattern = annotation(field, Pattern.class);
+        if (!pattern.regexp().equals(expectedRegexp) || pattern.flags().length > 0) {
+            throw new IllegalStateException("Compiled validation expects @Pattern(regexp = \"" + expectedRegexp
+                    + "\") on UserDto." + field + " but found \"" + pattern.regexp() + "\"");
+        }
+        return message(pattern.message());
+    }
+
+    private static <A extends Annotation> A annotation(String field, Class<A> type) {
+        A annotation;
+        try {
+            annotation = UserDto.class.getDeclaredField(field).getAnnotation(type);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("UserDto has no field " + field, e);
+        }
+        if (annotation == null) {
+            throw new IllegalStateException("Compiled validation expects @" + type.getSimpleName()
+                    + " on UserDto." + field);
+        }
+        return annotation;
+    }
+
+    private static String message(String template) {
+        if (template.indexOf('{') >= 0) {
+            throw new IllegalStateException("Compiled validation does not interpolate message " + template);
+        }
+        return template;
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.actions.GithubActionsDemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the virtual-thread execution mode hands requests to virtual threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@DisplayName("Virtual Thread Mode Tests")
+class VirtualThreadModeTests {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    @DisplayName("Should run Tomcat request processing on virtual threads")
+    void shouldRunRequestsOnVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor().getClass().getSimpleName())
+                .isEqualTo("VirtualThreadExecutor");
+    }
+}
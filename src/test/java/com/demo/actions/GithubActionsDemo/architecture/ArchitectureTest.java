@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 
 import static com.tngtech.archunit.lang.syntax.ArchRuleDefinition.*;
 import static com.tngtech.archunit.library.Architectures.layeredArchitecture;
+import static com.tngtech.archunit.library.dependencies.SlicesRuleDefinition.slices;
 
 /**
  * Architecture tests using ArchUnit.
@@ -73,10 +74,14 @@ class ArchitectureTest {
     @DisplayName("All classes should have proper naming convention")
     void allClassesShouldHaveProperNamingConvention() {
         ArchRule rule = classes()
+                .that().areTopLevelClasses()
                 .should().haveSimpleNameEndingWith("Controller")
                 .orShould().haveSimpleNameEndingWith("Service")
+                .orShould().haveSimpleNameEndingWith("Repository")
                 .orShould().haveSimpleNameEndingWith("Dto")
                 .orShould().haveSimpleNameEndingWith("Exception")
+                .orShould().haveSimpleNameEndingWith("Module")
+                .orShould().haveSimpleNameEndingWith("Pipeline")
                 .orShould().haveSimpleNameEndingWith("Application")
                 .orShould().haveSimpleNameEndingWith("Configuration");
 
@@ -84,11 +89,22 @@ class ArchitectureTest {
     }
 
     @Test
-    @DisplayName("Controllers should be annotated with @RestController")
+    @DisplayName("Controllers should be annotated with @RestController or @RestControllerAdvice")
     void controllersShouldBeAnnotatedWithRestController() {
         ArchRule rule = classes()
                 .that().resideInAPackage("..controller..")
-                .should().beAnnotatedWith("org.springframework.web.bind.annotation.RestController");
+                .should().beAnnotatedWith("org.springframework.web.bind.annotation.RestController")
+                .orShould().beAnnotatedWith("org.springframework.web.bind.annotation.RestControllerAdvice");
+
+        rule.check(importedClasses);
+    }
+
+    @Test
+    @DisplayName("Controllers should not declare beans")
+    void controllersShouldNotDeclareBeans() {
+        ArchRule rule = noMethods()
+                .that().areDeclaredInClassesThat().resideInAPackage("..controller..")
+                .should().beAnnotatedWith("org.springframework.context.annotation.Bean");
 
         rule.check(importedClasses);
     }
@@ -132,12 +148,20 @@ class ArchitectureTest {
                 .consideringAllDependencies()
                 .layer("Controller").definedBy("..controller..")
                 .layer("Service").definedBy("..service..")
+                .layer("Repository").definedBy("..repository..")
+                .layer("Config").definedBy("..config..")
                 .layer("DTO").definedBy("..dto..")
                 .layer("Exception").definedBy("..exception..")
+                .layer("Json").definedBy("..json..")
+                .layer("Concurrency").definedBy("..concurrency..")
                 .whereLayer("Controller").mayNotBeAccessedByAnyLayer()
                 .whereLayer("Service").mayOnlyBeAccessedByLayers("Controller")
-                .whereLayer("DTO").mayOnlyBeAccessedByLayers("Controller", "Service")
-                .whereLayer("Exception").mayOnlyBeAccessedByLayers("Controller", "Service");
+                .whereLayer("Repository").mayOnlyBeAccessedByLayers("Service", "Config", "Concurrency")
+                .whereLayer("Config").mayNotBeAccessedByAnyLayer()
+                .whereLayer("DTO").mayOnlyBeAccessedByLayers("Controller", "Service", "Repository", "Json")
+                .whereLayer("Exception").mayOnlyBeAccessedByLayers("Controller", "Service", "Repository")
+                .whereLayer("Json").mayOnlyBeAccessedByLayers("Config")
+                .whereLayer("Concurrency").mayOnlyBeAccessedByLayers("Service");
 
         layeredArchitecture.check(importedClasses);
     }
@@ -187,6 +211,10 @@ class ArchitectureTest {
                 .that().haveSimpleNameEndingWith("Service")
                 .should().resideInAPackage("..service..");
 
+        ArchRule repositoryRule = classes()
+                .that().haveSimpleNameEndingWith("Repository")
+                .should().resideInAPackage("..repository..");
+
         ArchRule dtoRule = classes()
                 .that().haveSimpleNameEndingWith("Dto")
                 .should().resideInAPackage("..dto..");
@@ -195,7 +223,20 @@ class ArchitectureTest {
                 .that().haveSimpleNameEndingWith("Exception")
                 .should().resideInAPackage("..exception..");
 
+        ArchRule moduleRule = classes()
+                .that().haveSimpleNameEndingWith("Module")
+                .should().resideInAPackage("..json..");
+
+        ArchRule pipelineRule = classes()
+                .that().haveSimpleNameEndingWith("Pipeline")
+                .should().resideInAPackage("..concurrency..");
+
         controllerRule.check(importedClasses);
         serviceRule.check(importedClasses);
+        repositoryRule.check(importedClasses);
         dtoRule.check(importedClasses);
- 
\ No newline at end of file
+        exceptionRule.check(importedClasses);
+        moduleRule.check(importedClasses);
+        pipelineRule.check(importedClasses);
+    }
+}
@@ -0,0 +1,250 @@
+package com.demo.actions.GithubActionsDemo.concurrency;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the ordering, batching and failure handling of {@link UserWritePipeline}.
+ */
+@DisplayName("User Write Pipeline Tests")
+class UserWritePipelineTest {
+
+    @Test
+    @DisplayName("Should apply writes in submission order and complete their futures with their results")
+    void shouldApplyWritesInOrder() {
+        // Given
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        List<CompletableFuture<Long>> inserts = new ArrayList<>();
+
+        // When
+        try (UserWritePipeline pipeline = new UserWritePipeline(repository, 8, 4)) {
+            for (int i = 0; i < 20; i++) {
+                UserDto user = new UserDto(null, "User", "Pipeline", "user" + i + "@pipeline.test", 30, null);
+                inserts.add(pipeline.submit(() -> repository.insert(user)));
+            }
+
+            // Then
+            assertThat(inserts).extracting(CompletableFuture::join)
+                    .containsExactlyElementsOf(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L,
+                            11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L));
+            assertThat(pipeline.writeCount()).isEqualTo(20);
+            assertThat(pipeline.batchCount()).isBetween(5L, 20L);
+            assertThat(pipeline.pendingCount()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail only the write that throws and keep applying later writes")
+    void shouldFailOnlyTheFailingWrite() {
+        // Given
+        try (UserWritePipeline pipeline =
+                     new UserWritePipeline(new InMemoryUserRepository(), 8, 8)) {
+
+            // When
+            CompletableFuture<String> failing = pipeline.submit(() -> {
+                throw new IllegalStateException("Rejected");
+            });
+            CompletableFuture<String> next = pipeline.submit(() -> "applied");
+
+            // Then
+            assertThat(failing).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(IllegalStateException.class);
+            assertThat(next.join()).isEqualTo("applied");
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail only the write whose after-commit action throws and still run the other actions")
+    void shouldFailOnlyTheWriteWithFailingAfterCommitAction() {
+        // Given
+        List<String> events = new ArrayList<>();
+
+        try (UserWritePipeline pipeline =
+                     new UserWritePipeline(new InMemoryUserRepository(), 8, 8)) {
+            // When
+            CompletableFuture<String> failing = pipeline.submit(() -> {
+                pipeline.afterCommit(() -> {
+                    throw new IllegalStateException("Index unavailable");
+                });
+                pipeline.afterCommit(() -> events.add("failing write, second action"));
+                return "failing";
+            });
+            CompletableFuture<String> other = pipeline.submit(() -> {
+                pipeline.afterCommit(() -> events.add("other write"));
+                return "other";
+            });
+
+            // Then
+            assertThat(failing).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(IllegalStateException.class);
+            assertThat(other.join()).isEqualTo("other");
+            assertThat(events).containsExactly("failing write, second action", "other write");
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop on an error and reject the pending and later writes")
+    void shouldStopOnError() {
+        // Given
+        UserWritePipeline pipeline = new UserWritePipeline(new InMemoryUserRepository(), 8, 8);
+
+        // When
+        CompletableFuture<String> erroring = pipeline.submit(() -> {
+            throw new AssertionError("Broken");
+        });
+
+        // Then
+        assertThat(erroring).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(pipeline.submit(() -> "applied")).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(RejectedExecutionException.class);
+        pipeline.close();
+    }
+
+    @Test
+    @DisplayName("Should run actions after the batch is committed and before the futures complete")
+    void shouldRunAfterCommitActionsBeforeCompletingFutures() {
+        // Given
+        AtomicInteger committedBatches = new AtomicInteger();
+        List<String> events = new ArrayList<>();
+        InMemoryUserRepository repository = new InMemoryUserRepository() {
+            @Override
+            public void writeBatch(Runnable writes) {
+                writes.run();
+                events.add("commit");
+                committedBatches.incrementAndGet();
+            }
+        };
+
+        try (UserWritePipeline pipeline = new UserWritePipeline(repository, 8, 8)) {
+            // When
+            CompletableFuture<String> write = pipeline.submit(() -> {
+                events.add("write");
+                pipeline.afterCommit(() -> events.add("after commit"));
+                return "done";
+            });
+            write.join();
+
+            // Then
+            assertThat(events).containsExactly("write", "commit", "after commit");
+            assertThat(committedBatches).hasValue((int) pipeline.batchCount());
+            assertThatThrownBy(() -> pipeline.afterCommit(() -> { }))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail every write of a batch that fails to commit but still run their actions")
+    void shouldRunAfterCommitActionsOfFailedBatch() {
+        // Given a repository that applies the writes, then fails to make them durable
+        List<String> events = new ArrayList<>();
+        InMemoryUserRepository repository = new InMemoryUserRepository() {
+            @Override
+            public void writeBatch(Runnable writes) {
+                writes.run();
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+        };
+
+        try (UserWritePipeline pipeline = new UserWritePipeline(repository, 8, 8)) {
+            // When
+            CompletableFuture<Long> insert = pipeline.submit(() -> {
+                long id = repository.insert(new UserDto(null, "User", "Pipeline", "user@pipeline.test", 30, null));
+                pipeline.afterCommit(() -> events.add("reindex " + id));
+                return id;
+            });
+
+            // Then
+            assertThat(insert).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(UncheckedIOException.class);
+            assertThat(repository.existsById(1L)).isTrue();
+            assertThat(events).containsExactly("reindex 1");
+            assertThat(pipeline.submit(() -> "applied")).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent writes one at a time, batching them under contention")
+    void shouldSerializeConcurrentWrites() throws Exception {
+        // Given
+        int writers = 8;
+        int writesPerWriter = 10_000;
+        // Only ever touched by the writer thread, so lost updates would show a race
+        int[] counter = new int[1];
+        List<Thread> threads = new ArrayList<>();
+        List<List<CompletableFuture<Integer>>> results = new ArrayList<>();
+
+        try (UserWritePipeline pipeline =
+                     new UserWritePipeline(new InMemoryUserRepository(), 64, 16)) {
+            // When
+            for (int w = 0; w < writers; w++) {
+                List<CompletableFuture<Integer>> futures = new ArrayList<>(writesPerWriter);
+                results.add(futures);
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < writesPerWriter; i++) {
+                        futures.add(pipeline.submit(() -> ++counter[0]));
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // Then
+            for (List<CompletableFuture<Integer>> futures : results) {
+                int previous = 0;
+                for (CompletableFuture<Integer> future : futures) {
+                    // Writes of one thread are applied in the order it submitted them
+                    assertThat(future.join()).isGreaterThan(previous);
+                    previous = future.join();
+                }
+            }
+            assertThat(pipeline.writeCount()).isEqualTo((long) writers * writesPerWriter);
+            assertThat(pipeline.batchCount()).isLessThanOrEqualTo(pipeline.writeCount());
+        }
+        assertThat(counter[0]).isEqualTo(writers * writesPerWriter);
+    }
+
+    @Test
+    @DisplayName("Should apply pending writes on close and reject writes afterwards")
+    void shouldDrainOnClose() {
+        // Given
+        UserWritePipeline pipeline = new UserWritePipeline(new InMemoryUserRepository(), 8, 2);
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            int value = i;
+            pending.add(pipeline.submit(() -> value));
+        }
+
+        // When
+        pipeline.close();
+
+        // Then
+        assertThat(pending).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+        assertThat(pipeline.submit(() -> 1)).failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
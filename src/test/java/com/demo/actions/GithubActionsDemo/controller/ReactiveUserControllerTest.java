@@ -0,0 +1,179 @@
+package com.demo.actions.GithubActionsDemo.controller;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.service.ReactiveUserService;
+import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.demo.actions.GithubActionsDemo.service.UserValidationService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Test class for ReactiveUserController.
+ *
+ * <p>The controller is bound to a reactive service over a real in-memory
+ * store, so streaming and conditional requests run end to end.
+ */
+@DisplayName("Reactive User Controller Tests")
+class ReactiveUserControllerTest {
+
+    private UserService userService;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(new InMemoryUserRepository());
+        ReactiveUserController controller = new ReactiveUserController(
+                new ReactiveUserService(userService, Schedulers.immediate()),
+                new UserValidationService(Validation.buildDefaultValidatorFactory().getValidator()));
+        webTestClient = WebTestClient.bindToController(controller)
+                .controllerAdvice(new UserErrorController())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should create user and return it with its location and ETag")
+    void shouldCreateUser() {
+        // Given
+        UserDto newUser = new UserDto(null, "Ada", "Lovelace", "ada@example.com", 36, null);
+
+        // When & Then
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(newUser)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches(HttpHeaders.LOCATION, "/api/users/\\d+")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("ada@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reject invalid user with 400")
+    void shouldRejectInvalidUser() {
+        // Given
+        UserDto invalidUser = new UserDto(null, "", "Lovelace", "not-an-email", 36, null);
+
+        // When & Then
+        webTestClient.post().uri("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidUser)
+                .exchange()
+                .expectStatus().isBadRequest();
+        assertThat(userService.getAllUsers()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return 304 when the ETag still matches")
+    void shouldReturnNotModifiedForMatchingETag() {
+        // Given
+        UserDto user = createUser("ada@example.com");
+
+        // When & Then
+        webTestClient.get().uri("/api/users/{id}", user.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Should return 412 when If-Match names an old version")
+    void shouldRejectStaleIfMatch() {
+        // Given
+        UserDto user = createUser("ada@example.com");
+        userService.updateUser(user.getId(), new UserDto(null, "Ada", "King", "ada@example.com", 36, null));
+
+        // When & Then
+        webTestClient.put().uri("/api/users/{id}", user.getId())
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UserDto(null, "Ada", "Byron", "ada@example.com", 36, null))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(412);
+        assertThat(userService.getUserById(user.getId()).getLastName()).isEqualTo("King");
+    }
+
+    @Test
+    @DisplayName("Should return 404 for unknown users")
+    void shouldReturn404ForUnknownUser() {
+        // When & Then
+        webTestClient.get().uri("/api/users/{id}", 42)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.detail").isEqualTo("User not found");
+        webTestClient.delete().uri("/api/users/{id}", 42)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Should stream all users as NDJSON across store pages")
+    void shouldStreamUsersAsNdjson() {
+        // Given
+        int count = ReactiveUserService.STREAM_PAGE_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            createUser("user" + i + "@example.com");
+        }
+
+        // When
+        List<UserDto> streamed = webTestClient.get().uri("/api/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(UserDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        // Then
+        assertThat(streamed).hasSize(count);
+        assertThat(streamed).extracting(UserDto::getId).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should read store pages only as the subscriber requests users")
+    void shouldReadPagesOnDemand() {
+        // Given
+        for (int i = 0; i < 3 * ReactiveUserService.STREAM_PAGE_SIZE; i++) {
+            createUser("user" + i + "@example.com");
+        }
+        UserService countingService = spy(userService);
+        ReactiveUserService reactiveService = new ReactiveUserService(countingService, Schedulers.immediate());
+
+        // When
+        StepVerifier.create(reactiveService.getAllUsers(), 2)
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+
+        // Then
+        verify(countingService, times(1)).getUsersPage(anyLong(), anyInt());
+    }
+
+    private UserDto createUser(String email) {
+        return userService.createUser(new UserDto(null, "Ada", "Lovelace", email, 36, null));
+    }
+}
@@ -1,25 +1,44 @@
 package com.demo.actions.GithubActionsDemo.controller;
 
+import com.demo.actions.GithubActionsDemo.dto.BatchItemResultDto;
+import com.demo.actions.GithubActionsDemo.dto.SerializedUserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
 import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserSearchCriteriaDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
 import com.demo.actions.GithubActionsDemo.exception.UserNotFoundException;
+import com.demo.actions.GithubActionsDemo.exception.UserSearchDisabledException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
 import com.demo.actions.GithubActionsDemo.service.UserService;
+import com.demo.actions.GithubActionsDemo.service.UserValidationService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,7 +57,6 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
     private UserController userController;
 
     private MockMvc mockMvc;
@@ -49,8 +67,12 @@ class UserControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
         objectMapper = new ObjectMapper();
+        userController = new UserController(userService, objectMapper,
+                new UserValidationService(Validation.buildDefaultValidatorFactory().getValidator()));
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new UserErrorController())
+                .build();
 
         // Setup test data
         testUser = new UserDto(1L, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567");
@@ -81,12 +103,228 @@ class UserControllerTest {
         verify(userService, times(1)).getAllUsers();
     }
 
+    @Test
+    @DisplayName("Should return 304 for an unchanged listing without reading users")
+    void shouldReturnNotModifiedForUnchangedListing() throws Exception {
+        // Given
+        when(userService.getModificationCount()).thenReturn(41L, 41L, 42L);
+        when(userService.getAllUsers()).thenReturn(testUsers);
+
+        // When & Then
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"41-json\""));
+        mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, "W/\"41-json\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, "W/\"41-json\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"42-json\""))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(userService, times(2)).getAllUsers();
+        assertThat(UserController.listingEtag(41L, "application/cbor")).isEqualTo("W/\"41-cbor\"");
+    }
+
+    @Test
+    @DisplayName("Should return a page of users with a next link when the page is full")
+    void shouldReturnPageOfUsersWithNextLink() throws Exception {
+        // Given
+        when(userService.getUsersPage(0L, 2)).thenReturn(testUsers);
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "</api/users?after=2&limit=2>; rel=\"next\""))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+
+        verify(userService, never()).getAllUsers();
+    }
+
+    @Test
+    @DisplayName("Should return the last page of users without a next link")
+    void shouldReturnLastPageOfUsersWithoutNextLink() throws Exception {
+        // Given
+        when(userService.getUsersPage(2L, UserController.DEFAULT_PAGE_SIZE)).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("after", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should stream all users as newline-delimited JSON")
+    void shouldStreamAllUsersAsNdjson() throws Exception {
+        // Given
+        when(userService.getUsersPage(0L, UserController.MAX_PAGE_SIZE)).thenReturn(testUsers);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.NDJSON_VALUE))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(body.split("\n")).hasSize(2);
+        assertThat(objectMapper.readValue(body.split("\n")[1], UserDto.class).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should return the changes after a sequence number right away when there are some")
+    void shouldReturnAvailableChanges() throws Exception {
+        // Given
+        when(userService.getChanges(41L, UserController.DEFAULT_PAGE_SIZE)).thenReturn(UserChangesDto.of(
+                List.of(new UserChangeDto(42L, UserChangeDto.Type.UPDATED, 1L, testUser)), 42L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/changes").param("since", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(42))
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[0].user.email").value("john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should wait for the next change before answering a long poll")
+    void shouldWaitForNextChange() throws Exception {
+        // Given
+        ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+        when(userService.getModificationCount()).thenReturn(41L);
+        when(userService.awaitChanges(eq(41L), listener.capture())).thenReturn(true);
+        when(userService.getChanges(41L, 10)).thenReturn(UserChangesDto.of(
+                List.of(new UserChangeDto(42L, UserChangeDto.Type.DELETED, 1L, null)), 42L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/changes").param("limit", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        verify(userService, never()).getChanges(anyLong(), anyInt());
+        listener.getValue().run();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("DELETED"))
+                .andExpect(jsonPath("$.changes[0].user").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should answer 410 Gone when the changes after a sequence number are no longer retained")
+    void shouldRequireResyncForLostChanges() throws Exception {
+        // Given
+        when(userService.getChanges(7L, UserController.DEFAULT_PAGE_SIZE)).thenReturn(UserChangesDto.resync(99L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/changes").param("since", "7").param("wait", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.sequence").value(99))
+                .andExpect(jsonPath("$.changes").isEmpty());
+        verify(userService, never()).awaitChanges(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should stream changes as server-sent events until a resync is required")
+    void shouldStreamChangesAsServerSentEvents() throws Exception {
+        // Given
+        when(userService.getChanges(41L, UserController.MAX_PAGE_SIZE)).thenReturn(UserChangesDto.of(
+                List.of(new UserChangeDto(42L, UserChangeDto.Type.CREATED, 1L, testUser)), 42L));
+        when(userService.getChanges(42L, UserController.MAX_PAGE_SIZE)).thenReturn(UserChangesDto.resync(99L));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/users/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5_000);
+
+        // Then
+        String events = result.getResponse().getContentAsString();
+        assertThat(events).startsWith("id:41\n:changes after 41\n\n");
+        assertThat(events).contains("id:42\nevent:change\ndata:{\"sequence\":42,\"type\":\"CREATED\",\"id\":1,");
+        assertThat(events).endsWith("event:resync\ndata:{\"changes\":[],\"sequence\":99,\"resyncRequired\":true}\n\n");
+    }
+
+    @Test
+    @DisplayName("Should search users and link the next page with the same criteria")
+    void shouldSearchUsersWithNextLink() throws Exception {
+        // Given
+        when(userService.searchUsers(any(UserSearchCriteriaDto.class), eq(0L), eq(2))).thenReturn(testUsers);
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search").param("lastName", "D").param("minAge", "20").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "</api/users/search?lastName=D&minAge=20&after=2&limit=2>; rel=\"next\""))
+                .andExpect(jsonPath("$[1].id").value(2));
+
+        verify(userService).searchUsers(argThat(criteria -> "D".equals(criteria.getLastNamePrefix())
+                && criteria.getMinAge() == 20 && criteria.getMaxAge() == null), eq(0L), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should reject a search with an empty age range")
+    void shouldRejectSearchWithEmptyAgeRange() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/search").param("minAge", "40").param("maxAge", "30"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).searchUsers(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should answer 501 when searches are disabled")
+    void shouldAnswerNotImplementedWhenSearchDisabled() throws Exception {
+        // Given
+        when(userService.searchUsers(any(UserSearchCriteriaDto.class), eq(0L), anyInt()))
+                .thenThrow(new UserSearchDisabledException("User search is disabled"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search").param("lastName", "D"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.detail").value("User search is disabled"));
+    }
+
+    @Test
+    @DisplayName("Should search users by text with a clamped limit")
+    void shouldSearchUsersByText() throws Exception {
+        // Given
+        when(userService.searchUsersByText("jhon", UserController.MAX_TEXT_SEARCH_SIZE)).thenReturn(List.of(testUser));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/search/text").param("q", "jhon").param("limit", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("John"));
+        mockMvc.perform(get("/api/users/search/text").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Should return user by ID successfully")
     void shouldReturnUserById() throws Exception {
         // Given
         Long userId = 1L;
-        when(userService.getUserById(userId)).thenReturn(testUser);
+        when(userService.findSerializedUser(userId)).thenReturn(Optional.of(serialized(testUser)));
 
         // When & Then
         mockMvc.perform(get("/api/users/{id}", userId))
@@ -99,7 +337,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.age").value(30))
                 .andExpect(jsonPath("$.phoneNumber").value("+1-555-123-4567"));
 
-        verify(userService, times(1)).getUserById(userId);
+        verify(userService, times(1)).findSerializedUser(userId);
     }
 
     @Test
@@ -107,13 +345,117 @@ class UserControllerTest {
     void shouldReturn404WhenUserNotFound() throws Exception {
         // Given
         Long userId = 999L;
-        when(userService.getUserById(userId)).thenThrow(new UserNotFoundException("User not found"));
+        when(userService.findSerializedUser(userId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(get("/api/users/{id}", userId))
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.detail").value("User not found"));
 
-        verify(userService, times(1)).getUserById(userId);
+        verify(userService, times(1)).findSerializedUser(userId);
+    }
+
+    @Test
+    @DisplayName("Should answer a GET miss with the shared 404 without throwing or reaching the advice")
+    void shouldAnswerGetMissWithoutException() throws Exception {
+        // Given
+        UserErrorController advice = spy(new UserErrorController());
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(userController).setControllerAdvice(advice).build();
+        when(userService.findSerializedUser(999L)).thenReturn(Optional.empty());
+        when(userService.findUserById(999L)).thenReturn(Optional.empty());
+
+        // When
+        MvcResult json = mvc.perform(get("/api/users/{id}", 999L)).andReturn();
+        MvcResult smile = mvc.perform(get("/api/users/{id}", 999L).accept(UserController.SMILE_VALUE)).andReturn();
+
+        // Then
+        assertThat(json.getResponse().getStatus()).isEqualTo(404);
+        assertThat(smile.getResponse().getStatus()).isEqualTo(404);
+        assertThat(json.getResolvedException()).isNull();
+        assertThat(smile.getResolvedException()).isNull();
+        assertThat(json.getResponse().getContentAsByteArray()).isEqualTo(UserErrorController.USER_NOT_FOUND.getBody());
+        verify(advice, never()).handleUserNotFound(any());
+        verify(userService, never()).getUserById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return a user as Smile or CBOR when the client accepts it")
+    void shouldReturnUserInBinaryFormats() throws Exception {
+        // Given
+        testUser.setVersion(3);
+        when(userService.findUserById(1L)).thenReturn(Optional.of(testUser));
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+
+        // When
+        MvcResult smile = mockMvc.perform(get("/api/users/{id}", 1L).accept(UserController.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.SMILE_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/users/{id}", 1L)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Then
+        byte[] json = objectMapper.writeValueAsBytes(testUser);
+        UserDto smileUser = smileMapper.readValue(smile.getResponse().getContentAsByteArray(), UserDto.class);
+        UserDto cborUser = cborMapper.readValue(cbor.getResponse().getContentAsByteArray(), UserDto.class);
+        assertThat(objectMapper.writeValueAsBytes(smileUser)).isEqualTo(json);
+        assertThat(objectMapper.writeValueAsBytes(cborUser)).isEqualTo(json);
+        assertThat(smile.getResponse().getContentAsByteArray()).hasSizeLessThan(json.length);
+        assertThat(cbor.getResponse().getContentAsByteArray()).hasSizeLessThan(json.length);
+        verify(userService, never()).findSerializedUser(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should read and write users in binary formats on every endpoint")
+    void shouldCreateAndListUsersInBinaryFormats() throws Exception {
+        // Given
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        UserDto newUser = new UserDto(null, "Alice", "Johnson", "alice.johnson@example.com", 28, null);
+        UserDto createdUser = new UserDto(3L, "Alice", "Johnson", "alice.johnson@example.com", 28, null);
+        when(userService.createUser(any(UserDto.class))).thenReturn(createdUser);
+        when(userService.getAllUsers()).thenReturn(testUsers);
+
+        // When
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(UserController.SMILE_VALUE)
+                        .accept(UserController.SMILE_VALUE)
+                        .content(smileMapper.writeValueAsBytes(newUser)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(UserController.SMILE_VALUE))
+                .andReturn();
+        MvcResult listed = mockMvc.perform(get("/api/users").accept(UserController.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserController.SMILE_VALUE))
+                .andReturn();
+
+        // Then
+        assertThat(smileMapper.readValue(created.getResponse().getContentAsByteArray(), UserDto.class).getId())
+                .isEqualTo(3L);
+        List<UserDto> users = smileMapper.readValue(listed.getResponse().getContentAsByteArray(),
+                new TypeReference<List<UserDto>>() { });
+        assertThat(users).extracting(UserDto::getEmail)
+                .containsExactly("john.doe@example.com", "jane.smith@example.com");
+    }
+
+    @Test
+    @DisplayName("Should negotiate the format of a single user from the Accept header")
+    void shouldNegotiateUserFormat() {
+        MediaType smile = MediaType.parseMediaType(UserController.SMILE_VALUE);
+        assertThat(UserController.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(UserController.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(UserController.negotiate("application/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(UserController.negotiate("application/x-jackson-smile")).isEqualTo(smile);
+        assertThat(UserController.negotiate("application/x-jackson-smile, */*;q=0.1")).isEqualTo(smile);
+        assertThat(UserController.negotiate("application/x-jackson-smile;q=0.5, application/json"))
+                .isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(UserController.negotiate("application/json;q=0, */*")).isEqualTo(smile);
     }
 
     @Test
@@ -139,6 +481,24 @@ class UserControllerTest {
         verify(userService, times(1)).createUser(any(UserDto.class));
     }
 
+    @Test
+    @DisplayName("Should return 409 with a problem body when the email is taken")
+    void shouldReturn409WhenEmailIsTaken() throws Exception {
+        // Given
+        UserDto newUser = new UserDto(null, "Alice", "Johnson", "alice.johnson@example.com", 28, "+1-555-111-2222");
+        when(userService.createUser(any(UserDto.class)))
+                .thenThrow(UserAlreadyExistsException.forEmail("alice.johnson@example.com"));
+
+        // When & Then
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newUser)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.detail").value("User with email alice.johnson@example.com already exists"));
+    }
+
     @Test
     @DisplayName("Should return 400 when creating user with invalid data")
     void shouldReturn400WhenCreatingUserWithInvalidData() throws Exception {
@@ -162,7 +522,7 @@ class UserControllerTest {
         UserDto updateUser = new UserDto(null, "John", "Updated", "john.updated@example.com", 31, "+1-555-123-4567");
         UserDto updatedUser = new UserDto(1L, "John", "Updated", "john.updated@example.com", 31, "+1-555-123-4567");
         
-        when(userService.updateUser(eq(userId), any(UserDto.class))).thenReturn(updatedUser);
+        when(userService.updateUser(eq(userId.longValue()), any(UserDto.class), eq(UserService.ANY_VERSION))).thenReturn(updatedUser);
 
         // When & Then
         mockMvc.perform(put("/api/users/{id}", userId)
@@ -175,7 +535,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("john.updated@example.com"))
                 .andExpect(jsonPath("$.age").value(31));
 
-        verify(userService, times(1)).updateUser(eq(userId), any(UserDto.class));
+        verify(userService, times(1)).updateUser(eq(userId.longValue()), any(UserDto.class), eq(UserService.ANY_VERSION));
     }
 
     @Test
@@ -185,7 +545,7 @@ class UserControllerTest {
         Long userId = 999L;
         UserDto updateUser = new UserDto(null, "John", "Updated", "john.updated@example.com", 31, "+1-555-123-4567");
         
-        when(userService.updateUser(eq(userId), any(UserDto.class)))
+        when(userService.updateUser(eq(userId.longValue()), any(UserDto.class), eq(UserService.ANY_VERSION)))
                 .thenThrow(new UserNotFoundException("User not found"));
 
         // When & Then
@@ -194,7 +554,76 @@ class UserControllerTest {
                         .content(objectMapper.writeValueAsString(updateUser)))
                 .andExpect(status().isNotFound());
 
-        verify(userService, times(1)).updateUser(eq(userId), any(UserDto.class));
+        verify(userService, times(1)).updateUser(eq(userId.longValue()), any(UserDto.class), eq(UserService.ANY_VERSION));
+    }
+
+    @Test
+    @DisplayName("Should return the user version as ETag and 304 when it still matches")
+    void shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+        // Given
+        Long userId = 1L;
+        testUser.setVersion(3);
+        when(userService.findSerializedUser(userId)).thenReturn(Optional.of(serialized(testUser)));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        MvcResult result = mockMvc.perform(get("/api/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andReturn();
+        assertThat(result.getResponse().getContentLength()).isZero();
+        mockMvc.perform(get("/api/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should update only the version named by If-Match and return the new ETag")
+    void shouldUpdateVersionNamedByIfMatch() throws Exception {
+        // Given
+        UserDto updateUser = new UserDto(null, "John", "Updated", "john.updated@example.com", 31, "+15551234567");
+        UserDto updatedUser = new UserDto(1L, "John", "Updated", "john.updated@example.com", 31, "+15551234567");
+        updatedUser.setVersion(4);
+        when(userService.updateUser(eq(1L), any(UserDto.class), eq(3L))).thenReturn(updatedUser);
+
+        // When & Then
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateUser)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(userService, times(1)).updateUser(eq(1L), any(UserDto.class), eq(3L));
+    }
+
+    @Test
+    @DisplayName("Should return 412 when If-Match does not name the current version")
+    void shouldReturn412WhenIfMatchIsStale() throws Exception {
+        // Given
+        UserDto updateUser = new UserDto(null, "John", "Updated", "john.updated@example.com", 31, "+15551234567");
+        when(userService.updateUser(eq(1L), any(UserDto.class), eq(2L)))
+                .thenThrow(new UserVersionConflictException(1L, 2L, 3L));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateUser)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(412));
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateUser)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(412));
+
+        verify(userService, times(1)).updateUser(anyLong(), any(UserDto.class), anyLong());
     }
 
     @Test
@@ -225,6 +654,78 @@ class UserControllerTest {
         verify(userService, times(1)).deleteUser(userId);
     }
 
+    @Test
+    @DisplayName("Should create valid users in batch and report invalid ones")
+    void shouldCreateValidUsersInBatchAndReportInvalidOnes() throws Exception {
+        // Given
+        UserDto validUser = new UserDto(null, "Alice", "Johnson", "alice.johnson@example.com", 28, "+15551112222");
+        UserDto invalidUser = new UserDto(null, "", "Smith", "not-an-email", 25, null);
+        when(userService.createUsers(anyList())).thenReturn(List.of(
+                BatchItemResultDto.success(0, BatchItemResultDto.Status.CREATED, 3L)));
+
+        // When & Then
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(invalidUser, validUser))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].status").value("INVALID"))
+                .andExpect(jsonPath("$[0].errors").isNotEmpty())
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].id").value(3));
+    }
+
+    @Test
+    @DisplayName("Should reject batch update items without an ID")
+    void shouldRejectBatchUpdateItemsWithoutId() throws Exception {
+        // Given
+        UserDto userWithoutId = new UserDto(null, "Alice", "Johnson", "alice.johnson@example.com", 28, "+15551112222");
+        when(userService.updateUsers(anyList())).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(put("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(userWithoutId))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$[0].status").value("INVALID"))
+                .andExpect(jsonPath("$[0].errors[0]").value("id: ID is required"));
+    }
+
+    @Test
+    @DisplayName("Should delete users in batch")
+    void shouldDeleteUsersInBatch() throws Exception {
+        // Given
+        when(userService.deleteUsers(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResultDto.success(0, BatchItemResultDto.Status.DELETED, 1L),
+                BatchItemResultDto.success(1, BatchItemResultDto.Status.DELETED, 2L)));
+
+        // When & Then
+        mockMvc.perform(delete("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].errors").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should reject batches larger than the maximum size")
+    void shouldRejectBatchesLargerThanMaximumSize() throws Exception {
+        // Given
+        String ids = LongStream.rangeClosed(1, UserController.MAX_BATCH_SIZE + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        // When & Then
+        mockMvc.perform(delete("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids))
+                .andExpect(status().isPayloadTooLarge());
+
+        verify(userService, never()).deleteUsers(any());
+    }
+
     @Test
     @DisplayName("Should validate user DTO fields")
     void shouldValidateUserDtoFields() {
@@ -302,4 +803,8 @@ class UserControllerTest {
         assertThat(result).contains("age=30");
         assertThat(result).contains("phoneNumber='+1-555-123-4567'");
     }
-} 
\ No newline at end of file
+
+    private SerializedUserDto serialized(UserDto user) throws Exception {
+        return new SerializedUserDto(user.getId(), user.getVersion(), objectMapper.writeValueAsBytes(user));
+    }
+}
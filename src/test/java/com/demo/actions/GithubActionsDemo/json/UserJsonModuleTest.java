@@ -0,0 +1,119 @@
+package com.demo.actions.GithubActionsDemo.json;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests that the streaming JSON codec of {@link UserJsonModule} reads
+ * and writes users exactly like Jackson's bean (de)serializers.
+ */
+@DisplayName("User JSON Module Tests")
+class UserJsonModuleTest {
+
+    private static final String[] STRINGS = {
+        null, "", "John", "john.doe@example.com", "Zoë \"quoted\" \\ \n\t\u0001 😀"
+    };
+
+    private final ObjectMapper databind = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final ObjectMapper streaming = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new UserJsonModule());
+
+    @Test
+    @DisplayName("Should write the same bytes as the bean serializer")
+    void shouldWriteSameBytesAsBeanSerializer() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            // Given
+            UserDto user = new UserDto(random.nextBoolean() ? null : random.nextLong(), pick(random),
+                    pick(random), pick(random), random.nextBoolean() ? null : random.nextInt(), pick(random));
+            user.setVersion(random.nextLong());
+
+            // When & Then
+            assertThat(streaming.writeValueAsBytes(user)).isEqualTo(databind.writeValueAsBytes(user));
+            assertThat(streaming.writerWithDefaultPrettyPrinter().writeValueAsString(List.of(user, user)))
+                    .isEqualTo(databind.writerWithDefaultPrettyPrinter().writeValueAsString(List.of(user, user)));
+            UserDto read = streaming.readValue(streaming.writeValueAsBytes(user), UserDto.class);
+            assertThat(databind.writeValueAsString(read)).isEqualTo(databind.writeValueAsString(user));
+        }
+    }
+
+    @Test
+    @DisplayName("Should read the same users and report the same errors as the bean deserializer")
+    void shouldReadLikeBeanDeserializer() throws Exception {
+        // Given
+        List<String> documents = List.of(
+                "{}",
+                "{\"id\":7,\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\",\"age\":30}",
+                "{\"id\":\"12\",\"age\":\"30\",\"firstName\":12,\"extra\":{\"a\":[1,2]},\"version\":5}",
+                "{\"id\":null,\"age\":null,\"email\":null}",
+                "{\"email\":\"first\",\"email\":\"second\"}",
+                "{\"age\":1.5}",
+                "{\"age\":99999999999}",
+                "{\"age\":\"abc\"}",
+                "{\"age\":true}",
+                "{\"firstName\":{}}",
+                "[{\"id\":1}]",
+                "\"user\"");
+
+        // When & Then
+        for (String document : documents) {
+            assertThat(read(streaming, document)).as(document).isEqualTo(read(databind, document));
+        }
+        List<UserDto> users = streaming.readValue("[{\"id\":1,\"firstName\":\"A\"},{\"id\":2}]",
+                new TypeReference<List<UserDto>>() { });
+        assertThat(users).extracting(UserDto::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and ignored properties when the mapper is configured to")
+    void shouldRejectUnknownPropertiesWhenConfigured() {
+        // Given
+        ObjectMapper strictDatabind = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES);
+        ObjectMapper strictStreaming = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES)
+                .registerModule(new UserJsonModule());
+
+        // When & Then
+        for (String document : List.of("{\"unknown\":1}", "{\"version\":1}")) {
+            assertThat(read(strictStreaming, document)).as(document).isEqualTo(read(strictDatabind, document))
+                    .containsAnyOf("UnrecognizedPropertyException", "IgnoredPropertyException");
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave users to the bean serializer when nulls are excluded")
+    void shouldLeaveNonDefaultInclusionToBeanSerializer() throws Exception {
+        // Given
+        ObjectMapper nonNull = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .registerModule(new UserJsonModule());
+
+        // When
+        String json = nonNull.writeValueAsString(new UserDto(1L, "John", null, null, 30, null));
+
+        // Then
+        assertThat(json).isEqualTo("{\"id\":1,\"firstName\":\"John\",\"age\":30}");
+    }
+
+    private static String read(ObjectMapper objectMapper, String document) {
+        try {
+            return new ObjectMapper().writeValueAsString(objectMapper.readValue(document, UserDto.class));
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    private static String pick(Random random) {
+        return STRINGS[random.nextInt(STRINGS.length)];
+    }
+}
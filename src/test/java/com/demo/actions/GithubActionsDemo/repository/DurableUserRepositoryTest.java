@@ -0,0 +1,203 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository contract against {@link DurableUserRepository} and
+ * checks that its state survives a restart.
+ */
+@DisplayName("Durable User Repository Tests")
+class DurableUserRepositoryTest extends UserRepositoryContractTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected UserRepository createRepository() {
+        return open(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void closeRepository() {
+        ((DurableUserRepository) repository).close();
+    }
+
+    private DurableUserRepository open(Duration fsyncInterval) {
+        return new DurableUserRepository(directory, fsyncInterval, Duration.ZERO, true);
+    }
+
+    private DurableUserRepository reopen() {
+        return reopen(true);
+    }
+
+    private DurableUserRepository reopen(boolean mapSnapshot) {
+        ((DurableUserRepository) repository).close();
+        repository = new DurableUserRepository(directory, Duration.ZERO, Duration.ZERO, mapSnapshot);
+        return (DurableUserRepository) repository;
+    }
+
+    private static UserDto user(String firstName, String email) {
+        return new UserDto(null, firstName, "Test", email, 30, null);
+    }
+
+    @Test
+    @DisplayName("Should recover creates, updates and deletes from the WAL after a restart")
+    void shouldRecoverFromWalAfterRestart() {
+        // Given
+        Long aliceId = repository.insert(user("Alice", "alice@example.com"));
+        Long bobId = repository.insert(user("Bob", "bob@example.com"));
+        repository.replace(aliceId, user("Alicia", "alicia@example.com"));
+        repository.deleteById(bobId);
+
+        // When
+        DurableUserRepository recovered = reopen();
+
+        // Then
+        assertThat(recovered.count()).isEqualTo(1);
+        assertThat(recovered.findById(aliceId).getFirstName()).isEqualTo("Alicia");
+        assertThat(recovered.findById(aliceId).getPhoneNumber()).isNull();
+        assertThat(recovered.existsById(bobId)).isFalse();
+        assertThat(recovered.insert(user("Bob", "bob@example.com"))).isGreaterThan(bobId);
+        assertThat(recovered.insert(user("Alice", "ALICIA@example.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should recover from the latest snapshot plus the WAL tail and drop covered segments")
+    void shouldRecoverFromSnapshotAndWalTail() throws IOException {
+        // Given
+        for (int i = 0; i < 25; i++) {
+            repository.insert(user("User" + i, "user" + i + "@example.com"));
+        }
+        ((DurableUserRepository) repository).snapshot();
+        repository.deleteById(1L);
+        repository.replace(2L, user("Changed", "changed@example.com"));
+
+        // When
+        DurableUserRepository recovered = reopen();
+
+        // Then
+        assertThat(recovered.count()).isEqualTo(24);
+        assertThat(recovered.existsById(1L)).isFalse();
+        assertThat(recovered.findById(2L).getFirstName()).isEqualTo("Changed");
+        assertThat(recovered.findPage(20, 10)).extracting(UserDto::getId).containsExactly(21L, 22L, 23L, 24L, 25L);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(file -> file.getFileName().toString()).sorted().toList();
+            assertThat(names).filteredOn(name -> name.startsWith("snapshot-")).hasSize(1);
+            assertThat(names).doesNotContain("wal-00000000000000000001.log");
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete a snapshot left half-written by a crash on startup")
+    void shouldDeleteIncompleteSnapshotOnStartup() throws IOException {
+        // Given
+        repository.insert(user("Alice", "alice@example.com"));
+        ((DurableUserRepository) repository).snapshot();
+        repository.insert(user("Bob", "bob@example.com"));
+        Path incomplete = directory.resolve("snapshot-00000000000000000009.bin.tmp");
+        Files.write(incomplete, new byte[] {1, 2, 3});
+
+        // When
+        DurableUserRepository recovered = reopen();
+
+        // Then
+        assertThat(incomplete).doesNotExist();
+        assertThat(recovered.count()).isEqualTo(2);
+        assertThat(recovered.findById(2L).getFirstName()).isEqualTo("Bob");
+    }
+
+    @Test
+    @DisplayName("Should recover the same state when loading the snapshot into the heap")
+    void shouldRecoverSameStateWhenLoadingSnapshotIntoHeap() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            repository.insert(user("User" + i, "user" + i + "@example.com"));
+        }
+        ((DurableUserRepository) repository).snapshot();
+        repository.deleteById(3L);
+
+        // When
+        DurableUserRepository recovered = reopen(false);
+
+        // Then
+        assertThat(recovered.findAll()).extracting(UserDto::getId).containsExactly(1L, 2L, 4L, 5L);
+        assertThat(recovered.insert(user("User", "user2@example.com"))).isEqualTo(6L);
+        assertThat(recovered.insert(user("User", "user0@example.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should write a new snapshot on top of a mapped one")
+    void shouldWriteNewSnapshotOnTopOfMappedOne() {
+        // Given
+        repository.insert(user("Alice", "alice@example.com"));
+        repository.insert(user("Bob", "bob@example.com"));
+        ((DurableUserRepository) repository).snapshot();
+        DurableUserRepository recovered = reopen();
+        recovered.replace(1L, user("Alicia", "alice@example.com"));
+        recovered.insert(user("Carol", "carol@example.com"));
+
+        // When
+        recovered.snapshot();
+        recovered = reopen();
+
+        // Then
+        assertThat(recovered.findAll()).extracting(UserDto::getFirstName).containsExactly("Alicia", "Bob", "Carol");
+    }
+
+    @Test
+    @DisplayName("Should keep user versions across snapshots and restarts")
+    void shouldKeepUserVersionsAcrossRestarts() {
+        // Given
+        repository.insert(user("Alice", "alice@example.com"));
+        repository.insert(user("Bob", "bob@example.com"));
+        repository.replace(1L, user("Alicia", "alice@example.com"));
+        ((DurableUserRepository) repository).snapshot();
+        repository.replace(2L, user("Robert", "bob@example.com"));
+        repository.replace(2L, user("Bobby", "bob@example.com"));
+
+        // When
+        DurableUserRepository recovered = reopen();
+
+        // Then
+        assertThat(recovered.findById(1L).getVersion()).isEqualTo(2L);
+        assertThat(recovered.findById(2L).getVersion()).isEqualTo(3L);
+        assertThat(recovered.replace(1L, user("Ally", "alice@example.com"), 2L).getVersion()).isEqualTo(2L);
+        assertThat(recovered.findById(1L).getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should discard a torn record at the end of the WAL")
+    void shouldDiscardTornRecordAtEndOfWal() throws IOException {
+        // Given
+        repository.insert(user("Alice", "alice@example.com"));
+        repository.insert(user("Bob", "bob@example.com"));
+        ((DurableUserRepository) repository).close();
+        Path segment = directory.resolve("wal-00000000000000000001.log");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // When
+        repository = open(Duration.ZERO);
+
+        // Then
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(repository.findById(1L).getFirstName()).isEqualTo("Alice");
+        assertThat(repository.insert(user("Bob", "bob@example.com"))).isEqualTo(2L);
+    }
+}
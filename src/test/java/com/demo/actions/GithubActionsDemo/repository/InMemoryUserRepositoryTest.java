@@ -0,0 +1,71 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository contract against {@link InMemoryUserRepository}.
+ */
+@DisplayName("In-Memory User Repository Tests")
+class InMemoryUserRepositoryTest extends UserRepositoryContractTest {
+
+    @Override
+    protected UserRepository createRepository() {
+        return new InMemoryUserRepository();
+    }
+
+    @Test
+    @DisplayName("Should keep primitive ID index entries across resizes and removals")
+    void shouldKeepPrimitiveIdIndexEntriesAcrossResizesAndRemovals() {
+        // Given
+        InMemoryUserRepository.LongMap<String> index = new InMemoryUserRepository.LongMap<>();
+        for (long key = 1; key <= 10_000; key++) {
+            index.put(key, "value" + key);
+        }
+
+        // When
+        for (long key = 1; key <= 10_000; key += 2) {
+            index.remove(key);
+        }
+        String previous = index.put(2, "updated");
+
+        // Then
+        assertThat(previous).isEqualTo("value2");
+        assertThat(index.size()).isEqualTo(5_000);
+        assertThat(index.get(2)).isEqualTo("updated");
+        assertThat(index.containsKey(1)).isFalse();
+        assertThat(LongStream.rangeClosed(1, 10_000).filter(index::containsKey).count()).isEqualTo(5_000);
+        assertThat(index.get(9_998)).isEqualTo("value9998");
+    }
+
+    @Test
+    @DisplayName("Should accept concurrent writers on the primitive ID index")
+    void shouldAcceptConcurrentWritersOnPrimitiveIdIndex() throws InterruptedException {
+        // Given
+        InMemoryUserRepository.LongMap<Long> index = new InMemoryUserRepository.LongMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            long offset = thread * 10_000L;
+            executor.execute(() -> {
+                for (long key = offset + 1; key <= offset + 10_000; key++) {
+                    index.put(key, key);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(index.size()).isEqualTo(80_000);
+        assertThat(LongStream.rangeClosed(1, 80_000).allMatch(key -> index.get(key) == key)).isTrue();
+    }
+}
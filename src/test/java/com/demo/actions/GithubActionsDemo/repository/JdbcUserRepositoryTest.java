@@ -0,0 +1,31 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Runs the repository contract against {@link JdbcUserRepository} on an
+ * embedded H2 database.
+ */
+@DisplayName("JDBC User Repository Tests")
+class JdbcUserRepositoryTest extends UserRepositoryContractTest {
+
+    private EmbeddedDatabase database;
+
+    @Override
+    protected UserRepository createRepository() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        return new JdbcUserRepository(database);
+    }
+
+    @AfterEach
+    void shutDownDatabase() {
+        database.shutdown();
+    }
+}
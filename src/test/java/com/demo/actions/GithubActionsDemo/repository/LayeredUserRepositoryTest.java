@@ -0,0 +1,114 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the repository contract against {@link LayeredUserRepository} over an
+ * empty snapshot and checks how the overlay shadows a populated one.
+ */
+@DisplayName("Layered User Repository Tests")
+class LayeredUserRepositoryTest extends UserRepositoryContractTest {
+
+    @TempDir
+    Path directory;
+
+    @Override
+    protected UserRepository createRepository() {
+        return layeredOver(new InMemoryUserRepository());
+    }
+
+    @AfterEach
+    void closeRepository() {
+        ((LayeredUserRepository) repository).close();
+    }
+
+    private LayeredUserRepository layeredOver(UserRepository source) {
+        try {
+            Path snapshot = directory.resolve("snapshot-" + System.nanoTime() + ".bin");
+            SnapshotUserRepository.write(snapshot, 1, source);
+            return new LayeredUserRepository(SnapshotUserRepository.open(snapshot));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LayeredUserRepository layeredOverUsers(int count) {
+        InMemoryUserRepository source = new InMemoryUserRepository();
+        for (int i = 1; i <= count; i++) {
+            source.insert(user("User" + i, "user" + i + "@example.com"));
+        }
+        ((LayeredUserRepository) repository).close();
+        repository = layeredOver(source);
+        return (LayeredUserRepository) repository;
+    }
+
+    private static UserDto user(String firstName, String email) {
+        return new UserDto(null, firstName, "Test", email, 30, null);
+    }
+
+    @Test
+    @DisplayName("Should serve base users and assign new IDs after them")
+    void shouldServeBaseUsersAndAssignNewIdsAfterThem() {
+        // Given
+        LayeredUserRepository layered = layeredOverUsers(3);
+
+        // When
+        Long newId = layered.insert(user("New", "new@example.com"));
+
+        // Then
+        assertThat(newId).isEqualTo(4L);
+        assertThat(layered.count()).isEqualTo(4);
+        assertThat(layered.findById(2L).getEmail()).isEqualTo("user2@example.com");
+        assertThat(layered.insert(user("Duplicate", "USER2@example.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should shadow updated and deleted base users and merge pages in ID order")
+    void shouldShadowUpdatedAndDeletedBaseUsers() {
+        // Given
+        LayeredUserRepository layered = layeredOverUsers(5);
+        layered.insert(user("New", "new@example.com"));
+
+        // When
+        UserDto previous = layered.replace(2L, user("Changed", "changed@example.com"));
+        UserDto removed = layered.deleteById(4L);
+
+        // Then
+        assertThat(previous.getFirstName()).isEqualTo("User2");
+        assertThat(removed.getFirstName()).isEqualTo("User4");
+        assertThat(layered.existsById(4L)).isFalse();
+        assertThat(layered.deleteById(4L)).isNull();
+        assertThat(layered.count()).isEqualTo(5);
+        assertThat(layered.findPage(1, 3)).extracting(UserDto::getFirstName)
+                .containsExactly("Changed", "User3", "User5");
+        assertThat(layered.findAll()).extracting(UserDto::getId).containsExactly(1L, 2L, 3L, 5L, 6L);
+        assertThat(layered.insert(user("Reuse", "user2@example.com"))).isEqualTo(7L);
+        assertThat(layered.insert(user("Reuse", "user4@example.com"))).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("Should reject updates taking an email owned by a base user")
+    void shouldRejectUpdateTakingBaseEmail() {
+        // Given
+        LayeredUserRepository layered = layeredOverUsers(2);
+        Long newId = layered.insert(user("New", "new@example.com"));
+
+        // When & Then
+        assertThatThrownBy(() -> layered.replace(newId, user("New", "user1@example.com")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+        assertThat(layered.replace(2L, user("Same", "USER2@example.com")).getFirstName()).isEqualTo("User2");
+        assertThat(layered.findById(2L).getFirstName()).isEqualTo("Same");
+    }
+}
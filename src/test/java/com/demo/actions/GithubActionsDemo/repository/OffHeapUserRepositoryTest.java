@@ -0,0 +1,175 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the repository contract against {@link OffHeapUserRepository}.
+ */
+@DisplayName("Off-Heap User Repository Tests")
+class OffHeapUserRepositoryTest extends UserRepositoryContractTest {
+
+    @Override
+    protected UserRepository createRepository() {
+        // Small chunks so the tests also cover rolling over to a new string chunk
+        return new OffHeapUserRepository(256);
+    }
+
+    @AfterEach
+    void closeRepository() {
+        ((OffHeapUserRepository) repository).close();
+    }
+
+    @Test
+    @DisplayName("Should keep users readable across many string chunks")
+    void shouldKeepUsersReadableAcrossManyStringChunks() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            repository.insert(new UserDto(null, "User", "Number" + i, "user" + i + "@example.com", i, null));
+        }
+
+        // Then
+        assertThat(repository.count()).isEqualTo(100);
+        assertThat(repository.findAll()).extracting(UserDto::getAge)
+                .containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should page across column pages and skip deleted slots")
+    void shouldPageAcrossColumnPagesAndSkipDeletedSlots() {
+        // Given
+        int total = OffHeapUserRepository.PAGE_SLOTS + 10;
+        for (int i = 0; i < total; i++) {
+            repository.insert(new UserDto(null, "User", "Test", "user" + i + "@example.com", null, null));
+        }
+        long boundaryId = OffHeapUserRepository.PAGE_SLOTS;
+        repository.deleteById(boundaryId);
+
+        // When
+        List<UserDto> page = repository.findPage(boundaryId - 2, 3);
+
+        // Then
+        assertThat(repository.count()).isEqualTo(total - 1);
+        assertThat(page).extracting(UserDto::getId)
+                .containsExactly(boundaryId - 1, boundaryId + 1, boundaryId + 2);
+        assertThat(repository.findById(boundaryId + 1).getEmail())
+                .isEqualTo("user" + boundaryId + "@example.com");
+        assertThat(repository.findById(boundaryId + 1).getAge()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should round-trip non-ASCII text and null fields")
+    void shouldRoundTripNonAsciiTextAndNullFields() {
+        // Given
+        UserDto user = new UserDto(null, "Zoë", "Ångström", "zoë@example.com", null, null);
+
+        // When
+        Long id = repository.insert(user);
+
+        // Then
+        UserDto found = repository.findById(id);
+        assertThat(found.getFirstName()).isEqualTo("Zoë");
+        assertThat(found.getLastName()).isEqualTo("Ångström");
+        assertThat(found.getEmail()).isEqualTo("zoë@example.com");
+        assertThat(found.getAge()).isNull();
+        assertThat(found.getPhoneNumber()).isNull();
+        assertThat(repository.insert(new UserDto(null, "Z", "A", "ZOË@example.com", null, null))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reclaim replaced string bytes by compacting")
+    void shouldReclaimReplacedStringBytesByCompacting() {
+        // Given
+        OffHeapUserRepository offHeapRepository = (OffHeapUserRepository) repository;
+        Long id = repository.insert(new UserDto(null, "User", "Test", "user@example.com", 30, null));
+        Long otherId = repository.insert(new UserDto(null, "Other", "Test", "other@example.com", 40, null));
+
+        // When
+        for (int i = 1; i <= 1_000; i++) {
+            repository.replace(id, new UserDto(null, "User", "Replaced" + i, "user" + i + "@example.com", i, null),
+                    UserRepository.ANY_VERSION);
+        }
+
+        // Then
+        assertThat(offHeapRepository.compactionCount()).isPositive();
+        assertThat(repository.indexSizes().get("deadStringBytes"))
+                .isLessThanOrEqualTo(Math.max(256, repository.indexSizes().get("stringBytes")));
+        UserDto user = repository.findById(id);
+        assertThat(user.getLastName()).isEqualTo("Replaced1000");
+        assertThat(user.getVersion()).isEqualTo(1_001);
+        assertThat(repository.findById(otherId).getEmail()).isEqualTo("other@example.com");
+        assertThat(repository.insert(new UserDto(null, "Copy", "Test", "user1000@example.com", 30, null))).isNull();
+        assertThat(repository.insert(new UserDto(null, "Reuse", "Test", "user999@example.com", 30, null))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should drop deleted slots by compacting and keep paging in ID order")
+    void shouldDropDeletedSlotsByCompacting() {
+        // Given
+        int total = OffHeapUserRepository.PAGE_SLOTS * 2;
+        for (int i = 1; i <= total; i++) {
+            repository.insert(new UserDto(null, "User", "Test", "user" + i + "@example.com", null, null));
+        }
+
+        // When
+        for (long id = 1; id <= total; id++) {
+            if (id % 100 != 0) {
+                repository.deleteById(id);
+            }
+        }
+
+        // Then
+        List<Long> expected = LongStream.rangeClosed(1, total).filter(id -> id % 100 == 0).boxed().toList();
+        Map<String, Long> sizes = repository.indexSizes();
+        assertThat(sizes.get("slots") - sizes.get("deadSlots")).isEqualTo(expected.size());
+        assertThat(sizes.get("slots")).isLessThan(total / 2);
+        assertThat(repository.findAll()).extracting(UserDto::getId).containsExactlyElementsOf(expected);
+        assertThat(repository.findPage(150, 2)).extracting(UserDto::getId).containsExactly(200L, 300L);
+        assertThat(repository.findById(300).getEmail()).isEqualTo("user300@example.com");
+        assertThat(repository.insert(new UserDto(null, "Copy", "Test", "USER300@example.com", null, null))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fail inserts cleanly once the string arena is full, and compact to make room")
+    void shouldFailInsertsOnceTheStringArenaIsFull() {
+        // Given two chunks of 64 bytes, which hold two users each
+        try (OffHeapUserRepository fullRepository = new OffHeapUserRepository(64, 2)) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                ids.add(fullRepository.insert(new UserDto(null, "User", "Test", "user" + i + "@example.com", i, null)));
+            }
+
+            // When
+            assertThatThrownBy(() -> fullRepository.insert(
+                    new UserDto(null, "User", "Test", "user4@example.com", 4, null)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Off-heap string arena is full");
+
+            // Then the failed insert left nothing behind
+            assertThat(fullRepository.count()).isEqualTo(4);
+            assertThat(fullRepository.indexSizes()).containsEntry("slots", 4L).containsEntry("deadStringBytes", 0L);
+            assertThat(fullRepository.findAll()).extracting(UserDto::getId).containsExactlyElementsOf(ids);
+            assertThat(fullRepository.findById(5)).isNull();
+
+            // And deleting a user makes room again
+            fullRepository.deleteById(ids.get(1));
+            Long id = fullRepository.insert(new UserDto(null, "User", "Test", "user4@example.com", 4, null));
+            assertThat(id).isNotNull();
+            assertThat(fullRepository.compactionCount()).isEqualTo(1);
+            assertThat(fullRepository.findById(id).getEmail()).isEqualTo("user4@example.com");
+            assertThat(fullRepository.findById(ids.get(2)).getAge()).isEqualTo(2);
+            assertThat(fullRepository.indexSizes()).containsEntry("slots", 4L).containsEntry("deadSlots", 0L);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository contract against {@link PartitionedUserRepository}.
+ */
+@DisplayName("Partitioned User Repository Tests")
+class PartitionedUserRepositoryTest extends UserRepositoryContractTest {
+
+    @Override
+    protected UserRepository createRepository() {
+        return new PartitionedUserRepository(4);
+    }
+
+    @Test
+    @DisplayName("Should merge the partitions into pages ordered by ID")
+    void shouldMergePartitionsIntoOrderedPages() {
+        // Given
+        for (int i = 1; i <= 200; i++) {
+            repository.insert(new UserDto(null, "User", "Test", "user" + i + "@example.com", 30, null));
+        }
+        for (long id = 10; id <= 200; id += 10) {
+            repository.deleteById(id);
+        }
+
+        // When
+        List<Long> paged = new ArrayList<>();
+        List<UserDto> page;
+        long cursor = 0;
+        do {
+            page = repository.findPage(cursor, 7);
+            for (UserDto user : page) {
+                paged.add(user.getId());
+                cursor = user.getId();
+            }
+        } while (page.size() == 7);
+
+        // Then
+        List<Long> expected = LongStream.rangeClosed(1, 200).filter(id -> id % 10 != 0).boxed().toList();
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(repository.findAll()).extracting(UserDto::getId).containsExactlyElementsOf(expected);
+        assertThat(repository.count()).isEqualTo(180);
+        assertThat(repository.indexSizes()).containsEntry("id", 180L).containsEntry("email", 180L);
+        assertThat(((PartitionedUserRepository) repository).partitionCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should give concurrent inserts gapless IDs in creation order, also past rejected inserts")
+    void shouldAllocateUniqueIdsAcrossThreads() throws InterruptedException {
+        // Given
+        int numberOfThreads = 16;
+        int insertsPerThread = 1_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        AtomicInteger accepted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < numberOfThreads; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                long previous = 0;
+                for (int i = 0; i < insertsPerThread; i++) {
+                    Long id = repository.insert(new UserDto(null, "User", "Test",
+                            "user" + thread + "-" + i + "@example.com", 30, null));
+                    if (id <= previous) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    ids.add(id);
+                    previous = id;
+                    // The email just taken, which must not use up an ID
+                    if (repository.insert(new UserDto(null, "User", "Test",
+                            "USER" + thread + "-" + i + "@example.com", 30, null)) != null) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(outOfOrder).hasValue(0);
+        assertThat(accepted).hasValue(0);
+        assertThat(ids).hasSize(numberOfThreads * insertsPerThread)
+                .containsExactlyInAnyOrderElementsOf(LongStream.rangeClosed(1, numberOfThreads * insertsPerThread)
+                        .boxed().toList());
+        assertThat(repository.count()).isEqualTo(numberOfThreads * insertsPerThread);
+        assertThat(repository.findAll()).extracting(UserDto::getId).isSorted().hasSize(ids.size());
+        assertThat(ids).allMatch(id -> repository.findById(id).getId().equals(id));
+    }
+}
@@ -0,0 +1,116 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.SerializedUserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the eviction and invalidation of {@link SerializedUserCacheRepository}.
+ */
+@DisplayName("Serialized User Cache Repository Tests")
+class SerializedUserCacheRepositoryTest {
+
+    private final AtomicInteger serializations = new AtomicInteger();
+    private final Function<UserDto, byte[]> serializer = user -> {
+        serializations.incrementAndGet();
+        return (user.getId() + ":" + user.getVersion()).getBytes(StandardCharsets.UTF_8);
+    };
+    private final LongFunction<UserDto> loader = SerializedUserCacheRepositoryTest::user;
+
+    @Test
+    @DisplayName("Should keep frequently read users while many cold users are read once")
+    void shouldKeepFrequentUsersThroughScan() {
+        // Given
+        SerializedUserCacheRepository cache = new SerializedUserCacheRepository(serializer, 100);
+        for (int round = 0; round < 10; round++) {
+            for (long id = 1; id <= 50; id++) {
+                cache.get(id, loader);
+            }
+        }
+
+        // When
+        for (long id = 1_000; id < 11_000; id++) {
+            cache.get(id, loader);
+            cache.get(1 + id % 50, loader);
+        }
+        long missesAfterScan = cache.missCount();
+        for (long id = 1; id <= 50; id++) {
+            cache.get(id, loader);
+        }
+
+        // Then
+        assertThat(cache.missCount()).isEqualTo(missesAfterScan);
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.evictionCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should serialize a user again only after it is invalidated")
+    void shouldSerializeAgainAfterInvalidation() {
+        // Given
+        SerializedUserCacheRepository cache = new SerializedUserCacheRepository(serializer, 100);
+        SerializedUserDto first = cache.get(7, loader);
+
+        // When
+        SerializedUserDto hit = cache.get(7, loader);
+        cache.invalidate(7);
+        SerializedUserDto reloaded = cache.get(7, loader);
+
+        // Then
+        assertThat(hit).isSameAs(first);
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(serializations).hasValue(2);
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.weight()).isEqualTo(reloaded.getJson().length);
+        assertThat(cache.get(-1, id -> null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache a user written while it was being loaded")
+    void shouldNotCacheUserWrittenDuringLoad() {
+        // Given
+        SerializedUserCacheRepository cache = new SerializedUserCacheRepository(serializer, 100);
+
+        // When
+        SerializedUserDto loaded = cache.get(7, id -> {
+            UserDto user = user(id);
+            cache.invalidate(id);
+            return user;
+        });
+
+        // Then
+        assertThat(loaded).isNotNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.weight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should serialize every lookup when caching is disabled")
+    void shouldSerializeEveryLookupWhenDisabled() {
+        // Given
+        SerializedUserCacheRepository cache = new SerializedUserCacheRepository(serializer, 0);
+
+        // When
+        cache.get(7, loader);
+        cache.get(7, loader);
+
+        // Then
+        assertThat(serializations).hasValue(2);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    private static UserDto user(long id) {
+        UserDto user = new UserDto(id, "User", "Number", "user" + id + "@example.com", 30, null);
+        user.setVersion(1);
+        return user;
+    }
+}
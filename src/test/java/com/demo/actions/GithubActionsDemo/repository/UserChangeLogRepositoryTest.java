@@ -0,0 +1,226 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the retention, resync and listeners of {@link UserChangeLogRepository}.
+ */
+@DisplayName("User Change Log Repository Tests")
+class UserChangeLogRepositoryTest {
+
+    private static final long FIRST = 1_000L;
+
+    private final LongFunction<UserDto> loader =
+            id -> new UserDto(id, "User", "Log", "user" + id + "@log.test", 30, null);
+
+    @Test
+    @DisplayName("Should return changes in order after a sequence number, in pages")
+    void shouldReturnChangesInOrder() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+        log.append(UserChangeDto.Type.CREATED, 1L, loader);
+        log.append(UserChangeDto.Type.UPDATED, 1L, loader);
+        log.append(UserChangeDto.Type.DELETED, 1L, loader);
+
+        // When
+        UserChangesDto first = log.read(FIRST, 2);
+        UserChangesDto rest = log.read(first.getSequence(), 2);
+        UserChangesDto none = log.read(rest.getSequence(), 2);
+
+        // Then
+        assertThat(first.getChanges()).extracting(UserChangeDto::getSequence).containsExactly(FIRST + 1, FIRST + 2);
+        assertThat(first.getChanges()).extracting(UserChangeDto::getType)
+                .containsExactly(UserChangeDto.Type.CREATED, UserChangeDto.Type.UPDATED);
+        assertThat(first.getChanges().get(0).getUser().getEmail()).isEqualTo("user1@log.test");
+        assertThat(rest.getChanges()).singleElement().satisfies(change -> {
+            assertThat(change.getType()).isEqualTo(UserChangeDto.Type.DELETED);
+            assertThat(change.getUser()).isNull();
+        });
+        assertThat(none.getChanges()).isEmpty();
+        assertThat(none.getSequence()).isEqualTo(FIRST + 3).isEqualTo(log.lastSequence());
+        assertThat(none.isResyncRequired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should record a change to a user that no longer exists as a deletion")
+    void shouldRecordMissingUserAsDeletion() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+
+        // When
+        log.append(UserChangeDto.Type.UPDATED, 5L, id -> null);
+
+        // Then
+        assertThat(log.read(FIRST, 10).getChanges()).singleElement()
+                .extracting(UserChangeDto::getType).isEqualTo(UserChangeDto.Type.DELETED);
+    }
+
+    @Test
+    @DisplayName("Should require a resync for changes that are no longer retained or from another run")
+    void shouldRequireResyncOutsideRetention() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(5, FIRST);
+        for (long id = 1; id <= 10; id++) {
+            log.append(UserChangeDto.Type.CREATED, id, loader);
+        }
+
+        // When & Then
+        assertThat(log.size()).isEqualTo(8);
+        assertThat(log.read(FIRST + 2, 100).getChanges()).hasSize(8);
+        for (long since : new long[] {FIRST + 1, FIRST - 1, FIRST + 11}) {
+            UserChangesDto changes = log.read(since, 100);
+            assertThat(changes.isResyncRequired()).as("since %d", since).isTrue();
+            assertThat(changes.getChanges()).isEmpty();
+            assertThat(changes.getSequence()).isEqualTo(FIRST + 10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run waiting listeners once after the next change")
+    void shouldRunListenersAfterNextChange() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger cancelledRuns = new AtomicInteger();
+        Runnable listener = runs::incrementAndGet;
+        Runnable cancelled = cancelledRuns::incrementAndGet;
+
+        // When
+        assertThat(log.awaitAfter(FIRST, listener)).isTrue();
+        assertThat(log.awaitAfter(FIRST, cancelled)).isTrue();
+        log.cancel(cancelled);
+        log.append(UserChangeDto.Type.CREATED, 1L, loader);
+        log.append(UserChangeDto.Type.CREATED, 2L, loader);
+
+        // Then
+        assertThat(runs).hasValue(1);
+        assertThat(cancelledRuns).hasValue(0);
+        assertThat(log.listenerCount()).isZero();
+        assertThat(log.awaitAfter(FIRST, listener)).isFalse();
+        assertThat(log.listenerCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not run a listener registered for the change being published")
+    void shouldKeepListenerRegisteredForNewChange() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+        AtomicInteger runs = new AtomicInteger();
+        Runnable[] reregister = new Runnable[1];
+        reregister[0] = () -> {
+            runs.incrementAndGet();
+            log.awaitAfter(log.lastSequence(), reregister[0]);
+        };
+        log.awaitAfter(FIRST, reregister[0]);
+
+        // When
+        log.append(UserChangeDto.Type.CREATED, 1L, loader);
+
+        // Then
+        assertThat(runs).hasValue(1);
+        assertThat(log.listenerCount()).isOne();
+    }
+
+    @Test
+    @DisplayName("Should not hold up other appends while a user is loaded, nor publish past it")
+    void shouldAppendWhileAnotherAppendLoadsItsUser() throws Exception {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread slow = Thread.ofPlatform().start(() -> log.append(UserChangeDto.Type.UPDATED, 1L, id -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(id);
+        }));
+        loading.await();
+
+        // When
+        long sequence = log.append(UserChangeDto.Type.CREATED, 2L, loader);
+
+        // Then
+        assertThat(sequence).isEqualTo(FIRST + 2);
+        assertThat(log.lastSequence()).isEqualTo(FIRST);
+        assertThat(log.read(FIRST, 10).getChanges()).isEmpty();
+
+        release.countDown();
+        slow.join();
+        assertThat(log.lastSequence()).isEqualTo(FIRST + 2);
+        assertThat(log.read(FIRST, 10).getChanges()).extracting(UserChangeDto::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should keep publishing changes after loading a user fails")
+    void shouldPublishPastFailedLoad() {
+        // Given
+        UserChangeLogRepository log = new UserChangeLogRepository(16, FIRST);
+
+        // When
+        assertThatThrownBy(() -> log.append(UserChangeDto.Type.UPDATED, 1L, id -> {
+            throw new IllegalStateException("Store unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+        log.append(UserChangeDto.Type.CREATED, 2L, loader);
+
+        // Then
+        List<UserChangeDto> changes = log.read(FIRST, 10).getChanges();
+        assertThat(changes).extracting(UserChangeDto::getId).containsExactly(1L, 2L);
+        assertThat(changes.get(0).getType()).isEqualTo(UserChangeDto.Type.UPDATED);
+        assertThat(changes.get(0).getUser()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should give concurrent writers gapless sequence numbers and readers every change once")
+    void shouldKeepChangesGaplessUnderConcurrentAppends() throws Exception {
+        // Given
+        int writers = 4;
+        int changesPerWriter = 10_000;
+        UserChangeLogRepository log = new UserChangeLogRepository(writers * changesPerWriter, FIRST);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long base = w * 1_000_000L;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long id = base; id < base + changesPerWriter; id++) {
+                    log.append(UserChangeDto.Type.CREATED, id, loader);
+                }
+            }));
+        }
+
+        // When
+        Set<Long> seen = new HashSet<>();
+        long cursor = FIRST;
+        while (cursor < FIRST + (long) writers * changesPerWriter) {
+            UserChangesDto changes = log.read(cursor, 1000);
+            assertThat(changes.isResyncRequired()).isFalse();
+            for (UserChangeDto change : changes.getChanges()) {
+                assertThat(change.getSequence()).isEqualTo(++cursor);
+                assertThat(seen.add(change.getId())).isTrue();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(seen).hasSize(writers * changesPerWriter);
+        assertThat(log.lastSequence()).isEqualTo(cursor);
+    }
+}
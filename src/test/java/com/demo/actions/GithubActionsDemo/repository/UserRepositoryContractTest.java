@@ -0,0 +1,242 @@
+package com.demo.actions.GithubActionsDemo.repository;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
+import com.demo.actions.GithubActionsDemo.exception.UserVersionConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Contract tests every {@link UserRepository} backend must pass.
+ *
+ * <p>Each backend gets a concrete subclass that only supplies a fresh,
+ * empty repository.
+ */
+abstract class UserRepositoryContractTest {
+
+    protected UserRepository repository;
+
+    /**
+     * Create a fresh, empty repository for a single test.
+     *
+     * @return the repository under test
+     */
+    protected abstract UserRepository createRepository();
+
+    @BeforeEach
+    void setUpRepository() {
+        repository = createRepository();
+    }
+
+    private static UserDto user(String firstName, String email) {
+        return new UserDto(null, firstName, "Test", email, 30, "+15551234567");
+    }
+
+    @Test
+    @DisplayName("Should assign increasing IDs on insert and find users by ID")
+    void shouldAssignIncreasingIdsAndFindById() {
+        // When
+        UserDto first = user("Alice", "alice@example.com");
+        UserDto second = user("Bob", "bob@example.com");
+        Long firstId = repository.insert(first);
+        Long secondId = repository.insert(second);
+
+        // Then
+        assertThat(firstId).isNotNull();
+        assertThat(secondId).isGreaterThan(firstId);
+        assertThat(first.getId()).isEqualTo(firstId);
+        UserDto found = repository.findById(secondId);
+        assertThat(found.getFirstName()).isEqualTo("Bob");
+        assertThat(found.getLastName()).isEqualTo("Test");
+        assertThat(found.getEmail()).isEqualTo("bob@example.com");
+        assertThat(found.getAge()).isEqualTo(30);
+        assertThat(found.getPhoneNumber()).isEqualTo("+15551234567");
+        assertThat(repository.existsById(firstId)).isTrue();
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return null and false for missing users")
+    void shouldReturnNullForMissingUsers() {
+        assertThat(repository.findById(999L)).isNull();
+        assertThat(repository.existsById(999L)).isFalse();
+        assertThat(repository.replace(999L, user("Nobody", "nobody@example.com"))).isNull();
+        assertThat(repository.deleteById(999L)).isNull();
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep null optional fields")
+    void shouldKeepNullOptionalFields() {
+        // When
+        Long id = repository.insert(new UserDto(null, "Alice", "Test", "alice@example.com", 30, null));
+
+        // Then
+        assertThat(repository.findById(id).getPhoneNumber()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject inserting a duplicate email regardless of case")
+    void shouldRejectDuplicateEmailOnInsert() {
+        // Given
+        repository.insert(user("Alice", "alice@example.com"));
+
+        // When & Then
+        assertThat(repository.insert(user("Alicia", " Alice@Example.com"))).isNull();
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should replace users and return the previous version")
+    void shouldReplaceUsersAndReturnPreviousVersion() {
+        // Given
+        Long id = repository.insert(user("Alice", "alice@example.com"));
+
+        // When
+        UserDto previous = repository.replace(id, user("Alicia", "alicia@example.com"));
+
+        // Then
+        assertThat(previous.getFirstName()).isEqualTo("Alice");
+        assertThat(repository.findById(id).getFirstName()).isEqualTo("Alicia");
+        assertThat(repository.insert(user("Other", "alice@example.com"))).isNotNull();
+        assertThat(repository.insert(user("Other", "alicia@example.com"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject replacing with another user's email")
+    void shouldRejectReplacingWithAnotherUsersEmail() {
+        // Given
+        Long aliceId = repository.insert(user("Alice", "alice@example.com"));
+        repository.insert(user("Bob", "bob@example.com"));
+
+        // When & Then
+        assertThatThrownBy(() -> repository.replace(aliceId, user("Alice", "bob@example.com")))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("User with email bob@example.com already exists");
+        assertThat(repository.findById(aliceId).getEmail()).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    @DisplayName("Should delete users and release their email")
+    void shouldDeleteUsersAndReleaseEmail() {
+        // Given
+        Long id = repository.insert(user("Alice", "alice@example.com"));
+
+        // When
+        UserDto deleted = repository.deleteById(id);
+
+        // Then
+        assertThat(deleted.getEmail()).isEqualTo("alice@example.com");
+        assertThat(repository.existsById(id)).isFalse();
+        assertThat(repository.count()).isZero();
+        assertThat(repository.insert(user("Alice", "alice@example.com"))).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should list users in ID order and page through them")
+    void shouldListAndPageUsersInIdOrder() {
+        // Given
+        Long first = repository.insert(user("Alice", "alice@example.com"));
+        Long second = repository.insert(user("Bob", "bob@example.com"));
+        Long third = repository.insert(user("Carol", "carol@example.com"));
+        repository.deleteById(second);
+
+        // When
+        List<UserDto> all = repository.findAll();
+        List<UserDto> firstPage = repository.findPage(0L, 1);
+        List<UserDto> secondPage = repository.findPage(first, 10);
+
+        // Then
+        assertThat(all).extracting(UserDto::getId).containsExactly(first, third);
+        assertThat(firstPage).extracting(UserDto::getId).containsExactly(first);
+        assertThat(secondPage).extracting(UserDto::getId).containsExactly(third);
+    }
+
+    @Test
+    @DisplayName("Should allow only one of many concurrent inserts with the same email")
+    void shouldAllowOnlyOneConcurrentInsertWithSameEmail() throws InterruptedException {
+        // Given
+        int numberOfThreads = 8;
+        Thread[] threads = new Thread[numberOfThreads];
+        AtomicInteger inserted = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                if (repository.insert(user("User" + index, "same@example.com")) != null) {
+                    inserted.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(inserted.get()).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should version users and reject replaces of a stale version")
+    void shouldVersionUsersAndRejectStaleReplace() {
+        // Given
+        UserDto alice = user("Alice", "alice@example.com");
+        Long id = repository.insert(alice);
+
+        // When
+        UserDto update = user("Alicia", "alice@example.com");
+        repository.replace(id, update, 1L);
+
+        // Then
+        assertThat(alice.getVersion()).isEqualTo(1L);
+        assertThat(update.getVersion()).isEqualTo(2L);
+        assertThat(repository.findById(id).getVersion()).isEqualTo(2L);
+        assertThatThrownBy(() -> repository.replace(id, user("Stale", "alice@example.com"), 1L))
+                .isInstanceOf(UserVersionConflictException.class)
+                .extracting(e -> ((UserVersionConflictException) e).getCurrentVersion()).isEqualTo(2L);
+        assertThat(repository.findById(id).getFirstName()).isEqualTo("Alicia");
+        assertThat(repository.replace(id, user("Any", "alice@example.com")).getVersion()).isEqualTo(2L);
+        assertThat(repository.findById(id).getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Should let only one of many concurrent conditional replaces win")
+    void shouldLetOnlyOneConcurrentConditionalReplaceWin() throws InterruptedException {
+        // Given
+        Long id = repository.insert(user("Alice", "alice@example.com"));
+        int numberOfThreads = 8;
+        Thread[] threads = new Thread[numberOfThreads];
+        AtomicInteger replaced = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    repository.replace(id, user("User" + index, "alice@example.com"), 1L);
+                    replaced.incrementAndGet();
+                } catch (UserVersionConflictException e) {
+                    // Another writer got there first
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(replaced.get()).isEqualTo(1);
+        assertThat(repository.findById(id).getVersion()).isEqualTo(2L);
+    }
+}
@@ -1,14 +1,33 @@
 package com.demo.actions.GithubActionsDemo.service;
 
+import com.demo.actions.GithubActionsDemo.dto.BatchItemResultDto;
+import com.demo.actions.GithubActionsDemo.dto.SerializedUserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangeDto;
+import com.demo.actions.GithubActionsDemo.dto.UserChangesDto;
 import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import com.demo.actions.GithubActionsDemo.dto.UserSearchCriteriaDto;
+import com.demo.actions.GithubActionsDemo.exception.UserAlreadyExistsException;
 import com.demo.actions.GithubActionsDemo.exception.UserNotFoundException;
+import com.demo.actions.GithubActionsDemo.exception.UserSearchDisabledException;
+import com.demo.actions.GithubActionsDemo.repository.InMemoryUserRepository;
+import com.demo.actions.GithubActionsDemo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,7 +49,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService();
+        userService = searchableService(new InMemoryUserRepository(), new SimpleMeterRegistry());
         
         testUser1 = new UserDto(null, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567");
         testUser2 = new UserDto(null, "Jane", "Smith", "jane.smith@example.com", 25, "+1-555-987-6543");
@@ -113,6 +132,41 @@ class UserServiceTest {
                 .hasMessage("User not found with ID: 999");
     }
 
+    @Test
+    @DisplayName("Should find users by ID without throwing for missing ones")
+    void shouldFindUserByIdWithoutThrowing() {
+        // Given
+        UserDto createdUser = userService.createUser(testUser1);
+
+        // When & Then
+        assertThat(userService.findUserById(createdUser.getId())).contains(createdUser);
+        assertThat(userService.findUserById(999L)).isEmpty();
+        assertThat(UserNotFoundException.forId(999L).getStackTrace()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve serialized users from the cache until they are written")
+    void shouldServeSerializedUsersFromCacheUntilWritten() throws Exception {
+        // Given
+        UserDto createdUser = userService.createUser(testUser1);
+        SerializedUserDto first = userService.findSerializedUser(createdUser.getId()).orElseThrow();
+
+        // When
+        SerializedUserDto second = userService.findSerializedUser(createdUser.getId()).orElseThrow();
+        UserDto updatedUser = userService.updateUser(createdUser.getId(),
+                new UserDto(null, "John", "Updated", "john.doe@example.com", 31, null));
+        SerializedUserDto afterUpdate = userService.findSerializedUser(createdUser.getId()).orElseThrow();
+
+        // Then
+        assertThat(second.getJson()).isSameAs(first.getJson());
+        assertThat(new ObjectMapper().readValue(first.getJson(), UserDto.class).getLastName()).isEqualTo("Doe");
+        assertThat(afterUpdate.getVersion()).isEqualTo(updatedUser.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(new ObjectMapper().readValue(afterUpdate.getJson(), UserDto.class).getLastName()).isEqualTo("Updated");
+
+        userService.deleteUser(createdUser.getId());
+        assertThat(userService.findSerializedUser(createdUser.getId())).isEmpty();
+    }
+
     @Test
     @DisplayName("Should update user successfully")
     void shouldUpdateUserSuccessfully() {
@@ -212,6 +266,87 @@ class UserServiceTest {
         assertThat(allUsers).containsExactlyInAnyOrder(createdUser1, createdUser2);
     }
 
+    @Test
+    @DisplayName("Should return users page by page ordered by ID")
+    void shouldReturnUsersPageByPageOrderedById() {
+        // Given
+        UserDto createdUser1 = userService.createUser(testUser1);
+        UserDto createdUser2 = userService.createUser(testUser2);
+        UserDto createdUser3 = userService.createUser(
+                new UserDto(null, "Alice", "Johnson", "alice.johnson@example.com", 28, "+15551112222"));
+        userService.deleteUser(createdUser2.getId());
+
+        // When
+        List<UserDto> firstPage = userService.getUsersPage(0L, 1);
+        List<UserDto> secondPage = userService.getUsersPage(firstPage.get(0).getId(), 1);
+        List<UserDto> lastPage = userService.getUsersPage(secondPage.get(0).getId(), 1);
+
+        // Then
+        assertThat(firstPage).containsExactly(createdUser1);
+        assertThat(secondPage).containsExactly(createdUser3);
+        assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should create users in batch and report conflicts per item")
+    void shouldCreateUsersInBatchAndReportConflictsPerItem() {
+        // Given
+        userService.createUser(testUser1);
+        UserDto storeConflict = new UserDto(null, "John", "Again", "john.doe@example.com", 30, null);
+        UserDto batchConflict = new UserDto(null, "Jane", "Again", "JANE.SMITH@example.com", 25, null);
+
+        // When
+        List<BatchItemResultDto> results = userService.createUsers(List.of(testUser2, storeConflict, batchConflict));
+
+        // Then
+        assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(
+                BatchItemResultDto.Status.CREATED,
+                BatchItemResultDto.Status.CONFLICT,
+                BatchItemResultDto.Status.CONFLICT);
+        assertThat(results).extracting(BatchItemResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(0).getId()).isEqualTo(testUser2.getId());
+        assertThat(results.get(2).getErrors()).containsExactly("Duplicate email JANE.SMITH@example.com within batch");
+        assertThat(userService.getUserCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should update users in batch and report missing users")
+    void shouldUpdateUsersInBatchAndReportMissingUsers() {
+        // Given
+        UserDto createdUser1 = userService.createUser(testUser1);
+        UserDto createdUser2 = userService.createUser(testUser2);
+        UserDto update1 = new UserDto(createdUser1.getId(), "John", "Updated", "john.doe@example.com", 31, null);
+        UserDto conflicting = new UserDto(createdUser2.getId(), "Jane", "Smith", "john.doe@example.com", 25, null);
+        UserDto missing = new UserDto(999L, "Nobody", "Here", "nobody@example.com", 40, null);
+
+        // When
+        List<BatchItemResultDto> results = userService.updateUsers(List.of(update1, conflicting, missing));
+
+        // Then
+        assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(
+                BatchItemResultDto.Status.UPDATED,
+                BatchItemResultDto.Status.CONFLICT,
+                BatchItemResultDto.Status.NOT_FOUND);
+        assertThat(userService.getUserById(createdUser1.getId()).getLastName()).isEqualTo("Updated");
+        assertThat(userService.getUserById(createdUser2.getId()).getEmail()).isEqualTo("jane.smith@example.com");
+    }
+
+    @Test
+    @DisplayName("Should delete users in batch and report missing users")
+    void shouldDeleteUsersInBatchAndReportMissingUsers() {
+        // Given
+        UserDto createdUser = userService.createUser(testUser1);
+
+        // When
+        List<BatchItemResultDto> results = userService.deleteUsers(List.of(createdUser.getId(), 999L));
+
+        // Then
+        assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(
+                BatchItemResultDto.Status.DELETED,
+                BatchItemResultDto.Status.NOT_FOUND);
+        assertThat(userService.getUserCount()).isZero();
+    }
+
     @Test
     @DisplayName("Should return correct user count")
     void shouldReturnCorrectUserCount() {
@@ -269,4 +404,459 @@ class UserServiceTest {
         List<UserDto> allUsers = userService.getAllUsers();
         assertThat(allUsers).extracting("id").doesNotHaveDuplicates();
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should treat emails differing only in case as duplicates")
+    void shouldTreatEmailsDifferingOnlyInCaseAsDuplicates() {
+        // Given
+        userService.createUser(testUser1);
+        UserDto upperCaseEmailUser = new UserDto(null, "Jane", "Doe", "John.Doe@Example.com", 25, "+1-555-987-6543");
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(upperCaseEmailUser))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("User with email John.Doe@Example.com already exists");
+    }
+
+    @Test
+    @DisplayName("Should ignore case and surrounding spaces when updating to another user's email")
+    void shouldRejectUpdateToEmailDifferingOnlyInCase() {
+        // Given
+        userService.createUser(testUser1);
+        UserDto jane = userService.createUser(testUser2);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.updateUser(jane.getId(),
+                new UserDto(null, "Jane", "Smith", " JOHN.DOE@example.COM ", 25, "+1-555-987-6543")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+        UserDto renamed = userService.updateUser(jane.getId(),
+                new UserDto(null, "Jane", "Smith", "Jane.Smith@Example.com", 25, "+1-555-987-6543"));
+        assertThat(renamed.getEmail()).isEqualTo("Jane.Smith@Example.com");
+    }
+
+    @Test
+    @DisplayName("Should release email when user is deleted")
+    void shouldReleaseEmailWhenUserIsDeleted() {
+        // Given
+        UserDto createdUser = userService.createUser(testUser1);
+        userService.deleteUser(createdUser.getId());
+
+        // When
+        UserDto recreatedUser = userService.createUser(
+                new UserDto(null, "John", "Doe", "john.doe@example.com", 30, "+1-555-123-4567"));
+
+        // Then
+        assertThat(recreatedUser.getId()).isNotEqualTo(createdUser.getId());
+        assertThat(userService.getUserCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should release old email when user email is updated")
+    void shouldReleaseOldEmailWhenUserEmailIsUpdated() {
+        // Given
+        UserDto createdUser = userService.createUser(testUser1);
+        userService.updateUser(createdUser.getId(),
+                new UserDto(null, "John", "Doe", "john.new@example.com", 30, "+1-555-123-4567"));
+
+        // When
+        UserDto otherUser = userService.createUser(
+                new UserDto(null, "Jim", "Doe", "john.doe@example.com", 40, "+1-555-123-4567"));
+
+        // Then
+        assertThat(otherUser.getId()).isNotNull();
+        assertThatThrownBy(() -> userService.createUser(
+                new UserDto(null, "Jim", "Doe", "john.new@example.com", 40, "+1-555-123-4567")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    @DisplayName("Should allow only one of many concurrent creates with the same email")
+    void shouldAllowOnlyOneConcurrentCreateWithSameEmail() throws InterruptedException {
+        // Given
+        int numberOfThreads = 16;
+        Thread[] threads = new Thread[numberOfThreads];
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < numberOfThreads; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> {
+                UserDto user = new UserDto(null, "User" + index, "Test", "same@test.com", 20 + index, "+15550000000");
+                try {
+                    userService.createUser(user);
+                } catch (UserAlreadyExistsException e) {
+                    conflicts.incrementAndGet();
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(userService.getUserCount()).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(numberOfThreads - 1);
+    }
+
+    @Test
+    @DisplayName("Should search users by intersecting name, age and email domain indexes")
+    void shouldSearchUsersByIntersectingIndexes() {
+        // Given
+        UserDto john = userService.createUser(testUser1);
+        UserDto jane = userService.createUser(testUser2);
+        UserDto dora = userService.createUser(new UserDto(null, "Dora", "Dorsey", "dora@Example.com", 41, null));
+        userService.createUser(new UserDto(null, "Mark", "Doyle", "mark@other.org", 35, null));
+
+        // When & Then
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "do", null, null, null), 0L, 10))
+                .extracting(UserDto::getLastName).containsExactly("Doe", "Dorsey", "Doyle");
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "Do", 30, 45, "example.com"), 0L, 10))
+                .containsExactly(john, dora);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "Do", 30, 45, "example.com"), john.getId(), 10))
+                .containsExactly(dora);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto("ja", null, null, 25, null), 0L, 10))
+                .containsExactly(jane);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(), 0L, 2)).containsExactly(john, jane);
+    }
+
+    @Test
+    @DisplayName("Should page through search results merged across many indexed values")
+    void shouldPageThroughSearchResultsAcrossIndexedValues() {
+        // Given users whose names and ages spread over many index values
+        for (int i = 0; i < 200; i++) {
+            userService.createUser(new UserDto(null, "Ann" + "abcdefg".charAt(i % 7), "Doe" + "abcdefghijk".charAt(i % 11),
+                    "user" + i + (i % 3 == 0 ? "@example.com" : "@other.org"), 20 + i % 40, null));
+        }
+        UserSearchCriteriaDto criteria = new UserSearchCriteriaDto("ann", "doe", 25, 45, "example.com");
+
+        // When
+        List<Long> paged = new ArrayList<>();
+        List<UserDto> page;
+        long cursor = 0;
+        do {
+            page = userService.searchUsers(criteria, cursor, 3);
+            for (UserDto user : page) {
+                paged.add(user.getId());
+                cursor = user.getId();
+            }
+        } while (page.size() == 3);
+
+        // Then
+        List<Long> expected = LongStream.rangeClosed(1, 200)
+                .filter(id -> (id - 1) % 3 == 0 && 20 + (id - 1) % 40 >= 25 && 20 + (id - 1) % 40 <= 45)
+                .boxed().toList();
+        assertThat(paged).isNotEmpty().containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should search name prefixes starting more names than are merged")
+    void shouldSearchPrefixesOfManyNames() {
+        // Given more distinct last names starting with "smith" than a prefix merges
+        for (int i = 0; i < 100; i++) {
+            userService.createUser(new UserDto(null, "Ann", "Smith" + i, "smith" + i + "@example.com", 30, null));
+        }
+        userService.createUser(new UserDto(null, "Sam", "Smyth", "smyth@example.com", 30, null));
+
+        // When & Then
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "s", null, null, null), 0L, 200))
+                .hasSize(101);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "smith", null, null, null), 0L, 200))
+                .hasSize(100);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "smith4", null, null, null), 0L, 200))
+                .extracting(UserDto::getLastName).containsExactly("Smith4",
+                        "Smith40", "Smith41", "Smith42", "Smith43", "Smith44",
+                        "Smith45", "Smith46", "Smith47", "Smith48", "Smith49");
+    }
+
+    @Test
+    @DisplayName("Should keep search indexes up to date on update and delete")
+    void shouldKeepSearchIndexesUpToDate() {
+        // Given
+        UserDto john = userService.createUser(testUser1);
+        UserDto jane = userService.createUser(testUser2);
+
+        // When
+        userService.updateUser(john.getId(), new UserDto(null, "John", "Smithers", "john@corp.com", 52, null));
+        userService.deleteUser(jane.getId());
+
+        // Then
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "doe", null, null, null), 0L, 10)).isEmpty();
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, "smi", null, null, null), 0L, 10))
+                .extracting(UserDto::getEmail).containsExactly("john@corp.com");
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, null, 50, null, "CORP.com"), 0L, 10))
+                .hasSize(1);
+        assertThat(userService.searchUsers(new UserSearchCriteriaDto(null, null, null, null, "example.com"), 0L, 10))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should index users already in the store on startup")
+    void shouldIndexExistingUsersOnStartup() {
+        // Given
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        repository.insert(testUser1);
+        repository.insert(testUser2);
+
+        // When
+        UserService restartedService = searchableService(repository, new SimpleMeterRegistry());
+
+        // Then
+        assertThat(restartedService.searchUsers(new UserSearchCriteriaDto("j", null, 26, null, null), 0L, 10))
+                .extracting(UserDto::getFirstName).containsExactly("John");
+    }
+
+    @Test
+    @DisplayName("Should reject searches and keep no search index unless searches are enabled")
+    void shouldRejectSearchesWhenDisabled() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService service = new UserService(new InMemoryUserRepository(), meterRegistry);
+
+        // When
+        UserDto john = service.createUser(testUser1);
+        service.updateUser(john.getId(), new UserDto(null, "Johnny", "Doe", "johnny@example.com", 31, null));
+
+        // Then
+        assertThatThrownBy(() -> service.searchUsers(new UserSearchCriteriaDto(null, "do", null, null, null), 0L, 10))
+                .isInstanceOf(UserSearchDisabledException.class);
+        assertThatThrownBy(() -> service.searchUsersByText("jonny", 10))
+                .isInstanceOf(UserSearchDisabledException.class);
+        assertThat(meterRegistry.find("users.index.size").tag("index", "lastName").gauge()).isNull();
+        assertThat(meterRegistry.find("users.index.size").tag("index", "text").gauge()).isNull();
+        assertThat(service.getUserById(john.getId()).getFirstName()).isEqualTo("Johnny");
+    }
+
+    @Test
+    @DisplayName("Should rank users by text similarity despite typos")
+    void shouldRankUsersByTextSimilarityDespiteTypos() {
+        // Given
+        userService.createUser(testUser1);
+        UserDto jane = userService.createUser(testUser2);
+        UserDto jonathan = userService.createUser(new UserDto(null, "Jonathan", "Smithson", "jon@corp.com", 45, null));
+
+        // When & Then
+        assertThat(userService.searchUsersByText("jonathon smithsen", 10)).first().isEqualTo(jonathan);
+        assertThat(userService.searchUsersByText("Jane Smtih", 1)).containsExactly(jane);
+        assertThat(userService.searchUsersByText("corp", 10)).first().isEqualTo(jonathan);
+        assertThat(userService.searchUsersByText("?!", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the text index up to date on update and delete")
+    void shouldKeepTextIndexUpToDate() {
+        // Given
+        UserDto john = userService.createUser(testUser1);
+        UserDto jane = userService.createUser(testUser2);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            userService.updateUser(john.getId(), new UserDto(null, "Johnny", "Walker" + (char) ('a' + i),
+                    "johnny@example.com", 30, null));
+        }
+        userService.deleteUser(jane.getId());
+
+        // Then
+        assertThat(userService.searchUsersByText("walkerj", 10))
+                .extracting(UserDto::getLastName).containsExactly("Walkerj");
+        assertThat(userService.searchUsersByText("Doe", 10)).isEmpty();
+        assertThat(userService.searchUsersByText("Jane Smith", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should advance the modification count on every successful write only")
+    void shouldAdvanceModificationCountOnWrites() {
+        // Given
+        long initial = userService.getModificationCount();
+
+        // When
+        UserDto john = userService.createUser(testUser1);
+        long afterCreate = userService.getModificationCount();
+        assertThatThrownBy(() -> userService.createUser(new UserDto(null, "John", "Again",
+                testUser1.getEmail(), 30, null))).isInstanceOf(UserAlreadyExistsException.class);
+        assertThatThrownBy(() -> userService.deleteUser(999L)).isInstanceOf(UserNotFoundException.class);
+        userService.getAllUsers();
+        long afterFailures = userService.getModificationCount();
+        userService.updateUser(john.getId(), new UserDto(null, "Johnny", "Doe", "johnny@example.com", 31, null));
+        userService.createUsers(List.of(testUser2));
+        userService.deleteUser(john.getId());
+
+        // Then
+        assertThat(afterCreate).isGreaterThan(initial);
+        assertThat(afterFailures).isEqualTo(afterCreate);
+        assertThat(userService.getModificationCount()).isEqualTo(afterCreate + 3);
+    }
+
+    @Test
+    @DisplayName("Should record every successful write as a change and require a resync after a restart")
+    void shouldRecordChangesForWrites() {
+        // Given
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        UserService service = new UserService(repository);
+        long initial = service.getModificationCount();
+
+        // When
+        UserDto john = service.createUser(testUser1);
+        service.updateUser(john.getId(), new UserDto(null, "Johnny", "Doe", "johnny@example.com", 31, null));
+        service.createUsers(List.of(testUser2));
+        service.deleteUser(john.getId());
+        UserChangesDto changes = service.getChanges(initial, 100);
+        UserService restartedService = new UserService(repository);
+
+        // Then
+        assertThat(changes.isResyncRequired()).isFalse();
+        assertThat(changes.getSequence()).isEqualTo(service.getModificationCount());
+        assertThat(changes.getChanges()).extracting(UserChangeDto::getType).containsExactly(
+                UserChangeDto.Type.CREATED, UserChangeDto.Type.UPDATED,
+                UserChangeDto.Type.CREATED, UserChangeDto.Type.DELETED);
+        assertThat(changes.getChanges()).extracting(UserChangeDto::getId)
+                .containsExactly(john.getId(), john.getId(), testUser2.getId(), john.getId());
+        assertThat(changes.getChanges().get(1).getUser().getEmail()).isEqualTo("johnny@example.com");
+        assertThat(service.getChanges(changes.getSequence(), 100).getChanges()).isEmpty();
+        assertThat(restartedService.getChanges(restartedService.getModificationCount(), 100).getChanges()).isEmpty();
+        assertThat(restartedService.getChanges(initial, 100).isResyncRequired()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should apply pipelined writes, their failures and their changes like direct writes")
+    void shouldApplyPipelinedWritesLikeDirectWrites() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService service = new UserService(new InMemoryUserRepository(), meterRegistry, new ObjectMapper(),
+                UserService.DEFAULT_RESPONSE_CACHE_SIZE, UserService.DEFAULT_CHANGE_LOG_RETENTION, "pipelined", true);
+        long initial = service.getModificationCount();
+
+        try {
+            // When
+            UserDto john = service.createUser(testUser1);
+            CompletableFuture<UserDto> jane = service.createUserAsync(testUser2);
+            CompletableFuture<UserDto> duplicate = service.createUserAsync(
+                    new UserDto(null, "Other", "Doe", "JOHN.DOE@example.com", 40, null));
+            service.updateUser(john.getId(), new UserDto(null, "Johnny", "Doe", "johnny@example.com", 31, null));
+            jane.join();
+            CompletableFuture<Void> deleted = service.deleteUserAsync(jane.join().getId());
+            deleted.join();
+
+            // Then
+            assertThat(duplicate).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(ExecutionException.class)
+                    .withCauseInstanceOf(UserAlreadyExistsException.class);
+            assertThatThrownBy(() -> service.deleteUser(99L)).isInstanceOf(UserNotFoundException.class);
+            assertThat(service.getAllUsers()).extracting(UserDto::getEmail).containsExactly("johnny@example.com");
+            assertThat(service.searchUsersByText("Johnny", 10)).extracting(UserDto::getId)
+                    .containsExactly(john.getId());
+            assertThat(service.getChanges(initial, 100).getChanges()).extracting(UserChangeDto::getType)
+                    .containsExactly(UserChangeDto.Type.CREATED, UserChangeDto.Type.CREATED,
+                            UserChangeDto.Type.UPDATED, UserChangeDto.Type.DELETED);
+            assertThat(meterRegistry.get("users.writes.applied").functionCounter().count()).isEqualTo(6);
+            assertThat(meterRegistry.get("users.writes.pending").gauge().value()).isZero();
+        } finally {
+            service.close();
+        }
+        assertThatThrownBy(() -> service.createUser(testUser2))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("Should allow only one of many concurrent pipelined creates with the same email")
+    void shouldAllowOnlyOneConcurrentPipelinedCreateWithSameEmail() {
+        // Given
+        UserService service = new UserService(new InMemoryUserRepository(), new SimpleMeterRegistry(),
+                new ObjectMapper(), UserService.DEFAULT_RESPONSE_CACHE_SIZE, UserService.DEFAULT_CHANGE_LOG_RETENTION,
+                "pipelined");
+        int numberOfWrites = 64;
+        List<CompletableFuture<UserDto>> creates = new ArrayList<>();
+
+        try {
+            // When
+            for (int i = 0; i < numberOfWrites; i++) {
+                creates.add(service.createUserAsync(
+                        new UserDto(null, "User", "Test", "same@test.com", 20 + i % 50, "+15550000000")));
+            }
+            long conflicts = creates.stream().filter(future -> future.handle((user, failure) ->
+                    failure instanceof UserAlreadyExistsException).join()).count();
+
+            // Then
+            assertThat(service.getUserCount()).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(numberOfWrites - 1);
+            assertThat(creates.get(0).join().getEmail()).isEqualTo("same@test.com");
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report writes as blocking in pipelined mode, whatever the store")
+    void shouldReportPipelinedWritesAsBlocking() {
+        // Given
+        UserService pipelined = new UserService(new InMemoryUserRepository(), new SimpleMeterRegistry(),
+                new ObjectMapper(), UserService.DEFAULT_RESPONSE_CACHE_SIZE, UserService.DEFAULT_CHANGE_LOG_RETENTION,
+                "pipelined");
+
+        try {
+            // Then
+            assertThat(pipelined.writesMayBlock()).isTrue();
+            assertThat(pipelined.readsMayBlock()).isFalse();
+            assertThat(userService.writesMayBlock()).isFalse();
+            assertThat(userService.readsMayBlock()).isFalse();
+        } finally {
+            pipelined.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should record operation timers, failure counters and size gauges")
+    void shouldRecordMetrics() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService instrumentedService = searchableService(new InMemoryUserRepository(), meterRegistry);
+        UserDto createdUser = instrumentedService.createUser(testUser1);
+
+        // When
+        instrumentedService.getUserById(createdUser.getId());
+        assertThatThrownBy(() -> instrumentedService.getUserById(99L)).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> instrumentedService.createUser(
+                new UserDto(null, "Other", "Doe", "john.doe@example.com", 40, null)))
+                .isInstanceOf(UserAlreadyExistsException.class);
+
+        // Then
+        assertThat(meterRegistry.get("users.operations").tag("operation", "get").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("users.operations").tag("operation", "create").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("users.not.found").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.email.conflicts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.store.size").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.index.size").tag("index", "email").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.index.size").tag("index", "lastName").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record response cache hits, misses and size")
+    void shouldRecordResponseCacheMetrics() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserService instrumentedService = new UserService(new InMemoryUserRepository(), meterRegistry);
+        UserDto createdUser = instrumentedService.createUser(testUser1);
+
+        // When
+        instrumentedService.findSerializedUser(createdUser.getId());
+        instrumentedService.findSerializedUser(createdUser.getId());
+        instrumentedService.findSerializedUser(99L);
+
+        // Then
+        assertThat(meterRegistry.get("users.response.cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("users.response.cache.gets").tag("result", "miss").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("users.response.cache.size").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("users.response.cache.weight").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("users.operations").tag("operation", "get-serialized").timer().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("users.not.found").counter().count()).isEqualTo(1);
+    }
+
+    private static UserService searchableService(UserRepository repository, MeterRegistry meterRegistry) {
+        return new UserService(repository, meterRegistry, new ObjectMapper(), UserService.DEFAULT_RESPONSE_CACHE_SIZE,
+                UserService.DEFAULT_CHANGE_LOG_RETENTION, "direct", true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.demo.actions.GithubActionsDemo.service;
+
+import com.demo.actions.GithubActionsDemo.dto.UserDto;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests that compiled validation of {@link UserDto} agrees with the bean
+ * validator.
+ */
+@DisplayName("User Validation Service Tests")
+class UserValidationServiceTest {
+
+    private static final List<String> NAMES = List.of(
+            "John", "Mary Ann", "J", "", " ", "\t", "John3", "Jean-Luc", "Zoë", "A".repeat(50), "A".repeat(51));
+    private static final List<String> EMAILS = List.of(
+            "john.doe@example.com", "", " ", "plain", "a@b", "a@b.c", "a.@b.com", ".a@b.com", "a..b@c.com",
+            "a@-b.com", "a@b-.com", "a@b--c.com", "a@b..com", "a@b.com.", "@b.com", "a@", "A@B.COM",
+            "x".repeat(64) + "@b.com", "x".repeat(65) + "@b.com", "a@" + "b".repeat(64) + ".com",
+            "\"quoted name\"@example.com", "a@[127.0.0.1]", "a@[IPv6:::1]", "josé@example.com",
+            "a@bücher.de", "a b@c.com", "a@c_d.com", "a@b.c@d.com", "a@b.com\n");
+    private static final List<String> PHONE_NUMBERS = List.of(
+            "+1-555-123-4567", "+15551234567", "15551234567", "0123", "+0123", "1", "+1", "12",
+            "+123456789012345", "+1234567890123456", "555 1234", "");
+    private static final List<Integer> AGES = List.of(-1, 0, 30, 150, 151);
+
+    private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final UserValidationService compiled = new UserValidationService(beanValidator, "compiled");
+    private final UserValidationService reflective = new UserValidationService(beanValidator, "reflective");
+
+    @Test
+    @DisplayName("Should report the same violations as the bean validator")
+    void shouldReportSameViolationsAsBeanValidator() {
+        // Given
+        Random random = new Random(42);
+        List<UserDto> users = new ArrayList<>();
+        for (String name : NAMES) {
+            users.add(new UserDto(null, name, name, "a@b.com", 30, null));
+        }
+        for (String email : EMAILS) {
+            users.add(new UserDto(null, "John", "Doe", email, 30, null));
+        }
+        for (String phoneNumber : PHONE_NUMBERS) {
+            users.add(new UserDto(null, "John", "Doe", "a@b.com", 30, phoneNumber));
+        }
+        for (Integer age : AGES) {
+            users.add(new UserDto(null, "John", "Doe", "a@b.com", age, null));
+        }
+        users.add(new UserDto());
+        for (int i = 0; i < 1000; i++) {
+            users.add(new UserDto(null, pick(random, NAMES), pick(random, NAMES), pick(random, EMAILS),
+                    random.nextBoolean() ? pick(random, AGES) : null, pick(random, PHONE_NUMBERS)));
+        }
+
+        // When & Then
+        for (UserDto user : users) {
+            assertThat(compiled.validate(user)).as(user.toString())
+                    .containsExactlyInAnyOrderElementsOf(reflective.validate(user));
+            assertThat(fieldErrors(compiled, user)).as(user.toString())
+                    .containsExactlyInAnyOrderElementsOf(fieldErrors(reflective, user));
+        }
+    }
+
+    @Test
+    @DisplayName("Should report field paths and messages of violated constraints")
+    void shouldReportFieldPathsAndMessages() {
+        // Given
+        UserDto user = new UserDto(null, "J", "Doe3", "not-an-email", 151, "0123");
+
+        // When & Then
+        assertThat(compiled.validate(user)).containsExactlyInAnyOrder(
+                "firstName: First name must be between 2 and 50 characters",
+                "lastName: Last name can only contain letters and spaces",
+                "email: Email must be a valid email address",
+                "age: Age must be reasonable",
+                "phoneNumber: Phone number must be a valid international format");
+        assertThat(compiled.validate(new UserDto(null, "John", "Doe", "john.doe@example.com", 30, "+15551234567")))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown validation modes")
+    void shouldRejectUnknownModes() {
+        assertThatThrownBy(() -> new UserValidationService(beanValidator, "fast"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("fast");
+    }
+
+    private static List<String> fieldErrors(UserValidationService validationService, UserDto user) {
+        Errors errors = new BeanPropertyBindingResult(user, "userDto");
+        validationService.validate((Object) user, errors);
+        return errors.getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getCode() + ": " + error.getDefaultMessage())
+                .toList();
+    }
+
+    private static <T> T pick(Random random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}